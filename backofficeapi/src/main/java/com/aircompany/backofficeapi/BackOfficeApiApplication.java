@@ -2,8 +2,12 @@ package com.aircompany.backofficeapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class BackOfficeApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(BackOfficeApiApplication.class, args);
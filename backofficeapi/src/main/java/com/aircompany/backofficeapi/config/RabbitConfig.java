@@ -1,13 +1,18 @@
 package com.aircompany.backofficeapi.config;
 
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitConfig {
+    public static final String NEW_REVIEW_QUEUE = "reviews.new.queue";
 
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
@@ -21,4 +26,23 @@ public class RabbitConfig {
         template.setMessageConverter(converter);
         return template;
     }
+
+    // Hands the listener up to batch-size messages at once; a partial batch is released once no
+    // new message arrives within max-wait-ms. With AUTO ack the whole batch is acked (or requeued) together.
+    @Bean
+    @ConditionalOnProperty(name = "reviews.consumer.batch.enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory reviewBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${reviews.consumer.batch.size:100}") int batchSize,
+            @Value("${reviews.consumer.batch.max-wait-ms:500}") long maxWaitMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(maxWaitMs);
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        return factory;
+    }
 }
@@ -0,0 +1,36 @@
+package com.aircompany.backofficeapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+// Async requests keep the default timeout (spring.mvc.async.request-timeout). A handler that
+// streams for longer, such as the review export, sets its own in the request attribute
+// ASYNC_TIMEOUT (milliseconds, -1 for none), applied just before the async start
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    public static final String ASYNC_TIMEOUT = WebAsyncConfig.class.getName() + ".ASYNC_TIMEOUT";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor());
+    }
+
+    public static class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest
+                    && request.getAttribute(ASYNC_TIMEOUT, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+                asyncRequest.setTimeout(timeout);
+            }
+        }
+    }
+}
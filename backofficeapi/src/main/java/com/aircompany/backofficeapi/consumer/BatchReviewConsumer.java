@@ -0,0 +1,86 @@
+package com.aircompany.backofficeapi.consumer;
+
+import com.aircompany.backofficeapi.config.RabbitConfig;
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.service.RatingStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Batch replacement for ReviewConsumer: one locking SELECT and one UPDATE ... WHERE id IN (...) per
+// batch instead of a findById + save round trip per message. Throughput: rate of reviews.consumer.messages.
+@Component
+@ConditionalOnProperty(name = "reviews.consumer.batch.enabled", havingValue = "true")
+public class BatchReviewConsumer {
+
+    private final ReviewRepository repository;
+    private final RatingStatsService ratingStatsService;
+    private final Counter messages;
+    private final Counter rejected;
+    private final Timer batches;
+
+    public BatchReviewConsumer(ReviewRepository repository, RatingStatsService ratingStatsService,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ratingStatsService = ratingStatsService;
+        this.messages = Counter.builder("reviews.consumer.messages")
+                .description("New-review messages consumed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reviews.consumer.rejected")
+                .description("Messages dropped because reviewId is missing or malformed")
+                .register(meterRegistry);
+        this.batches = Timer.builder("reviews.consumer.batch")
+                .description("Time spent updating one batch")
+                .register(meterRegistry);
+    }
+
+    // the container acks the batch only after this returns, i.e. after the update has committed
+    @RabbitListener(queues = RabbitConfig.NEW_REVIEW_QUEUE, containerFactory = "reviewBatchListenerContainerFactory")
+    @Transactional
+    public void handleNewReviews(List<Map<String, Object>> events) {
+        batches.record(() -> {
+            Set<UUID> reviewIds = new HashSet<>();
+            for (Map<String, Object> event : events) {
+                UUID reviewId = parseReviewId(event.get("reviewId"));
+                if (reviewId != null) {
+                    reviewIds.add(reviewId);
+                } else {
+                    // requeueing would redeliver the poison message with every batch
+                    rejected.increment();
+                }
+            }
+            if (!reviewIds.isEmpty()) {
+                // redelivered or already answered reviews are not SUBMITTED any more and are left alone
+                List<Review> submitted = repository.findByIdInAndStateForUpdate(reviewIds, ReviewState.SUBMITTED);
+                if (!submitted.isEmpty()) {
+                    repository.updateStateByIdIn(submitted.stream().map(Review::getId).toList(), ReviewState.TREATED);
+                    ratingStatsService.recordTransitions(submitted, ReviewState.SUBMITTED, ReviewState.TREATED);
+                }
+            }
+            messages.increment(events.size());
+        });
+    }
+
+    private UUID parseReviewId(Object reviewId) {
+        if (reviewId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(reviewId.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -3,27 +3,38 @@ package com.aircompany.backofficeapi.consumer;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
 import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.service.RatingStatsService;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.UUID;
 
+// Per-message consumer, used when batch mode is disabled (see BatchReviewConsumer)
 @Component
+@ConditionalOnProperty(name = "reviews.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class ReviewConsumer {
 
     private final ReviewRepository repository;
+    private final RatingStatsService ratingStatsService;
 
-    public ReviewConsumer(ReviewRepository repository) {
+    public ReviewConsumer(ReviewRepository repository, RatingStatsService ratingStatsService) {
         this.repository = repository;
+        this.ratingStatsService = ratingStatsService;
     }
 
     @RabbitListener(queues = "reviews.new.queue")
+    @Transactional
     public void handleNewReview(Map<String, Object> event) {
         UUID reviewId = UUID.fromString(event.get("reviewId").toString());
-        repository.findById(reviewId).ifPresent(r -> {
-            r.setState(ReviewState.TREATED);
-            repository.save(r);
-        });
+        repository.findByIdForUpdate(reviewId)
+                .filter(r -> r.getState() == ReviewState.SUBMITTED)
+                .ifPresent(r -> {
+                    r.setState(ReviewState.TREATED);
+                    repository.save(r);
+                    ratingStatsService.recordTransition(r, ReviewState.SUBMITTED, ReviewState.TREATED);
+                });
     }
 }
@@ -2,14 +2,14 @@ package com.aircompany.backofficeapi.controller;
 
 import com.aircompany.backofficeapi.dto.CompanySigninDto;
 import com.aircompany.backofficeapi.dto.CompanySignupDto;
+import com.aircompany.backofficeapi.dto.RefreshTokenDto;
 import com.aircompany.backofficeapi.model.Company;
 import com.aircompany.backofficeapi.service.CompanyService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api/v1/company")
 @CrossOrigin(origins = "http://localhost:4200")
@@ -27,9 +27,25 @@ public class CompanyController {
         return ResponseEntity.status(201).body(c.getId());
     }
 
+    // the remote address is the client's, taken from X-Forwarded-For when a trusted proxy sent the
+    // request (server.forward-headers-strategy)
     @PostMapping("/signin")
-    public ResponseEntity<?> signin(@RequestBody @Valid CompanySigninDto dto) {
-        String token = service.signin(dto);
-        return ResponseEntity.ok().body(Map.of("token", token));
+    public ResponseEntity<?> signin(@RequestBody @Valid CompanySigninDto dto, HttpServletRequest request) {
+        return ResponseEntity.ok().body(service.signin(dto, request.getRemoteAddr()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshTokenDto dto) {
+        return ResponseEntity.ok().body(service.refresh(dto.getRefreshToken()));
+    }
+
+    @PostMapping("/signout")
+    public ResponseEntity<?> signout(@RequestBody @Valid RefreshTokenDto dto,
+                                     @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7).trim()
+                : null;
+        service.signout(dto.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
     }
 }
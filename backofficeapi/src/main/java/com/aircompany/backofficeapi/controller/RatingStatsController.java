@@ -0,0 +1,39 @@
+package com.aircompany.backofficeapi.controller;
+
+import com.aircompany.backofficeapi.dto.RatingStats;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.security.CompanyPrincipal;
+import com.aircompany.backofficeapi.service.RatingStatsService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/reviews/stats")
+@CrossOrigin(origins = "http://localhost:4200")
+public class RatingStatsController {
+
+    private final RatingStatsService service;
+
+    public RatingStatsController(RatingStatsService service) {
+        this.service = service;
+    }
+
+    // rating aggregate of the authenticated company, optionally for a single review state
+    @GetMapping
+    public RatingStats getCompanyStats(Authentication authentication,
+                                       @RequestParam(required = false) ReviewState state) {
+        return service.getCompanyStats(companyName(authentication), state);
+    }
+
+    @GetMapping("/flights/{flightNumber}")
+    public RatingStats getFlightStats(@PathVariable String flightNumber,
+                                      Authentication authentication,
+                                      @RequestParam(required = false) ReviewState state) {
+        return service.getFlightStats(companyName(authentication), flightNumber, state);
+    }
+
+    // the stats tables are keyed by company name, which the token carries next to the id
+    private static String companyName(Authentication authentication) {
+        return ((CompanyPrincipal) authentication.getPrincipal()).name();
+    }
+}
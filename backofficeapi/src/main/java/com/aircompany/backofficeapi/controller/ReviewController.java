@@ -1,16 +1,20 @@
 package com.aircompany.backofficeapi.controller;
 
 import com.aircompany.backofficeapi.dto.ReviewResponseDto;
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
 import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.service.ReviewService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
 import java.util.UUID;
 
 @RestController
@@ -19,20 +23,28 @@ import java.util.UUID;
 public class ReviewController {
 
     private final ReviewService service;
+    private final ZoneId timeZone;
 
-    public ReviewController(ReviewService service) {
+    public ReviewController(ReviewService service, @Value("${reviews.time-zone:UTC}") ZoneId timeZone) {
         this.service = service;
+        this.timeZone = timeZone;
     }
 
+    // Date filter: date=2024-01-15, or from/to as inclusive days; days are taken in tz (an IANA
+    // zone id, reviews.time-zone by default)
     @GetMapping
-    public Page<ReviewWithFlightDto> getReviews(Pageable pageable, 
+    public Page<ReviewSummaryDto> getReviews(Pageable pageable, 
                                                 Authentication authentication,
                                                 @RequestParam(required = false) String flightNumber,
                                                 @RequestParam(required = false) String keyword,
                                                 @RequestParam(required = false) String date,
+                                                @RequestParam(required = false) String from,
+                                                @RequestParam(required = false) String to,
+                                                @RequestParam(required = false) String tz,
                                                 @RequestParam(required = false) String state) {
-        String companyName = authentication.getName();
-        return service.getReviewsForCompany(companyName, pageable, flightNumber, keyword, date, state);
+        UUID companyId = UUID.fromString(authentication.getName());
+        return service.getReviewSummaries(companyId, pageable, flightNumber, keyword,
+                SubmittedAtRange.of(date, from, to, tz, timeZone), state);
     }
 
     @GetMapping("/{id}")
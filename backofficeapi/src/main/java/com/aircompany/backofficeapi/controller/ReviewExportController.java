@@ -0,0 +1,62 @@
+package com.aircompany.backofficeapi.controller;
+
+import com.aircompany.backofficeapi.config.WebAsyncConfig;
+import com.aircompany.backofficeapi.dto.ReviewExportFormat;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.service.ReviewExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.ZoneId;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/reviews/export")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReviewExportController {
+
+    private final ReviewExportService service;
+    private final ZoneId timeZone;
+    private final long timeoutMs;
+
+    public ReviewExportController(ReviewExportService service,
+                                  @Value("${reviews.time-zone:UTC}") ZoneId timeZone,
+                                  @Value("${reviews.export.timeout-ms:3600000}") long timeoutMs) {
+        this.service = service;
+        this.timeZone = timeZone;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // All reviews of the authenticated company in one response, with the same filters as GET /api/v1/reviews
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportReviews(Authentication authentication,
+                                                               HttpServletRequest request,
+                                                               @RequestParam(defaultValue = "NDJSON") ReviewExportFormat format,
+                                                               @RequestParam(required = false) String flightNumber,
+                                                               @RequestParam(required = false) String keyword,
+                                                               @RequestParam(required = false) String date,
+                                                               @RequestParam(required = false) String from,
+                                                               @RequestParam(required = false) String to,
+                                                               @RequestParam(required = false) String tz,
+                                                               @RequestParam(required = false) String state) {
+        UUID companyId = UUID.fromString(authentication.getName());
+        SubmittedAtRange submitted = SubmittedAtRange.of(date, from, to, tz, timeZone);
+        // a large export outlasts the default async timeout of other requests
+        request.setAttribute(WebAsyncConfig.ASYNC_TIMEOUT, timeoutMs);
+        StreamingResponseBody body = out ->
+                service.export(companyId, flightNumber, keyword, submitted, state, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reviews." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,18 @@
+package com.aircompany.backofficeapi.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Rating aggregate of a flight or company: review count, average and 1-5 star distribution
+public record RatingStats(long reviewCount, Double averageRating, Map<Integer, Long> distribution) {
+
+    // histogram[n - 1] is the number of n-star reviews
+    public static RatingStats of(long reviewCount, long ratingSum, long[] histogram) {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int stars = 1; stars <= 5; stars++) {
+            distribution.put(stars, histogram[stars - 1]);
+        }
+        Double average = reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+        return new RatingStats(reviewCount, average, distribution);
+    }
+}
@@ -0,0 +1,16 @@
+package com.aircompany.backofficeapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenDto {
+    @NotBlank
+    private String refreshToken;
+
+    public @NotBlank String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(@NotBlank String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,21 @@
+package com.aircompany.backofficeapi.dto;
+
+import com.aircompany.backofficeapi.model.ReviewState;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Row of the backoffice review list: description and responseText are excerpts, the full
+// review (with customer details) comes from GET /api/v1/reviews/{id}
+public record ReviewSummaryDto(UUID id,
+                               String flightNumber,
+                               String origin,
+                               String destination,
+                               String flightDate,
+                               Integer rating,
+                               String description,
+                               OffsetDateTime submittedAt,
+                               ReviewState state,
+                               String responseText,
+                               OffsetDateTime responseAt) {
+}
@@ -0,0 +1,5 @@
+package com.aircompany.backofficeapi.dto;
+
+// Returned by signin and refresh: a short-lived access token and the single-use refresh token
+public record SessionTokens(String token, String refreshToken) {
+}
@@ -0,0 +1,47 @@
+package com.aircompany.backofficeapi.dto;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+// Date filter as a half-open [from, to) range of submittedAt instants, so the queries compare the
+// column itself and stay on the submitted_at indexes; null bounds are open
+public record SubmittedAtRange(OffsetDateTime from, OffsetDateTime to) {
+
+    public static final SubmittedAtRange ALL = new SubmittedAtRange(null, null);
+
+    // date selects a single day, from/to are inclusive days; days start at midnight in the given
+    // time zone (defaultZone when absent). Invalid values are ignored
+    public static SubmittedAtRange of(String date, String from, String to, String zone, ZoneId defaultZone) {
+        ZoneId zoneId = parseZone(zone, defaultZone);
+        LocalDate day = parseDate(date);
+        LocalDate first = day != null ? day : parseDate(from);
+        LocalDate last = day != null ? day : parseDate(to);
+        return new SubmittedAtRange(
+                first != null ? first.atStartOfDay(zoneId).toOffsetDateTime() : null,
+                last != null ? last.plusDays(1).atStartOfDay(zoneId).toOffsetDateTime() : null);
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date != null && !date.isBlank()) {
+            try {
+                return LocalDate.parse(date);
+            } catch (DateTimeException e) {
+                // ignore invalid date format
+            }
+        }
+        return null;
+    }
+
+    private static ZoneId parseZone(String zone, ZoneId defaultZone) {
+        if (zone != null && !zone.isBlank()) {
+            try {
+                return ZoneId.of(zone);
+            } catch (DateTimeException e) {
+                // ignore unknown time zone
+            }
+        }
+        return defaultZone;
+    }
+}
@@ -13,7 +13,11 @@ public class Review {
     private String customerName;
     private String customerEmail;
     private String flightNumber;
+    // the flight row (number and date) the customer picked
+    private UUID flightId;
     private String companyName;
+    // tenant key, resolved from companyName by the database on insert
+    private UUID companyId;
     private Integer rating;
 
     @Column(columnDefinition = "text")
@@ -55,6 +59,14 @@ public class Review {
         this.flightNumber = flightNumber;
     }
 
+    public UUID getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(UUID flightId) {
+        this.flightId = flightId;
+    }
+
     public String getCompanyName() {
         return companyName;
     }
@@ -63,6 +75,14 @@ public class Review {
         this.companyName = companyName;
     }
 
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(UUID companyId) {
+        this.companyId = companyId;
+    }
+
     public Integer getRating() {
         return rating;
     }
@@ -7,5 +7,6 @@ import java.util.UUID;
 
 public interface CompanyRepository extends JpaRepository<Company, UUID> {
     Optional<Company> findByEmail(String email);
+    // sign-in lookup, served by the unique idx_company_name
     Optional<Company> findByName(String name);
 }
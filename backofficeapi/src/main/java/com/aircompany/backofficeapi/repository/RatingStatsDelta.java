@@ -0,0 +1,62 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+
+import java.util.Comparator;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Signed changes to the rating aggregates, accumulated per (flight, state) and (company, state) row
+// so that RatingStatsRepository writes each touched row once. Rows are kept sorted so concurrent
+// transactions upsert (and lock) them in the same order.
+public class RatingStatsDelta {
+
+    // counts[0] reviews, counts[1] rating sum, counts[1 + n] n-star reviews
+    private final SortedMap<Row, long[]> flights = new TreeMap<>();
+    private final SortedMap<Row, long[]> companies = new TreeMap<>();
+
+    // Adds (sign = 1) or removes (sign = -1) the review's rating under the given state
+    public void add(Review review, ReviewState state, int sign) {
+        Integer rating = review.getRating();
+        if (rating == null || rating < 1 || rating > 5) {
+            return;
+        }
+        if (review.getFlightNumber() != null) {
+            accumulate(flights, new Row(review.getFlightNumber(), review.getCompanyName(), state), rating, sign);
+        }
+        if (review.getCompanyName() != null) {
+            accumulate(companies, new Row(review.getCompanyName(), null, state), rating, sign);
+        }
+    }
+
+    public boolean isEmpty() {
+        return flights.isEmpty() && companies.isEmpty();
+    }
+
+    SortedMap<Row, long[]> flights() {
+        return flights;
+    }
+
+    SortedMap<Row, long[]> companies() {
+        return companies;
+    }
+
+    private static void accumulate(SortedMap<Row, long[]> rows, Row row, int rating, int sign) {
+        long[] counts = rows.computeIfAbsent(row, r -> new long[7]);
+        counts[0] += sign;
+        counts[1] += (long) sign * rating;
+        counts[1 + rating] += sign;
+    }
+
+    // name is the flight number (with its company) or the company name (companyName null)
+    record Row(String name, String companyName, ReviewState state) implements Comparable<Row> {
+
+        private static final Comparator<Row> ORDER = Comparator.comparing(Row::name).thenComparing(Row::state);
+
+        @Override
+        public int compareTo(Row other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
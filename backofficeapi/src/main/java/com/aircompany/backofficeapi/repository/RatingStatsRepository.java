@@ -0,0 +1,118 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.RatingStats;
+import com.aircompany.backofficeapi.model.ReviewState;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Per-flight and per-company rating aggregates (flight_rating_stats, company_rating_stats), one row
+// per review state. Reads sum at most one row per state; writes are batched upserts of deltas.
+@Repository
+public class RatingStatsRepository {
+
+    private static final String COUNTERS = "review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5";
+
+    private static final String COUNTER_VALUES = ":reviewCount, :ratingSum, :rating1, :rating2, :rating3, :rating4, :rating5";
+
+    private static final String INCREMENT_COUNTERS =
+            "DO UPDATE SET review_count = s.review_count + EXCLUDED.review_count, " +
+            "rating_sum = s.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_1 = s.rating_1 + EXCLUDED.rating_1, rating_2 = s.rating_2 + EXCLUDED.rating_2, " +
+            "rating_3 = s.rating_3 + EXCLUDED.rating_3, rating_4 = s.rating_4 + EXCLUDED.rating_4, " +
+            "rating_5 = s.rating_5 + EXCLUDED.rating_5, updated_at = now()";
+
+    private static final String UPSERT_FLIGHT =
+            "INSERT INTO flight_rating_stats AS s (flight_number, company_name, state, " + COUNTERS + ") " +
+            "VALUES (:name, :companyName, :state, " + COUNTER_VALUES + ") " +
+            "ON CONFLICT (flight_number, state) " + INCREMENT_COUNTERS;
+
+    private static final String UPSERT_COMPANY =
+            "INSERT INTO company_rating_stats AS s (company_name, state, " + COUNTERS + ") " +
+            "VALUES (:name, :state, " + COUNTER_VALUES + ") " +
+            "ON CONFLICT (company_name, state) " + INCREMENT_COUNTERS;
+
+    private static final String SUM_COUNTERS =
+            "SELECT coalesce(sum(review_count), 0) AS review_count, coalesce(sum(rating_sum), 0) AS rating_sum, " +
+            "coalesce(sum(rating_1), 0) AS rating_1, coalesce(sum(rating_2), 0) AS rating_2, " +
+            "coalesce(sum(rating_3), 0) AS rating_3, coalesce(sum(rating_4), 0) AS rating_4, " +
+            "coalesce(sum(rating_5), 0) AS rating_5 ";
+
+    private static final RowMapper<RatingStats> RATING_STATS = (rs, rowNum) -> RatingStats.of(
+            rs.getLong("review_count"),
+            rs.getLong("rating_sum"),
+            new long[] {rs.getLong("rating_1"), rs.getLong("rating_2"), rs.getLong("rating_3"),
+                    rs.getLong("rating_4"), rs.getLong("rating_5")});
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RatingStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // one JDBC batch per table; must run in the transaction that changed the review states
+    public void apply(RatingStatsDelta delta) {
+        upsert(UPSERT_FLIGHT, delta.flights());
+        upsert(UPSERT_COMPANY, delta.companies());
+    }
+
+    public RatingStats findFlightStats(String companyName, String flightNumber, Collection<ReviewState> states) {
+        return jdbcTemplate.queryForObject(SUM_COUNTERS + "FROM flight_rating_stats " +
+                        "WHERE flight_number = :name AND company_name = :companyName AND state IN (:states)",
+                new MapSqlParameterSource("name", flightNumber)
+                        .addValue("companyName", companyName)
+                        .addValue("states", names(states)),
+                RATING_STATS);
+    }
+
+    public RatingStats findCompanyStats(String companyName, Collection<ReviewState> states) {
+        return jdbcTemplate.queryForObject(SUM_COUNTERS + "FROM company_rating_stats " +
+                        "WHERE company_name = :name AND state IN (:states)",
+                new MapSqlParameterSource("name", companyName).addValue("states", names(states)),
+                RATING_STATS);
+    }
+
+    private void upsert(String sql, SortedMap<RatingStatsDelta.Row, long[]> rows) {
+        List<SqlParameterSource> batch = rows.entrySet().stream()
+                .filter(e -> !isZero(e.getValue()))
+                .map(e -> parameters(e.getKey(), e.getValue()))
+                .toList();
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private static SqlParameterSource parameters(RatingStatsDelta.Row row, long[] counts) {
+        return new MapSqlParameterSource(Map.of(
+                "name", row.name(),
+                "state", row.state().name(),
+                "reviewCount", counts[0],
+                "ratingSum", counts[1],
+                "rating1", counts[2],
+                "rating2", counts[3],
+                "rating3", counts[4],
+                "rating4", counts[5],
+                "rating5", counts[6]))
+                .addValue("companyName", row.companyName());
+    }
+
+    private static boolean isZero(long[] counts) {
+        for (long count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> names(Collection<ReviewState> states) {
+        return states.stream().map(ReviewState::name).toList();
+    }
+}
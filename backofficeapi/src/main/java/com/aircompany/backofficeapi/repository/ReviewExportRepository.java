@@ -0,0 +1,92 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Reads a company's reviews, joined with their flight, through a server-side cursor: rows are
+// fetched fetch-size at a time and handed to the caller one by one, never held as a list.
+// The cursor is DECLAREd rather than left to the driver's fetch size: PostgreSQL plans a cursor
+// for its first rows, so the flight join is a primary key probe per review and rows come in index
+// order, instead of after hashing the whole flight catalog and sorting. DECLARE needs a transaction.
+@Repository
+public class ReviewExportRepository {
+
+    private static final String SELECT =
+            "SELECT r.id, r.customer_name, r.customer_email, r.flight_number, r.company_name, r.rating, " +
+            "r.description, r.submitted_at, r.state, r.response_text, r.response_at, " +
+            "f.origin, f.destination, f.flight_date " +
+            "FROM review r " +
+            "LEFT JOIN flight f ON f.id = r.flight_id " +
+            "WHERE r.company_id = ?";
+
+    static final String CURSOR = "review_export";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ReviewExportRepository(DataSource dataSource,
+                                  @Value("${reviews.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+    }
+
+    // Same filters as the review list (ReviewFilters); null means no filter
+    public void streamByCompanyId(UUID companyId, String flightNumber, String keyword,
+                                  SubmittedAtRange submitted, ReviewState state, Consumer<ReviewWithFlightDto> sink) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(companyId);
+        ReviewFilters.append(sql, args, flightNumber, keyword, submitted, state);
+        sql.append(" ORDER BY r.submitted_at DESC, r.id");
+
+        jdbcTemplate.update("DECLARE " + CURSOR + " NO SCROLL CURSOR FOR " + sql, args.toArray());
+        int[] fetched = new int[1];
+        RowCallbackHandler handler = rs -> {
+            fetched[0]++;
+            sink.accept(toDto(rs));
+        };
+        // a batch shorter than fetch-size is the last one
+        do {
+            fetched[0] = 0;
+            jdbcTemplate.query("FETCH " + fetchSize + " FROM " + CURSOR, handler);
+        } while (fetched[0] == fetchSize);
+        // after a failure, the transaction's rollback closes it
+        jdbcTemplate.execute("CLOSE " + CURSOR);
+    }
+
+    private static ReviewWithFlightDto toDto(ResultSet rs) throws SQLException {
+        ReviewWithFlightDto dto = new ReviewWithFlightDto();
+        dto.setId(rs.getObject("id", UUID.class));
+        dto.setCustomerName(rs.getString("customer_name"));
+        dto.setCustomerEmail(rs.getString("customer_email"));
+        dto.setFlightNumber(rs.getString("flight_number"));
+        dto.setCompanyName(rs.getString("company_name"));
+        dto.setRating(rs.getObject("rating", Integer.class));
+        dto.setDescription(rs.getString("description"));
+        dto.setSubmittedAt(rs.getObject("submitted_at", OffsetDateTime.class));
+        String state = rs.getString("state");
+        dto.setState(state != null ? ReviewState.valueOf(state) : null);
+        dto.setResponseText(rs.getString("response_text"));
+        dto.setResponseAt(rs.getObject("response_at", OffsetDateTime.class));
+        dto.setOrigin(rs.getString("origin"));
+        dto.setDestination(rs.getString("destination"));
+        LocalDate flightDate = rs.getObject("flight_date", LocalDate.class);
+        dto.setFlightDate(flightDate != null ? flightDate.toString() : null);
+        return dto;
+    }
+}
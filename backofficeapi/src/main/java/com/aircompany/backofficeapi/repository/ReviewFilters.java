@@ -0,0 +1,43 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+
+import java.util.List;
+
+// Filters of the backoffice review list and export, shared by the JDBC repositories; null (or
+// blank) means no filter, as does an open bound of the submitted range
+final class ReviewFilters {
+
+    // same expressions as the idx_review_description_fts index
+    static final String DOCUMENT = "to_tsvector('simple', coalesce(r.description, ''))";
+    static final String QUERY = "websearch_to_tsquery('simple', ?)";
+
+    private ReviewFilters() {
+    }
+
+    static void append(StringBuilder sql, List<Object> args, String flightNumber, String keyword,
+                       SubmittedAtRange submitted, ReviewState state) {
+        if (flightNumber != null && !flightNumber.isBlank()) {
+            sql.append(" AND r.flight_number LIKE ?");
+            args.add("%" + flightNumber + "%");
+        }
+        if (keyword != null && !keyword.isBlank()) {
+            sql.append(" AND ").append(DOCUMENT).append(" @@ ").append(QUERY);
+            args.add(keyword);
+        }
+        // compares the column itself, so the submitted_at indexes apply
+        if (submitted.from() != null) {
+            sql.append(" AND r.submitted_at >= ?");
+            args.add(submitted.from());
+        }
+        if (submitted.to() != null) {
+            sql.append(" AND r.submitted_at < ?");
+            args.add(submitted.to());
+        }
+        if (state != null) {
+            sql.append(" AND r.state = ?");
+            args.add(state.name());
+        }
+    }
+}
@@ -2,28 +2,30 @@ package com.aircompany.backofficeapi.repository;
 
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
-    Page<Review> findByCompanyName(String companyName, Pageable pageable);
-    Page<Review> findByCompanyNameAndState(String companyName, ReviewState state, Pageable pageable);
-    
-    @Query("SELECT r FROM Review r WHERE r.companyName = :companyName AND " +
-           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
-           "(:keyword IS NULL OR r.description LIKE %:keyword%) AND " +
-           "(:date IS NULL OR CAST(r.submittedAt AS date) = :date) AND " +
-           "(:state IS NULL OR r.state = :state)")
-    Page<Review> findByCompanyNameAndFilters(@Param("companyName") String companyName,
-                                             @Param("flightNumber") String flightNumber,
-                                             @Param("keyword") String keyword,
-                                             @Param("date") LocalDate date,
-                                             @Param("state") ReviewState state,
-                                             Pageable pageable);
+    // Row locks keep a state change and its rating-aggregate update from racing a concurrent one
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id IN :ids AND r.state = :state")
+    List<Review> findByIdInAndStateForUpdate(@Param("ids") Collection<UUID> ids, @Param("state") ReviewState state);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.state = :state WHERE r.id IN :ids")
+    int updateStateByIdIn(@Param("ids") Collection<UUID> ids, @Param("state") ReviewState state);
 }
@@ -0,0 +1,137 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Backoffice list page in two plain SQL queries (count + page): the flight is joined in SQL and
+// the text columns are cut in the database, so no entity, persistence context or full text
+// is involved per row
+@Repository
+public class ReviewSummaryRepository {
+
+    private static final String FROM =
+            " FROM review r WHERE r.company_id = ?";
+
+    // the page is picked first, so the flight join and the text cuts run for page rows only;
+    // one extra character tells whether a text was cut
+    private static final String SELECT =
+            "SELECT r.id, r.flight_number, r.rating, left(r.description, ?) AS description, r.submitted_at, " +
+            "r.state, left(r.response_text, ?) AS response_text, r.response_at, " +
+            "f.origin, f.destination, f.flight_date FROM (";
+    private static final String PAGE_COLUMNS =
+            "SELECT r.id, r.flight_number, r.flight_id, r.rating, r.description, r.submitted_at, r.state, " +
+            "r.response_text, r.response_at";
+    private static final String JOIN_FLIGHT =
+            ") r LEFT JOIN flight f ON f.id = r.flight_id";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "submittedAt", "r.submitted_at",
+            "responseAt", "r.response_at",
+            "rating", "r.rating",
+            "state", "r.state",
+            "flightNumber", "r.flight_number");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int excerptLength;
+
+    public ReviewSummaryRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${reviews.list.excerpt-length:200}") int excerptLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.excerptLength = excerptLength;
+    }
+
+    // Filters as in ReviewFilters; with a keyword, most relevant first and the Pageable sort only breaks ties
+    public Page<ReviewSummaryDto> findByCompanyId(UUID companyId, String flightNumber, String keyword,
+                                                  SubmittedAtRange submitted, ReviewState state, Pageable pageable) {
+        StringBuilder where = new StringBuilder();
+        List<Object> filterArgs = new ArrayList<>();
+        ReviewFilters.append(where, filterArgs, flightNumber, keyword, submitted, state);
+
+        List<Object> countArgs = new ArrayList<>();
+        countArgs.add(companyId);
+        countArgs.addAll(filterArgs);
+        Long total = jdbcTemplate.queryForObject("SELECT count(*)" + FROM + where, Long.class, countArgs.toArray());
+        if (total == null || total == 0 || (pageable.isPaged() && pageable.getOffset() >= total)) {
+            return new PageImpl<>(List.of(), pageable, total != null ? total : 0);
+        }
+
+        boolean ranked = keyword != null && !keyword.isBlank();
+        String order = (ranked ? "rank DESC, " : "") + orderBy(pageable.getSort());
+        StringBuilder sql = new StringBuilder(SELECT).append(PAGE_COLUMNS);
+        List<Object> args = new ArrayList<>();
+        args.add(excerptLength + 1);
+        args.add(excerptLength + 1);
+        if (ranked) {
+            sql.append(", ts_rank(").append(ReviewFilters.DOCUMENT).append(", ").append(ReviewFilters.QUERY).append(") AS rank");
+            args.add(keyword);
+        }
+        sql.append(FROM).append(where).append(" ORDER BY ").append(order);
+        args.add(companyId);
+        args.addAll(filterArgs);
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ? OFFSET ?");
+            args.add(pageable.getPageSize());
+            args.add(pageable.getOffset());
+        }
+        sql.append(JOIN_FLIGHT).append(" ORDER BY ").append(order);
+        List<ReviewSummaryDto> content = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toDto(rs), args.toArray());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // id last, so pages stay stable when the sort column has ties
+    private static String orderBy(Sort sort) {
+        StringBuilder order = new StringBuilder();
+        if (sort.isUnsorted()) {
+            order.append("r.submitted_at DESC, ");
+        }
+        for (Sort.Order o : sort) {
+            String column = SORT_COLUMNS.get(o.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + o.getProperty());
+            }
+            order.append(column).append(o.isAscending() ? " ASC" : " DESC").append(", ");
+        }
+        return order.append("r.id").toString();
+    }
+
+    private ReviewSummaryDto toDto(ResultSet rs) throws SQLException {
+        String state = rs.getString("state");
+        LocalDate flightDate = rs.getObject("flight_date", LocalDate.class);
+        return new ReviewSummaryDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("flight_number"),
+                rs.getString("origin"),
+                rs.getString("destination"),
+                flightDate != null ? flightDate.toString() : null,
+                rs.getObject("rating", Integer.class),
+                excerpt(rs.getString("description")),
+                rs.getObject("submitted_at", OffsetDateTime.class),
+                state != null ? ReviewState.valueOf(state) : null,
+                excerpt(rs.getString("response_text")),
+                rs.getObject("response_at", OffsetDateTime.class));
+    }
+
+    private String excerpt(String text) {
+        if (text == null || text.length() <= excerptLength) {
+            return text;
+        }
+        return text.substring(0, excerptLength) + "…";
+    }
+}
@@ -0,0 +1,31 @@
+package com.aircompany.backofficeapi.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Authenticated company, from the token claims. getName() (and so Authentication.getName()) is
+// the company id, the tenant key of the review queries; the name is kept for the rating stats,
+// which are still keyed by company name
+public record CompanyPrincipal(UUID id, String name) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return id.toString();
+    }
+
+    // empty unless the subject is a company id (tokens issued before the switch carried the name)
+    static Optional<CompanyPrincipal> of(Claims claims) {
+        String subject = claims.getSubject();
+        if (subject == null || subject.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CompanyPrincipal(UUID.fromString(subject), claims.get(JwtUtils.NAME_CLAIM, String.class)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -16,10 +16,10 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -28,11 +28,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String token = extractTokenFromRequest(request);
         
-        if (token != null && jwtUtils.validateToken(token)) {
-            String companyName = jwtUtils.getCompanyNameFromToken(token);
-            if (companyName != null) {
+        if (token != null) {
+            // signature is only checked the first time a token is seen
+            CompanyPrincipal company = verifiedTokenCache.verify(token).flatMap(CompanyPrincipal::of).orElse(null);
+            if (company != null) {
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    companyName, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_COMPANY"))
+                    company, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_COMPANY"))
                 );
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -44,7 +45,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+            return bearerToken.substring(7).trim();
         }
         return null;
     }
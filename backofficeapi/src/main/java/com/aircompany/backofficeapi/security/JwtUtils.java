@@ -7,47 +7,43 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    static final String NAME_CLAIM = "name";
 
-    @Value("${jwt.expiration-ms}")
-    private long jwtExpirationMs;
+    private final SecretKey signingKey;
+    // immutable and thread-safe, built once instead of per call
+    private final JwtParser parser;
+    private final long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration-ms}") long jwtExpirationMs) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
     }
 
-    public String generateToken(String companyName) {
+    // subject is the company id; the name rides along as a claim
+    public String generateToken(UUID companyId, String companyName) {
         return Jwts.builder()
-                .setSubject(companyName)
+                .setSubject(companyId.toString())
+                .claim(NAME_CLAIM, companyName)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getCompanyNameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    // Verifies signature and expiry once and returns the claims; empty for any invalid token
+    public Optional<Claims> parseAndValidate(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+package com.aircompany.backofficeapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// BCrypt off the request threads: hashes run on a pool sized to the CPU with a bounded queue, so
+// a burst of sign-ins cannot take every core from the other endpoints, and a full queue fails
+// fast with RejectedExecutionException instead of piling up requests. The cost is fixed by
+// configuration, or calibrated at startup to take about target-ms on this hardware. Calibrated
+// costs differ between instances, so hashes are only ever re-hashed to a higher cost
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    // BCryptPasswordEncoder's default; calibration never goes below it
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private final ThreadPoolExecutor executor;
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(@Value("${reviews.password.hash-threads:0}") int threads,
+                          @Value("${reviews.password.hash-queue-capacity:64}") int queueCapacity,
+                          @Value("${reviews.password.bcrypt-strength:0}") int fixedStrength,
+                          @Value("${reviews.password.bcrypt-target-ms:100}") long targetMs,
+                          MeterRegistry meterRegistry) {
+        this(executor(threads, queueCapacity), fixedStrength > 0 ? fixedStrength : calibrate(targetMs), meterRegistry);
+    }
+
+    PasswordHasher(ThreadPoolExecutor executor, int strength, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.rejected = Counter.builder("reviews.password.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("reviews.password.bcrypt.strength", () -> strength)
+                .description("BCrypt cost of new password hashes")
+                .register(meterRegistry);
+        Gauge.builder("reviews.password.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    // works for hashes of any cost; the cost is read from the hash
+    public boolean matches(CharSequence rawPassword, String hash) {
+        return run(() -> encoder.matches(rawPassword, hash));
+    }
+
+    // the hash was made with a lower cost than the current one (or is not a BCrypt hash); a higher
+    // cost is kept, so instances calibrated differently never take turns re-hashing a password
+    public boolean needsRehash(String hash) {
+        return strengthOf(hash) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // half the cores by default, the other half stays for the rest of the API
+    private static ThreadPoolExecutor executor(int threads, int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // times MIN_STRENGTH (best of three, the first run warms up the JIT) and extrapolates
+    private static int calibrate(long targetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return strengthFor(TimeUnit.MILLISECONDS.toNanos(targetMs), best);
+    }
+
+    // highest cost whose hash stays within the target; each cost step doubles the work
+    static int strengthFor(long targetNanos, long minStrengthNanos) {
+        int strength = MIN_STRENGTH;
+        long nanos = minStrengthNanos;
+        while (strength < MAX_STRENGTH && nanos * 2 <= targetNanos) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    // "$2a$10$..." -> 10, -1 when the hash is not a BCrypt hash
+    static int strengthOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.aircompany.backofficeapi.security;
+
+import com.aircompany.backofficeapi.model.Company;
+import com.aircompany.backofficeapi.model.RefreshToken;
+import com.aircompany.backofficeapi.repository.CompanyRepository;
+import com.aircompany.backofficeapi.repository.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+// Rotating refresh tokens: renewing a session is a hash lookup instead of a BCrypt check.
+// Tokens are 256 random bits handed out once; the refresh_token table keeps their SHA-256, and the
+// hot set keeps the unused tokens issued by this instance so a renewal skips the SELECT. Each
+// renewal consumes the token and issues a successor in the same family; a consumed token
+// presented again means it leaked, and the whole family is revoked
+@Component
+public class RefreshTokenStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository repository;
+    private final CompanyRepository companyRepository;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Cache<String, Session> hot;
+    private final Counter reused;
+
+    @Autowired
+    public RefreshTokenStore(RefreshTokenRepository repository,
+                             CompanyRepository companyRepository,
+                             @Value("${jwt.refresh.expiration-ms:1209600000}") long expirationMs,
+                             @Value("${jwt.refresh.hot-set.maximum-size:10000}") long maximumSize,
+                             MeterRegistry meterRegistry) {
+        this(repository, companyRepository, expirationMs, maximumSize, meterRegistry, Clock.systemUTC());
+    }
+
+    RefreshTokenStore(RefreshTokenRepository repository, CompanyRepository companyRepository,
+                      long expirationMs, long maximumSize, MeterRegistry meterRegistry, Clock clock) {
+        this.repository = repository;
+        this.companyRepository = companyRepository;
+        this.ttl = Duration.ofMillis(expirationMs);
+        this.clock = clock;
+        this.hot = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.reused = Counter.builder("jwt.refresh.reused")
+                .description("Consumed refresh tokens presented again, each revoking its session")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, hot, "jwt.refresh");
+    }
+
+    public record Renewal(UUID companyId, String companyName, String refreshToken) {
+    }
+
+    // Starts a new session for the company; the company's expired tokens are purged on the way
+    @Transactional
+    public String issue(Company company) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        repository.deleteExpired(company.getId(), now);
+        return save(UUID.randomUUID(), company.getId(), company.getName(), now);
+    }
+
+    // Consumes the token and returns its successor; empty for an unknown, expired, revoked or reused token
+    @Transactional
+    public Optional<Renewal> rotate(String token) {
+        String key = hash(token);
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        Session session = hot.getIfPresent(key);
+        if (session == null) {
+            Optional<RefreshToken> stored = repository.findByTokenHash(key);
+            if (stored.isEmpty() || stored.get().getRevokedAt() != null) {
+                return Optional.empty();
+            }
+            RefreshToken row = stored.get();
+            if (row.getUsedAt() != null) {
+                revokeReused(row.getFamilyId(), now);
+                return Optional.empty();
+            }
+            String companyName = companyRepository.findById(row.getCompanyId()).map(Company::getName).orElse(null);
+            if (companyName == null) {
+                return Optional.empty();
+            }
+            session = new Session(row.getId(), row.getFamilyId(), row.getCompanyId(), companyName, row.getExpiresAt());
+        }
+        hot.invalidate(key);
+        if (!session.expiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+        // lost a race with another renewal of the same token, or the family was revoked meanwhile
+        if (repository.markUsed(session.id(), now) == 0) {
+            revokeReused(session.familyId(), now);
+            return Optional.empty();
+        }
+        String successor = save(session.familyId(), session.companyId(), session.companyName(), now);
+        return Optional.of(new Renewal(session.companyId(), session.companyName(), successor));
+    }
+
+    // Ends the session the token belongs to, whether or not the token was already used
+    @Transactional
+    public void revoke(String token) {
+        String key = hash(token);
+        Session session = hot.getIfPresent(key);
+        UUID familyId = session != null
+                ? session.familyId()
+                : repository.findByTokenHash(key).map(RefreshToken::getFamilyId).orElse(null);
+        if (familyId != null) {
+            revokeFamily(familyId, OffsetDateTime.now(clock));
+        }
+    }
+
+    private void revokeReused(UUID familyId, OffsetDateTime now) {
+        reused.increment();
+        revokeFamily(familyId, now);
+    }
+
+    private void revokeFamily(UUID familyId, OffsetDateTime now) {
+        repository.revokeFamily(familyId, now);
+        // a family has at most one unused token, scanning the hot set is cheaper than indexing it
+        hot.asMap().values().removeIf(s -> s.familyId().equals(familyId));
+    }
+
+    private String save(UUID familyId, UUID companyId, String companyName, OffsetDateTime now) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken row = new RefreshToken();
+        row.setId(UUID.randomUUID());
+        row.setTokenHash(hash(token));
+        row.setFamilyId(familyId);
+        row.setCompanyId(companyId);
+        row.setExpiresAt(now.plus(ttl));
+        row.setCreatedAt(now);
+        repository.save(row);
+        hot.put(row.getTokenHash(), new Session(row.getId(), familyId, companyId, companyName, row.getExpiresAt()));
+        return token;
+    }
+
+    private record Session(UUID id, UUID familyId, UUID companyId, String companyName, OffsetDateTime expiresAt) {
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.aircompany.backofficeapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Failed sign-ins counted per (account name, client address) pair, per account and per client
+// address, so repeated bad attempts are refused before any BCrypt work. The pair has the low limit:
+// failures from one address cannot lock the owner, signing in from elsewhere, out of the account.
+// The account alone has a higher one, which still sheds guesses spread over many addresses.
+// Counters live in fixed-size striped tables: memory does not grow
+// with the number of names or addresses tried, at the price of keys that share a stripe sharing
+// its count (rare with enough stripes, and it only lasts one window)
+@Component
+public class SigninThrottle {
+
+    private final Stripes accountClients;
+    private final Stripes accounts;
+    private final Stripes clients;
+    private final Clock clock;
+    private final Counter throttled;
+
+    @Autowired
+    public SigninThrottle(@Value("${reviews.signin.max-account-failures:5}") int maxAccountClientFailures,
+                          @Value("${reviews.signin.max-account-failures-all-clients:100}") int maxAccountFailures,
+                          @Value("${reviews.signin.max-client-failures:50}") int maxClientFailures,
+                          @Value("${reviews.signin.failure-window-seconds:900}") long windowSeconds,
+                          @Value("${reviews.signin.stripes:4096}") int stripes,
+                          MeterRegistry meterRegistry) {
+        this(maxAccountClientFailures, maxAccountFailures, maxClientFailures, windowSeconds, stripes,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    SigninThrottle(int maxAccountClientFailures, int maxAccountFailures, int maxClientFailures, long windowSeconds,
+                   int stripes, MeterRegistry meterRegistry, Clock clock) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("reviews.signin.stripes must be a power of two: " + stripes);
+        }
+        this.accountClients = new Stripes(stripes, maxAccountClientFailures, windowSeconds);
+        this.accounts = new Stripes(stripes, maxAccountFailures, windowSeconds);
+        this.clients = new Stripes(stripes, maxClientFailures, windowSeconds);
+        this.clock = clock;
+        this.throttled = Counter.builder("reviews.signin.throttled")
+                .description("Sign-ins refused after too many failures for the account or client")
+                .register(meterRegistry);
+    }
+
+    // false once the account from this client, the account, or the client reached its failure limit
+    // in the current window
+    public boolean allowed(String account, String client) {
+        long now = now();
+        if (accountClients.blocked(accountKey(account, client), now) || accounts.blocked(account, now)
+                || clients.blocked(client, now)) {
+            throttled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void failed(String account, String client) {
+        long now = now();
+        accountClients.record(accountKey(account, client), now);
+        accounts.record(account, now);
+        clients.record(client, now);
+    }
+
+    // the client and the account keep their counts: a valid password for one account says nothing
+    // about the others, and the owner signing in says nothing about the guesses from elsewhere
+    public void succeeded(String account, String client) {
+        accountClients.clear(accountKey(account, client));
+    }
+
+    // without a client address the account is counted on its own
+    private static String accountKey(String account, String client) {
+        return account == null || client == null ? account : account + '\n' + client;
+    }
+
+    private long now() {
+        return clock.millis() / 1000;
+    }
+
+    // each slot packs the window start (epoch seconds) above 16 bits of failure count
+    private static final class Stripes {
+
+        private static final long COUNT_MASK = 0xFFFF;
+
+        private final AtomicLongArray slots;
+        private final int maxFailures;
+        private final long windowSeconds;
+
+        Stripes(int size, int maxFailures, long windowSeconds) {
+            this.slots = new AtomicLongArray(size);
+            this.maxFailures = maxFailures;
+            this.windowSeconds = windowSeconds;
+        }
+
+        boolean blocked(String key, long now) {
+            if (key == null) {
+                return false;
+            }
+            long slot = slots.get(index(key));
+            return now - (slot >>> 16) < windowSeconds && (slot & COUNT_MASK) >= maxFailures;
+        }
+
+        void record(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            slots.updateAndGet(index(key), slot -> {
+                long start = slot >>> 16;
+                long count = slot & COUNT_MASK;
+                if (now - start >= windowSeconds) {
+                    start = now;
+                    count = 0;
+                }
+                return start << 16 | Math.min(count + 1, COUNT_MASK);
+            });
+        }
+
+        void clear(String key) {
+            if (key != null) {
+                slots.set(index(key), 0);
+            }
+        }
+
+        private int index(String key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & (slots.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.aircompany.backofficeapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Recently verified bearer tokens, so repeated requests with the same token skip the HMAC check.
+// Keyed by SHA-256 of the token (raw tokens are not kept in memory); each entry expires at the
+// token's exp claim. Hit rate under /actuator/metrics/cache.gets?tag=cache:jwt.verified
+// Revocations (sign-out) are only known to this instance: with several backoffice instances, a
+// signed-out access token is still accepted by the others until its exp (jwt.expiration-ms).
+// The refresh token family is revoked in the database, so the session cannot be renewed anywhere
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, Claims> verified;
+    private final Cache<String, Date> revoked;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              @Value("${jwt.verified-cache.maximum-size:10000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiresAt<Claims>(Claims::getExpiration))
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new ExpiresAt<Date>(expiration -> expiration))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+    }
+
+    // Claims of a valid, non-revoked token; verifies the signature only on a cache miss.
+    // Revocations are checked first: a verify racing a revoke may put the token back into verified
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        if (revoked.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        Claims claims = verified.getIfPresent(key);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+        Optional<Claims> parsed = jwtUtils.parseAndValidate(token);
+        // tokens without exp would never leave the cache, so they are verified every time
+        parsed.filter(c -> c.getExpiration() != null).ifPresent(c -> verified.put(key, c));
+        return parsed;
+    }
+
+    // Rejects the token until it expires, even though its signature is still valid
+    public void revoke(String token) {
+        String key = hash(token);
+        jwtUtils.parseAndValidate(token)
+                .map(Claims::getExpiration)
+                .ifPresent(expiration -> revoked.put(key, expiration));
+        verified.invalidate(key);
+    }
+
+    // entries live until the token's exp; reads and overwrites do not extend them
+    private record ExpiresAt<V>(Function<V, Date> expiration) implements Expiry<String, V> {
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            long remainingMs = expiration.apply(value).getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,43 +2,101 @@ package com.aircompany.backofficeapi.service;
 
 import com.aircompany.backofficeapi.dto.CompanySigninDto;
 import com.aircompany.backofficeapi.dto.CompanySignupDto;
+import com.aircompany.backofficeapi.dto.SessionTokens;
 import com.aircompany.backofficeapi.model.Company;
 import com.aircompany.backofficeapi.repository.CompanyRepository;
 import com.aircompany.backofficeapi.security.JwtUtils;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.aircompany.backofficeapi.security.PasswordHasher;
+import com.aircompany.backofficeapi.security.RefreshTokenStore;
+import com.aircompany.backofficeapi.security.SigninThrottle;
+import com.aircompany.backofficeapi.security.VerifiedTokenCache;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Service
 public class CompanyService {
     private final CompanyRepository repository;
     private final JwtUtils jwtUtils;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    private final SigninThrottle signinThrottle;
+    private final RefreshTokenStore refreshTokenStore;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public CompanyService(CompanyRepository repository, JwtUtils jwtUtils) {
+    public CompanyService(CompanyRepository repository, JwtUtils jwtUtils,
+                          PasswordHasher passwordHasher, SigninThrottle signinThrottle,
+                          RefreshTokenStore refreshTokenStore, VerifiedTokenCache verifiedTokenCache) {
         this.repository = repository;
         this.jwtUtils = jwtUtils;
+        this.passwordHasher = passwordHasher;
+        this.signinThrottle = signinThrottle;
+        this.refreshTokenStore = refreshTokenStore;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     public Company signup(CompanySignupDto dto) {
+        // the name identifies the company at sign-in and maps reviews to it (unique index on company.name)
+        if (repository.findByName(dto.getName()).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Company name already taken");
+        }
         Company c = new Company();
         c.setId(UUID.randomUUID());
         c.setName(dto.getName());
         c.setEmail(dto.getEmail());
-        c.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        c.setPasswordHash(hashing(() -> passwordHasher.encode(dto.getPassword())));
         c.setCreatedAt(OffsetDateTime.now());
         return repository.save(c);
     }
 
-    public String signin(CompanySigninDto dto) {
+    // clientAddress may be null (no per-client limit then)
+    public SessionTokens signin(CompanySigninDto dto, String clientAddress) {
+        // repeated failures are refused before any hashing
+        if (!signinThrottle.allowed(dto.getName(), clientAddress)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many failed sign-in attempts, retry later");
+        }
         Optional<Company> opt = repository.findByName(dto.getName());
-        if (opt.isPresent() && passwordEncoder.matches(dto.getPassword(), opt.get().getPasswordHash())) {
-            return jwtUtils.generateToken(opt.get().getName());
+        if (opt.isPresent() && hashing(() -> passwordHasher.matches(dto.getPassword(), opt.get().getPasswordHash()))) {
+            Company company = opt.get();
+            signinThrottle.succeeded(dto.getName(), clientAddress);
+            // the password is at hand only now: bring its hash to the current cost
+            if (passwordHasher.needsRehash(company.getPasswordHash())) {
+                company.setPasswordHash(hashing(() -> passwordHasher.encode(dto.getPassword())));
+                repository.save(company);
+            }
+            return new SessionTokens(jwtUtils.generateToken(company.getId(), company.getName()), refreshTokenStore.issue(company));
         } else {
+            signinThrottle.failed(dto.getName(), clientAddress);
             throw new RuntimeException("Invalid credentials");
         }
     }
+
+    // renews the access token without a password check, consuming the refresh token
+    public SessionTokens refresh(String refreshToken) {
+        return refreshTokenStore.rotate(refreshToken)
+                .map(renewal -> new SessionTokens(jwtUtils.generateToken(renewal.companyId(), renewal.companyName()), renewal.refreshToken()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+    }
+
+    // accessToken may be null; when given it is rejected from now on instead of at its expiry
+    public void signout(String refreshToken, String accessToken) {
+        refreshTokenStore.revoke(refreshToken);
+        if (accessToken != null) {
+            verifiedTokenCache.revoke(accessToken);
+        }
+    }
+
+    // a full hashing queue is a 503 the client may retry, not a server error
+    private static <T> T hashing(Supplier<T> work) {
+        try {
+            return work.get();
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-ins in progress, retry later", e);
+        }
+    }
 }
@@ -3,6 +3,10 @@ package com.aircompany.backofficeapi.service;
 import com.aircompany.backofficeapi.model.Flight;
 import com.aircompany.backofficeapi.repository.FlightRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,22 +15,60 @@ import java.util.UUID;
 @Service
 public class FlightService {
     
+    public static final String FLIGHTS_CACHE = "flights";
+
     @Autowired
     private FlightRepository flightRepository;
     
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Long catalogVersion;
+
     public List<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
     
+    // Reviews reference their flight by id (review.flight_id), null when it has none
     public Flight getFlightById(UUID id) {
-        return flightRepository.findById(id).orElse(null);
+        if (id == null) {
+            return null;
+        }
+        Cache cache = flightCache();
+        Flight flight = cache.get(id, Flight.class);
+        if (flight == null) {
+            flight = flightRepository.findById(id).orElse(null);
+            if (flight != null) {
+                cache.put(flight.getId(), flight);
+            }
+        }
+        return flight;
     }
     
     public List<Flight> getFlightsByCompanyName(String companyName) {
         return flightRepository.findByCompanyName(companyName);
     }
-    
-    public Flight getFlightByFlightNumber(String flightNumber) {
-        return flightRepository.findByFlightNumber(flightNumber);
+
+    // Flights are written outside this service and their triggers bump content_version 'flight'
+    // (see review-api V6__content_version.sql): the cache is dropped when a poll sees it move
+    @Scheduled(fixedDelayString = "${reviews.content-version.poll-interval-ms:1000}")
+    public void checkFlightCatalog() {
+        Long version = jdbcTemplate.queryForList("SELECT version FROM content_version WHERE name = 'flight'", Long.class)
+                .stream().findFirst().orElse(null);
+        if (catalogVersion != null && !catalogVersion.equals(version)) {
+            evictAllFlights();
+        }
+        catalogVersion = version;
+    }
+
+    public void evictAllFlights() {
+        flightCache().clear();
+    }
+
+    private Cache flightCache() {
+        return cacheManager.getCache(FLIGHTS_CACHE);
     }
 }
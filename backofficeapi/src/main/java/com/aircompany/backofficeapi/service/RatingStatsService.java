@@ -0,0 +1,67 @@
+package com.aircompany.backofficeapi.service;
+
+import com.aircompany.backofficeapi.dto.RatingStats;
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.RatingStatsDelta;
+import com.aircompany.backofficeapi.repository.RatingStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps the per-flight and per-company rating aggregates in step with review state changes.
+// A review is counted under its current state once the back office has processed it;
+// SUBMITTED reviews are not counted.
+@Service
+public class RatingStatsService {
+
+    static final Set<ReviewState> COUNTED_STATES = EnumSet.complementOf(EnumSet.of(ReviewState.SUBMITTED));
+
+    private final RatingStatsRepository repository;
+
+    public RatingStatsService(RatingStatsRepository repository) {
+        this.repository = repository;
+    }
+
+    // Moves the reviews from the aggregates of state `from` to those of state `to`
+    public void recordTransitions(Collection<Review> reviews, ReviewState from, ReviewState to) {
+        if (from == to) {
+            return;
+        }
+        RatingStatsDelta delta = new RatingStatsDelta();
+        for (Review review : reviews) {
+            if (COUNTED_STATES.contains(from)) {
+                delta.add(review, from, -1);
+            }
+            if (COUNTED_STATES.contains(to)) {
+                delta.add(review, to, 1);
+            }
+        }
+        if (!delta.isEmpty()) {
+            repository.apply(delta);
+        }
+    }
+
+    public void recordTransition(Review review, ReviewState from, ReviewState to) {
+        recordTransitions(List.of(review), from, to);
+    }
+
+    // all processed reviews when state is null
+    @Transactional(readOnly = true)
+    public RatingStats getCompanyStats(String companyName, ReviewState state) {
+        return repository.findCompanyStats(companyName, states(state));
+    }
+
+    @Transactional(readOnly = true)
+    public RatingStats getFlightStats(String companyName, String flightNumber, ReviewState state) {
+        return repository.findFlightStats(companyName, flightNumber, states(state));
+    }
+
+    private static Set<ReviewState> states(ReviewState state) {
+        return state != null ? EnumSet.of(state) : COUNTED_STATES;
+    }
+}
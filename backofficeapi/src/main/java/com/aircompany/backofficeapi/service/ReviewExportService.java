@@ -0,0 +1,107 @@
+package com.aircompany.backofficeapi.service;
+
+import com.aircompany.backofficeapi.dto.ReviewExportFormat;
+import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.ReviewExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+// Writes a company's reviews to the response as they come off the database cursor, so memory
+// use does not depend on the number of reviews exported
+@Service
+public class ReviewExportService {
+
+    static final String CSV_HEADER = "id,customerName,customerEmail,flightNumber,companyName,rating,description," +
+            "submittedAt,state,responseText,responseAt,origin,destination,flightDate";
+
+    private final ReviewExportRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public ReviewExportService(ReviewExportRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    // the transaction keeps the cursor open until the last row has been written
+    @Transactional(readOnly = true)
+    public void export(UUID companyId, String flightNumber, String keyword, SubmittedAtRange submitted, String state,
+                       ReviewExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ReviewExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            repository.streamByCompanyId(companyId, flightNumber, keyword, submitted, parseState(state),
+                    review -> write(writer, review, format));
+        } catch (UncheckedIOException e) {
+            // e.g. client disconnected; the cursor is closed when the transaction ends
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void write(Writer writer, ReviewWithFlightDto review, ReviewExportFormat format) {
+        try {
+            if (format == ReviewExportFormat.CSV) {
+                writeCsv(writer, review);
+            } else {
+                writer.write(objectMapper.writeValueAsString(review));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(Writer writer, ReviewWithFlightDto review) throws IOException {
+        Object[] fields = {review.getId(), review.getCustomerName(), review.getCustomerEmail(),
+                review.getFlightNumber(), review.getCompanyName(), review.getRating(), review.getDescription(),
+                review.getSubmittedAt(), review.getState(), review.getResponseText(), review.getResponseAt(),
+                review.getOrigin(), review.getDestination(), review.getFlightDate()};
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(fields[i]));
+        }
+    }
+
+    // RFC 4180 quoting: fields containing a separator, quote or line break are quoted. Customer text
+    // starting like a formula (= + - @, tab, carriage return) gets a leading ' so spreadsheets show
+    // it instead of evaluating it
+    static String csvField(Object value) {
+        String text = Objects.toString(value, "");
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private ReviewState parseState(String state) {
+        if (state != null && !state.isBlank()) {
+            try {
+                return ReviewState.valueOf(state);
+            } catch (Exception e) {
+                // ignore unknown state, as the paged listing does
+            }
+        }
+        return null;
+    }
+}
@@ -1,15 +1,18 @@
 package com.aircompany.backofficeapi.service;
 
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
 import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
 import com.aircompany.backofficeapi.model.Flight;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
 import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.repository.ReviewSummaryRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,59 +21,54 @@ public class ReviewService {
 
     private final ReviewRepository repository;
     private final FlightService flightService;
+    private final RatingStatsService ratingStatsService;
+    private final ReviewSummaryRepository summaryRepository;
 
-    public ReviewService(ReviewRepository repository, FlightService flightService) {
+    public ReviewService(ReviewRepository repository, FlightService flightService,
+                         RatingStatsService ratingStatsService, ReviewSummaryRepository summaryRepository) {
         this.repository = repository;
         this.flightService = flightService;
+        this.ratingStatsService = ratingStatsService;
+        this.summaryRepository = summaryRepository;
     }
 
-    public Page<ReviewWithFlightDto> getReviewsForCompany(String companyName, Pageable pageable) {
-        Page<Review> reviews = repository.findByCompanyName(companyName, pageable);
-        return reviews.map(review -> {
-            Flight flight = review.getFlightNumber() != null ? flightService.getFlightByFlightNumber(review.getFlightNumber()) : null;
-            return new ReviewWithFlightDto(review, flight);
-        });
-    }
-
-    public Page<ReviewWithFlightDto> getReviewsForCompany(String companyName, Pageable pageable, 
-                                                          String flightNumber, String keyword, 
-                                                          String date, String state) {
-        LocalDate dateFilter = null;
-        if (date != null && !date.isBlank()) {
-            try {
-                dateFilter = LocalDate.parse(date);
-            } catch (Exception e) {
-            }
-        }
-        
-        ReviewState stateFilter = null;
-        if (state != null && !state.isBlank()) {
-            try {
-                stateFilter = ReviewState.valueOf(state);
-            } catch (Exception e) {
-            }
-        }
-        
-        Page<Review> reviews = repository.findByCompanyNameAndFilters(companyName, flightNumber, keyword, dateFilter, stateFilter, pageable);
-        return reviews.map(review -> {
-            Flight flight = review.getFlightNumber() != null ? flightService.getFlightByFlightNumber(review.getFlightNumber()) : null;
-            return new ReviewWithFlightDto(review, flight);
-        });
+    // List view: excerpts and flight columns straight from SQL, nothing loaded into the persistence context
+    @Transactional(readOnly = true)
+    public Page<ReviewSummaryDto> getReviewSummaries(UUID companyId, Pageable pageable,
+                                                     String flightNumber, String keyword,
+                                                     SubmittedAtRange submitted, String state) {
+        return summaryRepository.findByCompanyId(companyId, flightNumber, keyword,
+                submitted, parseState(state), pageable);
     }
 
     public Optional<ReviewWithFlightDto> getReview(UUID reviewId) {
         return repository.findById(reviewId).map(review -> {
-            Flight flight = review.getFlightNumber() != null ? flightService.getFlightByFlightNumber(review.getFlightNumber()) : null;
+            Flight flight = review.getFlightId() != null ? flightService.getFlightById(review.getFlightId()) : null;
             return new ReviewWithFlightDto(review, flight);
         });
     }
 
+    @Transactional
     public Review respondToReview(UUID reviewId, String responseText, ReviewState newState) {
-        Review r = repository.findById(reviewId)
+        Review r = repository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+        ReviewState previousState = r.getState();
         r.setResponseText(responseText);
         r.setResponseAt(java.time.OffsetDateTime.now());
         r.setState(newState);
-        return repository.save(r);
+        Review saved = repository.save(r);
+        ratingStatsService.recordTransition(saved, previousState, newState);
+        return saved;
+    }
+
+    // invalid filter values are ignored
+    private static ReviewState parseState(String state) {
+        if (state != null && !state.isBlank()) {
+            try {
+                return ReviewState.valueOf(state);
+            } catch (Exception e) {
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,85 @@
+package com.aircompany.backofficeapi.benchmark;
+
+import com.aircompany.backofficeapi.security.JwtAuthenticationFilter;
+import com.aircompany.backofficeapi.security.JwtUtils;
+import com.aircompany.backofficeapi.security.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of authenticating a bearer token in JwtAuthenticationFilter.
+// "legacy" replays only the token work of the old path (key re-derived, parser rebuilt, token
+// verified twice), so the comparison with the full filter is conservative. "parseOnce" is a
+// verified-token cache miss; "filter" is the steady state where the token is already cached.
+// Run: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+//        "-Dexec.args=-cp %classpath com.aircompany.backofficeapi.benchmark.JwtAuthenticationFilterBenchmark"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "my-very-secret-key@100my-very-secret-key";
+
+    private final FilterChain chain = (request, response) -> { };
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 3600000);
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtils, 10000, new SimpleMeterRegistry()));
+        token = jwtUtils.generateToken(UUID.randomUUID(), "Air France");
+        request = new MockHttpServletRequest("GET", "/api/v1/backoffice/reviews");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String legacy() {
+        try {
+            Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        } catch (JwtException e) {
+            return null;
+        }
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Object parseOnce() {
+        return jwtUtils.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.aircompany.backofficeapi.benchmark;
+
+import com.aircompany.backofficeapi.BackOfficeApiApplication;
+import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.service.FlightService;
+import com.aircompany.backofficeapi.service.ReviewService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Latency of one backoffice list page (20 reviews) against a real PostgreSQL: "entities" is the
+// former list path kept as a baseline (Review entities and a count, each copied into a
+// ReviewWithFlightDto with its flight), "summaries" is the SQL projection used by GET /api/v1/reviews. Append -prof gc to the args for memory allocated per page.
+// Needs the database from docker-compose (or -Dspring.datasource.url=...); seeds a benchmark company once.
+// Run: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+//        "-Dexec.args=-cp %classpath com.aircompany.backofficeapi.benchmark.ReviewListBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewListBenchmark {
+
+    private static final String COMPANY = "Benchmark Air";
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-4466554400be");
+    private static final int REVIEWS = 5000;
+    private static final int FLIGHTS = 50;
+
+    private final Pageable page = PageRequest.of(10, 20, Sort.by(Sort.Direction.DESC, "submittedAt"));
+    private ConfigurableApplicationContext context;
+    private ReviewService reviewService;
+    private FlightService flightService;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackOfficeApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.rabbitmq.listener.simple.auto-startup=false",
+                        "--spring.rabbitmq.listener.direct.auto-startup=false",
+                        "--logging.level.root=WARN");
+        reviewService = context.getBean(ReviewService.class);
+        flightService = context.getBean(FlightService.class);
+        entityManager = context.getBean(EntityManager.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object entities() {
+        List<Review> reviews = entityManager.createQuery(
+                        "SELECT r FROM Review r WHERE r.companyId = :companyId ORDER BY r.submittedAt DESC", Review.class)
+                .setParameter("companyId", COMPANY_ID)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize())
+                .getResultList();
+        Long total = entityManager.createQuery("SELECT count(r) FROM Review r WHERE r.companyId = :companyId", Long.class)
+                .setParameter("companyId", COMPANY_ID)
+                .getSingleResult();
+        Page<Review> entities = new PageImpl<>(reviews, page, total);
+        return entities.map(review -> new ReviewWithFlightDto(review, flightService.getFlightById(review.getFlightId())));
+    }
+
+    @Benchmark
+    public Object summaries() {
+        return reviewService.getReviewSummaries(COMPANY_ID, page, null, null, SubmittedAtRange.ALL, null);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM review WHERE company_id = ?", Integer.class, COMPANY_ID);
+        if (existing != null && existing >= REVIEWS) {
+            return;
+        }
+        // the review_company_id trigger maps the seeded reviews to this company
+        jdbcTemplate.update("INSERT INTO company (id, name, email, password_hash) VALUES (?, ?, ?, '') " +
+                "ON CONFLICT DO NOTHING", COMPANY_ID, COMPANY, "benchmark@example.com");
+        List<Object[]> flights = new ArrayList<>();
+        for (int i = 0; i < FLIGHTS; i++) {
+            flights.add(new Object[] {UUID.randomUUID(), "BA" + (1000 + i), COMPANY, "Paris CDG", "Montreal YUL",
+                    LocalDate.of(2024, 1, 1).plusDays(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO flight (id, flight_number, company_name, origin, destination, flight_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", flights);
+
+        String description = "The crew was attentive and the meal was better than expected. ".repeat(25);
+        String response = "Thank you for your feedback, we have shared it with the cabin team. ".repeat(12);
+        Instant now = Instant.now();
+        List<Object[]> reviews = new ArrayList<>();
+        for (int i = 0; i < REVIEWS; i++) {
+            reviews.add(new Object[] {UUID.randomUUID(), "Customer " + i, "customer" + i + "@example.com",
+                    "BA" + (1000 + i % FLIGHTS), flights.get(i % FLIGHTS)[0], COMPANY, 1 + i % 5, description,
+                    Timestamp.from(now.minusSeconds(60L * i)), i % 2 == 0 ? "PUBLISHED" : "TREATED",
+                    i % 2 == 0 ? response : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO review (id, customer_name, customer_email, flight_number, flight_id, " +
+                "company_name, rating, description, submitted_at, state, response_text) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", reviews);
+    }
+
+    // spring.* system properties (e.g. the datasource URL) are passed on to the forked JVM
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String[] jvmArgs = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("spring."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ReviewListBenchmark.class.getSimpleName())
+                .jvmArgsAppend(jvmArgs)
+                .build()).run();
+    }
+}
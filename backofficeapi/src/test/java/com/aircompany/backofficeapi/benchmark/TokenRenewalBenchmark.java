@@ -0,0 +1,102 @@
+package com.aircompany.backofficeapi.benchmark;
+
+import com.aircompany.backofficeapi.dto.CompanySigninDto;
+import com.aircompany.backofficeapi.model.Company;
+import com.aircompany.backofficeapi.model.RefreshToken;
+import com.aircompany.backofficeapi.repository.CompanyRepository;
+import com.aircompany.backofficeapi.repository.RefreshTokenRepository;
+import com.aircompany.backofficeapi.security.JwtUtils;
+import com.aircompany.backofficeapi.security.PasswordHasher;
+import com.aircompany.backofficeapi.security.RefreshTokenStore;
+import com.aircompany.backofficeapi.security.SigninThrottle;
+import com.aircompany.backofficeapi.security.VerifiedTokenCache;
+import com.aircompany.backofficeapi.service.CompanyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// CPU cost of renewing an hourly access token: "resignin" is POST /api/v1/company/signin with the
+// BCrypt cost calibrated as in production, "refresh" is POST /api/v1/company/refresh on a token of
+// the hot set. Repositories are stubs, so neither includes its database round trips (one indexed
+// SELECT for signin, one UPDATE and one INSERT by primary/unique key for refresh).
+// Run: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+//        "-Dexec.args=-cp %classpath com.aircompany.backofficeapi.benchmark.TokenRenewalBenchmark"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRenewalBenchmark {
+
+    private static final String SECRET = "my-very-secret-key@100my-very-secret-key";
+
+    private PasswordHasher passwordHasher;
+    private CompanyService companyService;
+    private CompanySigninDto signin;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 3600000);
+        passwordHasher = new PasswordHasher(1, 64, 0, 100, meterRegistry);
+
+        Company company = new Company();
+        company.setId(UUID.randomUUID());
+        company.setName("Air France");
+        company.setPasswordHash(passwordHasher.encode("password123"));
+        CompanyRepository companyRepository = mock(CompanyRepository.class);
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
+
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(refreshTokenRepository.markUsed(any(UUID.class), any(OffsetDateTime.class))).thenReturn(1);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        companyService = new CompanyService(companyRepository, jwtUtils, passwordHasher,
+                new SigninThrottle(5, 100, 50, 900, 4096, meterRegistry),
+                new RefreshTokenStore(refreshTokenRepository, companyRepository, 1209600000, 10000, meterRegistry),
+                new VerifiedTokenCache(jwtUtils, 10000, meterRegistry));
+
+        signin = new CompanySigninDto();
+        signin.setName("Air France");
+        signin.setPassword("password123");
+        refreshToken = companyService.signin(signin, "10.0.0.1").refreshToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    public Object resignin() {
+        return companyService.signin(signin, "10.0.0.1");
+    }
+
+    @Benchmark
+    public Object refresh() {
+        // each renewal consumes the token, the next one uses its successor
+        refreshToken = companyService.refresh(refreshToken).refreshToken();
+        return refreshToken;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenRenewalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
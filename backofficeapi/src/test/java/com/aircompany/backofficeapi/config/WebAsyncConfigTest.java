@@ -0,0 +1,55 @@
+package com.aircompany.backofficeapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WebAsyncConfigTest {
+
+    private static final long DEFAULT_TIMEOUT_MS = 30_000;
+
+    private final WebAsyncConfig.AsyncTimeoutInterceptor interceptor = new WebAsyncConfig.AsyncTimeoutInterceptor();
+    private final Callable<Object> task = () -> null;
+
+    @Test
+    void beforeConcurrentHandling_shouldApplyTimeoutRequestedByHandler() throws Exception {
+        // Given
+        MockHttpServletRequest request = asyncRequest();
+        request.setAttribute(WebAsyncConfig.ASYNC_TIMEOUT, 3_600_000L);
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        asyncRequest.setTimeout(DEFAULT_TIMEOUT_MS);
+
+        // When
+        interceptor.beforeConcurrentHandling(asyncRequest, task);
+        asyncRequest.startAsync();
+
+        // Then
+        assertEquals(3_600_000L, request.getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void beforeConcurrentHandling_shouldKeepDefaultTimeoutOtherwise() throws Exception {
+        // Given
+        MockHttpServletRequest request = asyncRequest();
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        asyncRequest.setTimeout(DEFAULT_TIMEOUT_MS);
+
+        // When
+        interceptor.beforeConcurrentHandling(asyncRequest, task);
+        asyncRequest.startAsync();
+
+        // Then
+        assertEquals(DEFAULT_TIMEOUT_MS, request.getAsyncContext().getTimeout());
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
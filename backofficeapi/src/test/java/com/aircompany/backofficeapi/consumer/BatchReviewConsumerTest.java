@@ -0,0 +1,185 @@
+package com.aircompany.backofficeapi.consumer;
+
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.service.RatingStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchReviewConsumerTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private RatingStatsService ratingStatsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BatchReviewConsumer batchReviewConsumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batchReviewConsumer = new BatchReviewConsumer(reviewRepository, ratingStatsService, meterRegistry);
+    }
+
+    @Test
+    void handleNewReviews_shouldUpdateWholeBatchWithSingleStatement() {
+        // Given
+        List<Map<String, Object>> events = new ArrayList<>();
+        List<UUID> reviewIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            UUID reviewId = UUID.randomUUID();
+            reviewIds.add(reviewId);
+            events.add(event(reviewId.toString()));
+        }
+        List<Review> submitted = reviewIds.stream().map(this::submittedReview).toList();
+        when(reviewRepository.findByIdInAndStateForUpdate(anyCollection(), eq(ReviewState.SUBMITTED))).thenReturn(submitted);
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(reviewRepository, times(1)).updateStateByIdIn(captor.capture(), eq(ReviewState.TREATED));
+        assertEquals(Set.copyOf(reviewIds), Set.copyOf(captor.getValue()));
+        verify(reviewRepository, never()).findById(any(UUID.class));
+        verify(reviewRepository, never()).save(any());
+        verify(ratingStatsService, times(1)).recordTransitions(submitted, ReviewState.SUBMITTED, ReviewState.TREATED);
+    }
+
+    @Test
+    void handleNewReviews_shouldOnlyTreatReviewsStillSubmitted() {
+        // Given
+        Review submitted = submittedReview(UUID.randomUUID());
+        UUID alreadyAnswered = UUID.randomUUID();
+        List<Map<String, Object>> events = List.of(event(submitted.getId().toString()), event(alreadyAnswered.toString()));
+        when(reviewRepository.findByIdInAndStateForUpdate(Set.of(submitted.getId(), alreadyAnswered), ReviewState.SUBMITTED))
+                .thenReturn(List.of(submitted));
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        verify(reviewRepository, times(1)).updateStateByIdIn(List.of(submitted.getId()), ReviewState.TREATED);
+        verify(ratingStatsService, times(1)).recordTransitions(List.of(submitted), ReviewState.SUBMITTED, ReviewState.TREATED);
+    }
+
+    @Test
+    void handleNewReviews_shouldSkipUpdateWhenNoReviewIsSubmitted() {
+        // Given
+        List<Map<String, Object>> events = List.of(event(UUID.randomUUID().toString()));
+        when(reviewRepository.findByIdInAndStateForUpdate(anyCollection(), eq(ReviewState.SUBMITTED))).thenReturn(List.of());
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        verify(reviewRepository, never()).updateStateByIdIn(any(), any());
+        verify(ratingStatsService, never()).recordTransitions(any(), any(), any());
+    }
+
+    @Test
+    void handleNewReviews_shouldSkipMalformedReviewIds() {
+        // Given
+        UUID reviewId = UUID.randomUUID();
+        List<Map<String, Object>> events = List.of(
+                event(reviewId.toString()),
+                event("invalid-uuid"),
+                event(null),
+                new HashMap<>()
+        );
+        when(reviewRepository.findByIdInAndStateForUpdate(Set.of(reviewId), ReviewState.SUBMITTED))
+                .thenReturn(List.of(submittedReview(reviewId)));
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        verify(reviewRepository, times(1)).updateStateByIdIn(eq(List.of(reviewId)), eq(ReviewState.TREATED));
+        assertEquals(3.0, meterRegistry.counter("reviews.consumer.rejected").count());
+        assertEquals(4.0, meterRegistry.counter("reviews.consumer.messages").count());
+    }
+
+    @Test
+    void handleNewReviews_shouldCollapseDuplicateDeliveries() {
+        // Given
+        UUID reviewId = UUID.randomUUID();
+        List<Map<String, Object>> events = List.of(event(reviewId.toString()), event(reviewId.toString()));
+        when(reviewRepository.findByIdInAndStateForUpdate(Set.of(reviewId), ReviewState.SUBMITTED))
+                .thenReturn(List.of(submittedReview(reviewId)));
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        verify(reviewRepository, times(1)).updateStateByIdIn(eq(List.of(reviewId)), eq(ReviewState.TREATED));
+    }
+
+    @Test
+    void handleNewReviews_shouldNotQueryDatabaseWhenNoValidIds() {
+        // Given
+        List<Map<String, Object>> events = List.of(event("invalid-uuid"));
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        verify(reviewRepository, never()).findByIdInAndStateForUpdate(any(), any());
+        verify(reviewRepository, never()).updateStateByIdIn(any(), any());
+        assertEquals(1.0, meterRegistry.counter("reviews.consumer.rejected").count());
+    }
+
+    @Test
+    void handleNewReviews_shouldRecordBatchMetrics() {
+        // Given
+        List<Map<String, Object>> events = List.of(event(UUID.randomUUID().toString()), event(UUID.randomUUID().toString()));
+
+        // When
+        batchReviewConsumer.handleNewReviews(events);
+        batchReviewConsumer.handleNewReviews(events);
+
+        // Then
+        assertEquals(4.0, meterRegistry.counter("reviews.consumer.messages").count());
+        assertEquals(2, meterRegistry.timer("reviews.consumer.batch").count());
+    }
+
+    private Review submittedReview(UUID reviewId) {
+        Review review = new Review();
+        review.setId(reviewId);
+        review.setFlightNumber("AF123");
+        review.setCompanyName("Air France");
+        review.setRating(4);
+        review.setState(ReviewState.SUBMITTED);
+        return review;
+    }
+
+    private Map<String, Object> event(String reviewId) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("reviewId", reviewId);
+        event.put("event", "NEW_REVIEW");
+        return event;
+    }
+}
@@ -3,6 +3,7 @@ package com.aircompany.backofficeapi.consumer;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
 import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.service.RatingStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,11 +26,14 @@ class ReviewConsumerTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private RatingStatsService ratingStatsService;
+
     private ReviewConsumer reviewConsumer;
 
     @BeforeEach
     void setUp() {
-        reviewConsumer = new ReviewConsumer(reviewRepository);
+        reviewConsumer = new ReviewConsumer(reviewRepository, ratingStatsService);
     }
 
     @Test
@@ -57,16 +61,41 @@ class ReviewConsumerTest {
         event.put("rating", 5);
         event.put("description", "Great flight!");
 
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(review));
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         reviewConsumer.handleNewReview(event);
 
         // Then
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, times(1)).save(review);
         assertEquals(ReviewState.TREATED, review.getState());
+        verify(ratingStatsService, times(1)).recordTransition(review, ReviewState.SUBMITTED, ReviewState.TREATED);
+    }
+
+    @Test
+    void handleNewReview_shouldIgnoreReviewAlreadyProcessed() {
+        // Given
+        UUID reviewId = UUID.randomUUID();
+        Review review = new Review();
+        review.setId(reviewId);
+        review.setRating(5);
+        review.setState(ReviewState.PUBLISHED);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("reviewId", reviewId.toString());
+        event.put("event", "NEW_REVIEW");
+
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(review));
+
+        // When
+        reviewConsumer.handleNewReview(event);
+
+        // Then
+        assertEquals(ReviewState.PUBLISHED, review.getState());
+        verify(reviewRepository, never()).save(any(Review.class));
+        verify(ratingStatsService, never()).recordTransition(any(), any(), any());
     }
 
     @Test
@@ -77,13 +106,13 @@ class ReviewConsumerTest {
         event.put("reviewId", reviewId.toString());
         event.put("event", "NEW_REVIEW");
 
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.empty());
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.empty());
 
         // When
         reviewConsumer.handleNewReview(event);
 
         // Then
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, never()).save(any(Review.class));
     }
 
@@ -116,14 +145,14 @@ class ReviewConsumerTest {
         event.put("submittedAt", OffsetDateTime.now().toString());
         event.put("additionalField", "additionalValue");
 
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(review));
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         reviewConsumer.handleNewReview(event);
 
         // Then
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, times(1)).save(review);
         assertEquals(ReviewState.TREATED, review.getState());
     }
@@ -147,14 +176,14 @@ class ReviewConsumerTest {
         event.put("reviewId", reviewId); // UUID object instead of string
         event.put("event", "NEW_REVIEW");
 
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(review));
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         reviewConsumer.handleNewReview(event);
 
         // Then
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, times(1)).save(review);
         assertEquals(ReviewState.TREATED, review.getState());
     }
@@ -169,7 +198,7 @@ class ReviewConsumerTest {
             reviewConsumer.handleNewReview(event);
         });
 
-        verify(reviewRepository, never()).findById(any(UUID.class));
+        verify(reviewRepository, never()).findByIdForUpdate(any(UUID.class));
         verify(reviewRepository, never()).save(any(Review.class));
     }
 
@@ -185,7 +214,7 @@ class ReviewConsumerTest {
             reviewConsumer.handleNewReview(event);
         });
 
-        verify(reviewRepository, never()).findById(any(UUID.class));
+        verify(reviewRepository, never()).findByIdForUpdate(any(UUID.class));
         verify(reviewRepository, never()).save(any(Review.class));
     }
 
@@ -201,7 +230,7 @@ class ReviewConsumerTest {
             reviewConsumer.handleNewReview(event);
         });
 
-        verify(reviewRepository, never()).findById(any(UUID.class));
+        verify(reviewRepository, never()).findByIdForUpdate(any(UUID.class));
         verify(reviewRepository, never()).save(any(Review.class));
     }
 
@@ -224,14 +253,14 @@ class ReviewConsumerTest {
         event.put("reviewId", reviewId.toString());
         event.put("event", "NEW_REVIEW");
 
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(review));
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         reviewConsumer.handleNewReview(event);
 
         // Then
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, times(1)).save(review);
         
         // Verify that only the state was changed
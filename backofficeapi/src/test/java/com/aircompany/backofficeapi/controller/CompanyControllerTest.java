@@ -2,6 +2,8 @@ package com.aircompany.backofficeapi.controller;
 
 import com.aircompany.backofficeapi.dto.CompanySigninDto;
 import com.aircompany.backofficeapi.dto.CompanySignupDto;
+import com.aircompany.backofficeapi.dto.RefreshTokenDto;
+import com.aircompany.backofficeapi.dto.SessionTokens;
 import com.aircompany.backofficeapi.model.Company;
 import com.aircompany.backofficeapi.service.CompanyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,14 +12,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -82,15 +87,16 @@ class CompanyControllerTest {
         dto.setName("Air France");
         dto.setPassword("password123");
 
-        String token = "jwt-token";
-        when(companyService.signin(any(CompanySigninDto.class))).thenReturn(token);
+        when(companyService.signin(any(CompanySigninDto.class), any()))
+                .thenReturn(new SessionTokens("jwt-token", "refresh-token"));
 
         // When & Then
         mockMvc.perform(post("/api/v1/company/signin")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value("jwt-token"));
+                .andExpect(jsonPath("$.token").value("jwt-token"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
     }
 
     @Test
@@ -113,7 +119,7 @@ class CompanyControllerTest {
         dto.setName("Air France");
         dto.setPassword("wrongpassword");
 
-        when(companyService.signin(any(CompanySigninDto.class)))
+        when(companyService.signin(any(CompanySigninDto.class), any()))
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
         // When & Then
@@ -122,4 +128,52 @@ class CompanyControllerTest {
                 .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    void refresh_shouldReturnNewTokens() throws Exception {
+        // Given
+        RefreshTokenDto dto = new RefreshTokenDto();
+        dto.setRefreshToken("refresh-token");
+
+        when(companyService.refresh("refresh-token")).thenReturn(new SessionTokens("jwt-token", "next-refresh-token"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/company/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt-token"))
+                .andExpect(jsonPath("$.refreshToken").value("next-refresh-token"));
+    }
+
+    @Test
+    void refresh_shouldReturnUnauthorizedForInvalidToken() throws Exception {
+        // Given
+        RefreshTokenDto dto = new RefreshTokenDto();
+        dto.setRefreshToken("reused-token");
+
+        when(companyService.refresh("reused-token"))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/company/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void signout_shouldRevokeTokensAndReturnNoContent() throws Exception {
+        // Given
+        RefreshTokenDto dto = new RefreshTokenDto();
+        dto.setRefreshToken("refresh-token");
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/company/signout")
+                .header("Authorization", "Bearer jwt-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isNoContent());
+        verify(companyService).signout("refresh-token", "jwt-token");
+    }
 }
@@ -1,6 +1,8 @@
 package com.aircompany.backofficeapi.controller;
 
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
 import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
 import com.aircompany.backofficeapi.service.ReviewService;
@@ -11,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
@@ -18,12 +21,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -42,24 +49,21 @@ class ReviewControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewController(reviewService)).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewController(reviewService, ZoneId.of("Europe/Paris")))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
     }
 
     @Test
     void getReviews_shouldReturnReviewsForCompany() throws Exception {
         // Given
-        String companyName = "Air France";
-        when(authentication.getName()).thenReturn(companyName);
+        UUID companyId = UUID.randomUUID();
+        when(authentication.getName()).thenReturn(companyId.toString());
 
-        ReviewWithFlightDto dto = new ReviewWithFlightDto();
-        dto.setId(UUID.randomUUID());
-        dto.setCustomerName("John Doe");
-        dto.setFlightNumber("AF123");
-        dto.setRating(5);
-        dto.setDescription("Great flight!");
-
-        Page<ReviewWithFlightDto> reviewPage = new PageImpl<>(Arrays.asList(dto));
-        when(reviewService.getReviewsForCompany(anyString(), any(), anyString(), anyString(), anyString(), anyString()))
+        ReviewSummaryDto summary = new ReviewSummaryDto(UUID.randomUUID(), "AF123", "Paris", "New York", "2024-01-14",
+                5, "Great flight!", OffsetDateTime.now(), ReviewState.SUBMITTED, null, null);
+        Page<ReviewSummaryDto> reviewPage = new PageImpl<>(Arrays.asList(summary));
+        when(reviewService.getReviewSummaries(eq(companyId), any(), isNull(), isNull(), eq(SubmittedAtRange.ALL), isNull()))
                 .thenReturn(reviewPage);
 
         // When & Then
@@ -69,24 +73,23 @@ class ReviewControllerTest {
                 .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
-                .andExpect(jsonPath("$.content[0].customerName").value("John Doe"))
-                .andExpect(jsonPath("$.content[0].flightNumber").value("AF123"));
+                .andExpect(jsonPath("$.content[0].flightNumber").value("AF123"))
+                .andExpect(jsonPath("$.content[0].origin").value("Paris"))
+                .andExpect(jsonPath("$.content[0].customerName").doesNotExist());
     }
 
     @Test
     void getReviews_shouldReturnFilteredReviews() throws Exception {
         // Given
-        String companyName = "Air France";
-        when(authentication.getName()).thenReturn(companyName);
-
-        ReviewWithFlightDto dto = new ReviewWithFlightDto();
-        dto.setId(UUID.randomUUID());
-        dto.setCustomerName("John Doe");
-        dto.setFlightNumber("AF123");
-        dto.setRating(5);
-
-        Page<ReviewWithFlightDto> reviewPage = new PageImpl<>(Arrays.asList(dto));
-        when(reviewService.getReviewsForCompany(anyString(), any(), anyString(), anyString(), anyString(), anyString()))
+        UUID companyId = UUID.randomUUID();
+        when(authentication.getName()).thenReturn(companyId.toString());
+
+        ReviewSummaryDto summary = new ReviewSummaryDto(UUID.randomUUID(), "AF123", null, null, null,
+                5, "Great flight!", OffsetDateTime.now(), ReviewState.SUBMITTED, null, null);
+        Page<ReviewSummaryDto> reviewPage = new PageImpl<>(Arrays.asList(summary));
+        when(reviewService.getReviewSummaries(eq(companyId), any(), eq("AF123"), eq("great"),
+                eq(new SubmittedAtRange(OffsetDateTime.parse("2024-01-15T00:00+01:00"), OffsetDateTime.parse("2024-01-16T00:00+01:00"))),
+                eq("SUBMITTED")))
                 .thenReturn(reviewPage);
 
         // When & Then
@@ -100,6 +103,26 @@ class ReviewControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    void getReviews_shouldFilterInclusiveFromToDaysInRequestedTimeZone() throws Exception {
+        // Given
+        UUID companyId = UUID.randomUUID();
+        when(authentication.getName()).thenReturn(companyId.toString());
+        SubmittedAtRange submitted = new SubmittedAtRange(
+                OffsetDateTime.parse("2024-03-25T00:00+09:00"), OffsetDateTime.parse("2024-04-01T00:00+09:00"));
+        when(reviewService.getReviewSummaries(eq(companyId), any(), isNull(), isNull(), eq(submitted), isNull()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .principal(authentication)
+                .param("from", "2024-03-25")
+                .param("to", "2024-03-31")
+                .param("tz", "Asia/Tokyo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
     @Test
     void getReview_shouldReturnReviewWhenFound() throws Exception {
         // Given
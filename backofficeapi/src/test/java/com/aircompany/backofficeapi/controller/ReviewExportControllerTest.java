@@ -0,0 +1,107 @@
+package com.aircompany.backofficeapi.controller;
+
+import com.aircompany.backofficeapi.config.WebAsyncConfig;
+import com.aircompany.backofficeapi.dto.ReviewExportFormat;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.service.ReviewExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewExportControllerTest {
+
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final long EXPORT_TIMEOUT_MS = 3_600_000;
+
+    @Mock
+    private ReviewExportService exportService;
+
+    @Mock
+    private Authentication authentication;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewExportController(exportService, ZoneId.of("Europe/Paris"), EXPORT_TIMEOUT_MS)).build();
+    }
+
+    @Test
+    void exportReviews_shouldStreamCsvForAuthenticatedCompany() throws Exception {
+        // Given
+        when(authentication.getName()).thenReturn(COMPANY_ID.toString());
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(6);
+            out.write("id,customerName\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(eq(COMPANY_ID), eq("AF123"), isNull(),
+                eq(new SubmittedAtRange(OffsetDateTime.parse("2024-01-01T00:00+01:00"), null)), eq("PUBLISHED"),
+                eq(ReviewExportFormat.CSV), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/reviews/export")
+                        .principal(authentication)
+                        .param("format", "CSV")
+                        .param("flightNumber", "AF123")
+                        .param("from", "2024-01-01")
+                        .param("state", "PUBLISHED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then: the export asks for its own async timeout (see WebAsyncConfig)
+        assertEquals(EXPORT_TIMEOUT_MS, result.getRequest().getAttribute(WebAsyncConfig.ASYNC_TIMEOUT));
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reviews.csv\""))
+                .andExpect(content().string("id,customerName\n"));
+    }
+
+    @Test
+    void exportReviews_shouldDefaultToNdjson() throws Exception {
+        // Given
+        when(authentication.getName()).thenReturn(COMPANY_ID.toString());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/reviews/export").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+        verify(exportService).export(eq(COMPANY_ID), isNull(), isNull(), eq(SubmittedAtRange.ALL), isNull(),
+                eq(ReviewExportFormat.NDJSON), any(OutputStream.class));
+    }
+
+    @Test
+    void exportReviews_shouldRejectUnknownFormat() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews/export").principal(authentication).param("format", "XML"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(exportService);
+    }
+}
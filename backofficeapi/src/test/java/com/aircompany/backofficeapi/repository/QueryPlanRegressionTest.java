@@ -0,0 +1,330 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the hot queries against a seeded PostgreSQL migrated with review-api's migrations (which own
+// the schema), and fails when the plan of one of them reads review or flight with a Seq Scan.
+// Each query is EXPLAINed with the parameter values bound to it, so plans are the custom plans
+// the application gets
+@DataJpaTest(properties = {
+        "spring.flyway.locations=" + QueryPlanRegressionTest.MIGRATIONS,
+        "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReviewSummaryRepository.class, ReviewExportRepository.class})
+class QueryPlanRegressionTest {
+
+    static final String MIGRATIONS = "filesystem:../review-api/src/main/resources/db/init";
+
+    private static final Set<String> TABLES = Set.of("review", "flight");
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    // companies seeded by V1__init; the seed runs without triggers, so it sets company_id itself
+    private static final UUID AIR_FRANCE = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final UUID LUFTHANSA = UUID.fromString("550e8400-e29b-41d4-a716-446655440002");
+    private static final UUID KLM = UUID.fromString("550e8400-e29b-41d4-a716-446655440004");
+    private static final UUID EMIRATES = UUID.fromString("550e8400-e29b-41d4-a716-446655440005");
+
+    // 20k flights and 200k reviews over two years: 80% published, one review in 500 mentions lost luggage
+    private static final String SEED_FLIGHTS = """
+            INSERT INTO flight (id, flight_number, company_name, origin, destination, flight_date)
+            SELECT gen_random_uuid(),
+                   (ARRAY['AF', 'LH', 'BA', 'KL', 'EK'])[1 + g % 5] || (1000 + g / 5),
+                   (ARRAY['Air France', 'Lufthansa', 'British Airways', 'KLM Royal Dutch Airlines', 'Emirates'])[1 + g % 5],
+                   'Origin ' || g % 40, 'Destination ' || g % 60,
+                   DATE '2024-01-01' + g % 730
+            FROM generate_series(1, 20000) AS g""";
+    private static final String SEED_REVIEWS = """
+            INSERT INTO review (id, customer_name, customer_email, flight_number, rating, description,
+                                submitted_at, state, company_name, company_id, response_text, response_at)
+            SELECT gen_random_uuid(), 'Customer ' || g, 'customer' || g || '@example.com',
+                   (ARRAY['AF', 'LH', 'BA', 'KL', 'EK'])[1 + g % 5] || (1000 + (g / 5) % 4000),
+                   1 + g % 5,
+                   CASE WHEN g % 499 = 0 THEN 'Lost luggage on the way back ' ELSE 'Smooth flight, friendly crew ' END
+                       || repeat('and a few more words about the trip ', 4),
+                   TIMESTAMPTZ '2024-01-01 00:00:00+00' + (g * 7919 % 63072000) * interval '1 second',
+                   CASE WHEN (g / 5) % 20 < 16 THEN 'PUBLISHED'
+                        ELSE (ARRAY['SUBMITTED', 'TREATED', 'REJECTED', 'SUBMITTED'])[1 + (g / 5) % 4] END,
+                   (ARRAY['Air France', 'Lufthansa', 'British Airways', 'KLM Royal Dutch Airlines', 'Emirates'])[1 + g % 5],
+                   ('550e8400-e29b-41d4-a716-44665544000' || (1 + g % 5))::uuid,
+                   NULL, NULL
+            FROM generate_series(1, 200000) AS g""";
+    // flight numbers of the seed are unique, so each review has exactly one flight
+    private static final String SEED_REVIEW_FLIGHTS = """
+            UPDATE review r SET flight_id = f.id FROM flight f WHERE f.flight_number = r.flight_number""";
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private ReviewSummaryRepository summaryRepository;
+
+    @Autowired
+    private ReviewExportRepository exportRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlanRecorder planRecorder;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations(MIGRATIONS).load().migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // no content_version bump per seeded row
+            statement.execute("SET session_replication_role = replica");
+            statement.execute(SEED_FLIGHTS);
+            statement.execute(SEED_REVIEWS);
+            statement.execute(SEED_REVIEW_FLIGHTS);
+            statement.execute("ANALYZE");
+            vacuumUntilAllVisible(statement);
+        }
+    }
+
+    // Index-only scans are costed from the visibility map, which VACUUM may take a few passes to
+    // fill right after the seed; a long-lived table is mostly all-visible
+    private static void vacuumUntilAllVisible(Statement statement) throws SQLException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            statement.execute("VACUUM review");
+            try (ResultSet rs = statement.executeQuery("SELECT relallvisible >= relpages FROM pg_class WHERE relname = 'review'")) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    return;
+                }
+            }
+            statement.execute("SELECT pg_sleep(0.1)");
+        }
+        throw new IllegalStateException("review pages still not all-visible after VACUUM");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        planRecorder.clear();
+    }
+
+    @Test
+    void reviewList_shouldNotSeqScan() {
+        // Given
+        SubmittedAtRange month = SubmittedAtRange.of(null, "2025-03-01", "2025-03-31", null, ZONE);
+        PageRequest latest = PageRequest.of(0, 20);
+        PageRequest deep = PageRequest.of(20, 20);
+        PageRequest byRating = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("rating")));
+
+        // When
+        summaryRepository.findByCompanyId(AIR_FRANCE, null, null, SubmittedAtRange.ALL, null, latest);
+        summaryRepository.findByCompanyId(AIR_FRANCE, null, null, SubmittedAtRange.ALL, null, deep);
+        summaryRepository.findByCompanyId(LUFTHANSA, null, null, SubmittedAtRange.ALL, ReviewState.SUBMITTED, latest);
+        summaryRepository.findByCompanyId(LUFTHANSA, "LH12", null, SubmittedAtRange.ALL, null, latest);
+        summaryRepository.findByCompanyId(KLM, null, null, month, null, latest);
+        summaryRepository.findByCompanyId(KLM, null, null, month, ReviewState.PUBLISHED, byRating);
+        summaryRepository.findByCompanyId(EMIRATES, null, "luggage", SubmittedAtRange.ALL, null, latest);
+
+        // Then
+        assertNoSeqScan();
+    }
+
+    @Test
+    void export_shouldNotSeqScan() {
+        // Given
+        SubmittedAtRange month = SubmittedAtRange.of(null, "2025-03-01", "2025-03-31", null, ZONE);
+        List<Object> rows = new ArrayList<>();
+
+        // When
+        exportRepository.streamByCompanyId(AIR_FRANCE, null, null, month, null, rows::add);
+        exportRepository.streamByCompanyId(AIR_FRANCE, "AF3", null, SubmittedAtRange.ALL, ReviewState.PUBLISHED, rows::add);
+
+        // Then
+        assertFalse(rows.isEmpty());
+        assertNoSeqScan();
+    }
+
+    @Test
+    void flightLookup_shouldNotSeqScan() {
+        // When
+        flightRepository.findById(UUID.randomUUID());
+
+        // Then
+        assertNoSeqScan();
+    }
+
+    private void assertNoSeqScan() {
+        List<PlanRecorder.Plan> plans = planRecorder.plans();
+        assertFalse(plans.isEmpty(), "no query explained");
+        for (PlanRecorder.Plan plan : plans) {
+            for (JsonNode node : plan.nodes()) {
+                String relation = node.path("Relation Name").asText();
+                assertFalse("Seq Scan".equals(node.get("Node Type").asText()) && TABLES.contains(relation),
+                        "Seq Scan on " + relation + " for:\n" + plan.sql() + "\n" + plan.json());
+            }
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            // durability is of no use for a throwaway database and makes seeding slow
+            return EmbeddedPostgres.builder()
+                    .setServerConfig("fsync", "off")
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @TestConfiguration
+    static class PlanRecorderConfig {
+
+        @Bean
+        static PlanRecorder planRecorder() {
+            return new PlanRecorder();
+        }
+    }
+
+    // Wraps the DataSource: each SELECT on the watched tables, or DECLARE of a cursor over one, is
+    // EXPLAINed on the same connection, with the same parameters, right before it runs
+    static class PlanRecorder implements BeanPostProcessor {
+
+        record Plan(String sql, String json) {
+            List<JsonNode> nodes() {
+                try {
+                    return new ObjectMapper().readTree(json).findParents("Node Type");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        private record Binding(Method method, Object[] args) {
+        }
+
+        private final List<Plan> plans = new CopyOnWriteArrayList<>();
+
+        List<Plan> plans() {
+            return List.copyOf(plans);
+        }
+
+        void clear() {
+            plans.clear();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recording(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return recording(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && watched((String) args[0])) {
+                            return recording(connection, (PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recording(Connection connection, PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            bindings.add(new Binding(method, args));
+                        } else if (method.getName().equals("clearParameters")) {
+                            bindings.clear();
+                        } else if (method.getName().startsWith("execute") && args == null) {
+                            plans.add(new Plan(sql, explain(connection, sql, bindings)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static String explain(Connection connection, String sql, List<Binding> bindings) throws Throwable {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (Binding binding : bindings) {
+                    invoke(explain, binding.method(), binding.args());
+                }
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        }
+
+        private static boolean watched(String sql) {
+            String normalized = sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+            return (normalized.startsWith("select") || normalized.startsWith("declare")) && TABLES.stream().anyMatch(t -> normalized.contains(" from " + t + " "));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingStatsDeltaTest {
+
+    @Test
+    void add_shouldAccumulateCountsSumAndHistogramPerRow() {
+        // Given
+        RatingStatsDelta delta = new RatingStatsDelta();
+
+        // When
+        delta.add(review("AF123", 5), ReviewState.TREATED, 1);
+        delta.add(review("AF123", 3), ReviewState.TREATED, 1);
+        delta.add(review("AF456", 4), ReviewState.TREATED, 1);
+
+        // Then
+        assertArrayEquals(new long[] {2, 8, 0, 0, 1, 0, 1},
+                delta.flights().get(new RatingStatsDelta.Row("AF123", "Air France", ReviewState.TREATED)));
+        assertArrayEquals(new long[] {3, 12, 0, 0, 1, 1, 1},
+                delta.companies().get(new RatingStatsDelta.Row("Air France", null, ReviewState.TREATED)));
+    }
+
+    @Test
+    void add_shouldMoveReviewBetweenStates() {
+        // Given
+        RatingStatsDelta delta = new RatingStatsDelta();
+        Review review = review("AF123", 2);
+
+        // When
+        delta.add(review, ReviewState.TREATED, -1);
+        delta.add(review, ReviewState.PUBLISHED, 1);
+
+        // Then
+        assertArrayEquals(new long[] {-1, -2, 0, -1, 0, 0, 0},
+                delta.flights().get(new RatingStatsDelta.Row("AF123", "Air France", ReviewState.TREATED)));
+        assertArrayEquals(new long[] {1, 2, 0, 1, 0, 0, 0},
+                delta.flights().get(new RatingStatsDelta.Row("AF123", "Air France", ReviewState.PUBLISHED)));
+    }
+
+    @Test
+    void add_shouldKeepRowsSortedForConsistentLockOrder() {
+        // Given
+        RatingStatsDelta delta = new RatingStatsDelta();
+
+        // When
+        delta.add(review("LH101", 1), ReviewState.TREATED, 1);
+        delta.add(review("AF123", 1), ReviewState.TREATED, 1);
+        delta.add(review("BA111", 1), ReviewState.TREATED, 1);
+
+        // Then
+        assertEquals(List.of("AF123", "BA111", "LH101"),
+                delta.flights().keySet().stream().map(RatingStatsDelta.Row::name).toList());
+    }
+
+    @Test
+    void add_shouldIgnoreRatingsOutsideOneToFive() {
+        // Given
+        RatingStatsDelta delta = new RatingStatsDelta();
+
+        // When
+        delta.add(review("AF123", null), ReviewState.TREATED, 1);
+        delta.add(review("AF123", 0), ReviewState.TREATED, 1);
+        delta.add(review("AF123", 6), ReviewState.TREATED, 1);
+
+        // Then
+        assertTrue(delta.isEmpty());
+    }
+
+    private Review review(String flightNumber, Integer rating) {
+        Review review = new Review();
+        review.setFlightNumber(flightNumber);
+        review.setCompanyName("Air France");
+        review.setRating(rating);
+        return review;
+    }
+}
@@ -0,0 +1,129 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The export reads through a server-side cursor, fetch-size rows per round trip, inside the
+// transaction the test runs in (as ReviewExportService's @Transactional does)
+@DataJpaTest(properties = {
+        "spring.flyway.locations=" + QueryPlanRegressionTest.MIGRATIONS,
+        "spring.jpa.hibernate.ddl-auto=none",
+        "reviews.export.fetch-size=" + ReviewExportRepositoryTest.FETCH_SIZE})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReviewExportRepository.class)
+class ReviewExportRepositoryTest {
+
+    static final int FETCH_SIZE = 100;
+
+    private static final UUID AIR_FRANCE = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final int REVIEWS = 1000;
+
+    private static final String EXPORT_CURSORS =
+            "SELECT count(*) FROM pg_cursors WHERE name = '" + ReviewExportRepository.CURSOR + "'";
+
+    private static final String SEED_FLIGHT = """
+            INSERT INTO flight (id, flight_number, company_name, origin, destination, flight_date)
+            VALUES ('6f1c8a52-9d1e-4a57-b0a4-0d3f5e2c7a10', 'AF9000', 'Air France', 'Paris CDG', 'Tokyo HND', DATE '2024-03-01')""";
+    private static final String SEED_REVIEWS = """
+            INSERT INTO review (id, customer_name, customer_email, flight_number, flight_id, rating, description,
+                                submitted_at, state, company_name, company_id)
+            SELECT gen_random_uuid(), 'Customer ' || g, 'customer' || g || '@example.com', 'AF9000',
+                   '6f1c8a52-9d1e-4a57-b0a4-0d3f5e2c7a10', 1 + g %% 5, 'Review ' || g,
+                   TIMESTAMPTZ '2024-03-02 00:00:00+00' + g * interval '1 minute', 'SUBMITTED',
+                   'Air France', '550e8400-e29b-41d4-a716-446655440001'
+            FROM generate_series(1, %d) AS g""".formatted(REVIEWS);
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private ReviewExportRepository exportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations(QueryPlanRegressionTest.MIGRATIONS).load().migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(SEED_FLIGHT);
+            statement.execute(SEED_REVIEWS);
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void streamByCompanyId_shouldFetchThroughServerSideCursor() {
+        // Given
+        List<ReviewWithFlightDto> exported = new ArrayList<>();
+        List<Long> cursorsWhileStreaming = new ArrayList<>();
+
+        // When
+        exportRepository.streamByCompanyId(AIR_FRANCE, "AF9000", null, SubmittedAtRange.ALL, null, review -> {
+            // the cursor stays open until the last batch has been read
+            if (exported.size() % FETCH_SIZE == 0) {
+                cursorsWhileStreaming.add(jdbcTemplate.queryForObject(EXPORT_CURSORS, Long.class));
+            }
+            exported.add(review);
+        });
+
+        // Then
+        assertEquals(REVIEWS, exported.size());
+        assertEquals(REVIEWS / FETCH_SIZE, cursorsWhileStreaming.size());
+        assertTrue(cursorsWhileStreaming.stream().allMatch(open -> open == 1), cursorsWhileStreaming.toString());
+        assertEquals(0L, jdbcTemplate.queryForObject(EXPORT_CURSORS, Long.class));
+
+        ReviewWithFlightDto latest = exported.get(0);
+        assertEquals("Customer " + REVIEWS, latest.getCustomerName());
+        assertEquals("Tokyo HND", latest.getDestination());
+        assertEquals("2024-03-01", latest.getFlightDate());
+        OffsetDateTime previous = null;
+        for (ReviewWithFlightDto review : exported) {
+            assertTrue(previous == null || !review.getSubmittedAt().isAfter(previous));
+            previous = review.getSubmittedAt();
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
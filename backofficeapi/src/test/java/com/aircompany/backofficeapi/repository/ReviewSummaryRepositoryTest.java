@@ -0,0 +1,129 @@
+package com.aircompany.backofficeapi.repository;
+
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewSummaryRepositoryTest {
+
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
+    private static final OffsetDateTime FROM = OffsetDateTime.parse("2024-01-15T00:00+01:00");
+    private static final OffsetDateTime TO = OffsetDateTime.parse("2024-01-16T00:00+01:00");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ReviewSummaryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ReviewSummaryRepository(jdbcTemplate, 10);
+    }
+
+    @Test
+    void findByCompanyId_shouldSkipPageQueryWhenNothingMatches() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(0L);
+
+        // When
+        Page<ReviewSummaryDto> page = repository.findByCompanyId(COMPANY_ID, null, null, SubmittedAtRange.ALL, null, PageRequest.of(0, 20));
+
+        // Then
+        assertTrue(page.isEmpty());
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void findByCompanyId_shouldRankKeywordMatchesThenApplySortAndLimit() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(45L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        // When
+        Page<ReviewSummaryDto> page = repository.findByCompanyId(COMPANY_ID, "AF1", "food",
+                new SubmittedAtRange(FROM, TO), ReviewState.PUBLISHED,
+                PageRequest.of(2, 20, Sort.by(Sort.Direction.ASC, "rating")));
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("left(r.description, ?)"));
+        assertTrue(sql.getValue().contains("LEFT JOIN flight f ON f.id = r.flight_id"));
+        assertTrue(sql.getValue().contains(" AND r.submitted_at >= ? AND r.submitted_at < ?"));
+        assertFalse(sql.getValue().contains("CAST(r.submitted_at"));
+        assertFalse(sql.getValue().contains("customer_"));
+        assertTrue(sql.getValue().contains("ts_rank(to_tsvector('simple', coalesce(r.description, '')), " +
+                "websearch_to_tsquery('simple', ?)) AS rank"));
+        assertTrue(sql.getValue().contains(" ORDER BY rank DESC, r.rating ASC, r.id LIMIT ? OFFSET ?) r LEFT JOIN flight f"));
+        assertTrue(sql.getValue().endsWith(" ORDER BY rank DESC, r.rating ASC, r.id"));
+        assertArrayEquals(new Object[] {11, 11, "food", COMPANY_ID, "%AF1%", "food", FROM, TO,
+                "PUBLISHED", 20, 40L}, args.getValue());
+        assertEquals(45, page.getTotalElements());
+    }
+
+    @Test
+    void findByCompanyId_shouldRejectUnknownSortProperty() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> repository.findByCompanyId(COMPANY_ID,
+                null, null, SubmittedAtRange.ALL, null, PageRequest.of(0, 20, Sort.by("customerEmail"))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByCompanyId_shouldCutLongTextsToExcerpts() throws Exception {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        repository.findByCompanyId(COMPANY_ID, null, null, SubmittedAtRange.ALL, null, PageRequest.of(0, 20));
+        ArgumentCaptor<RowMapper<ReviewSummaryDto>> mapper = ArgumentCaptor.forClass(RowMapper.class);
+        verify(jdbcTemplate).query(anyString(), mapper.capture(), any(Object[].class));
+
+        // unstubbed columns read as null
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getObject("id", UUID.class)).thenReturn(UUID.randomUUID());
+        when(rs.getString("state")).thenReturn("TREATED");
+        when(rs.getString("description")).thenReturn("Great crew!");
+        when(rs.getString("response_text")).thenReturn("Thanks");
+        when(rs.getObject("flight_date", LocalDate.class)).thenReturn(LocalDate.of(2024, 1, 14));
+        when(rs.getObject("submitted_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.now());
+
+        // When
+        ReviewSummaryDto dto = mapper.getValue().mapRow(rs, 0);
+
+        // Then
+        assertEquals("Great crew…", dto.description());
+        assertEquals("Thanks", dto.responseText());
+        assertEquals("2024-01-14", dto.flightDate());
+        assertEquals(ReviewState.TREATED, dto.state());
+    }
+}
@@ -1,5 +1,8 @@
 package com.aircompany.backofficeapi.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +16,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,11 +40,16 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    private static final String COMPANY_ID = "550e8400-e29b-41d4-a716-446655440001";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VerifiedTokenCache verifiedTokenCache;
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @BeforeEach
     void setUp() {
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtils);
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 100, meterRegistry);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(verifiedTokenCache);
         SecurityContextHolder.clearContext();
     }
 
@@ -46,12 +57,11 @@ class JwtAuthenticationFilterTest {
     void doFilterInternal_shouldSetAuthenticationForValidToken() throws ServletException, IOException {
         // Given
         String token = "valid.jwt.token";
-        String companyName = "Air France";
+        String companyId = COMPANY_ID;
         String bearerToken = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getCompanyNameFromToken(token)).thenReturn(companyName);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claims(companyId)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -59,12 +69,13 @@ class JwtAuthenticationFilterTest {
         // Then
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(authentication);
-        assertEquals(companyName, authentication.getName());
+        assertEquals(companyId, authentication.getName());
+        assertEquals(new CompanyPrincipal(UUID.fromString(companyId), "Air France"), authentication.getPrincipal());
         assertTrue(authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_COMPANY")));
 
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getCompanyNameFromToken(token);
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        verifyNoMoreInteractions(jwtUtils);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -75,7 +86,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenReturn(false);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.empty());
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -84,8 +95,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, never()).getCompanyNameFromToken(anyString());
+        verify(jwtUtils, times(1)).parseAndValidate(token);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -101,8 +111,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, never()).validateToken(anyString());
-        verify(jwtUtils, never()).getCompanyNameFromToken(anyString());
+        verify(jwtUtils, never()).parseAndValidate(anyString());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -118,8 +127,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, never()).validateToken(anyString());
-        verify(jwtUtils, never()).getCompanyNameFromToken(anyString());
+        verify(jwtUtils, never()).parseAndValidate(anyString());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -136,8 +144,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, never()).validateToken(anyString());
-        verify(jwtUtils, never()).getCompanyNameFromToken(anyString());
+        verify(jwtUtils, never()).parseAndValidate(anyString());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -148,8 +155,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getCompanyNameFromToken(token)).thenReturn(null);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claims(null)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -158,8 +164,8 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getCompanyNameFromToken(token);
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        verifyNoMoreInteractions(jwtUtils);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -170,8 +176,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getCompanyNameFromToken(token)).thenReturn("");
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claims("")));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -180,8 +185,25 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNull(authentication);
 
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getCompanyNameFromToken(token);
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        verifyNoMoreInteractions(jwtUtils);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_shouldNotSetAuthenticationWhenSubjectIsNotCompanyId() throws ServletException, IOException {
+        // Given: token issued when the subject was the company name
+        String token = "valid.jwt.token";
+        String bearerToken = "Bearer " + token;
+
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claims("Air France")));
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -192,8 +214,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer  " + token; // Extra space
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getCompanyNameFromToken(token)).thenReturn("Air France");
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claims(COMPANY_ID)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -201,10 +222,10 @@ class JwtAuthenticationFilterTest {
         // Then
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(authentication);
-        assertEquals("Air France", authentication.getName());
+        assertEquals(COMPANY_ID, authentication.getName());
 
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getCompanyNameFromToken(token);
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        verifyNoMoreInteractions(jwtUtils);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -215,7 +236,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtils.validateToken(token)).thenThrow(new RuntimeException("JWT validation error"));
+        when(jwtUtils.parseAndValidate(token)).thenThrow(new RuntimeException("JWT validation error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> {
@@ -224,4 +245,71 @@ class JwtAuthenticationFilterTest {
 
         verify(filterChain, never()).doFilter(request, response);
     }
+
+    @Test
+    void doFilterInternal_shouldVerifySignatureOnlyOnceForRepeatedToken() throws ServletException, IOException {
+        // Given
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claimsExpiringIn(COMPANY_ID, 60_000)));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            SecurityContextHolder.clearContext();
+            jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        }
+
+        // Then
+        assertEquals(COMPANY_ID, SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        verify(filterChain, times(5)).doFilter(request, response);
+        assertEquals(4.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void doFilterInternal_shouldRejectRevokedToken() throws ServletException, IOException {
+        // Given
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseAndValidate(token)).thenReturn(Optional.of(claimsExpiringIn(COMPANY_ID, 60_000)));
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+
+        // When
+        verifiedTokenCache.revoke(token);
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(2)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_shouldNotCacheExpiredToken() throws ServletException, IOException {
+        // Given
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseAndValidate(token))
+                .thenReturn(Optional.of(claimsExpiringIn(COMPANY_ID, -1)))
+                .thenReturn(Optional.empty());
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtils, times(2)).parseAndValidate(token);
+    }
+
+    private Claims claimsExpiringIn(String subject, long millis) {
+        return claims(subject).setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+
+    private Claims claims(String subject) {
+        Claims claims = Jwts.claims().setSubject(subject);
+        claims.put("name", "Air France");
+        return claims;
+    }
 }
@@ -1,5 +1,6 @@
 package com.aircompany.backofficeapi.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureException;
@@ -7,27 +8,27 @@ import io.jsonwebtoken.UnsupportedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtUtilsTest {
 
-    @InjectMocks
     private JwtUtils jwtUtils;
 
+    private final UUID companyId = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
     private final String testSecret = "testSecretKeyThatIsLongEnoughForHMACSHA256Algorithm";
     private final long testExpirationMs = 3600000; // 1 hour
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", testSecret);
-        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", testExpirationMs);
+        jwtUtils = new JwtUtils(testSecret, testExpirationMs);
     }
 
     @Test
@@ -36,25 +37,26 @@ class JwtUtilsTest {
         String companyName = "Air France";
 
         // When
-        String token = jwtUtils.generateToken(companyName);
+        String token = jwtUtils.generateToken(companyId, companyName);
 
         // Then
         assertNotNull(token);
         assertFalse(token.isEmpty());
-        assertTrue(jwtUtils.validateToken(token));
+        assertTrue(jwtUtils.parseAndValidate(token).isPresent());
     }
 
     @Test
-    void generateToken_shouldCreateTokenWithCorrectSubject() {
+    void generateToken_shouldCreateTokenWithCompanyIdSubjectAndNameClaim() {
         // Given
         String companyName = "Air France";
 
         // When
-        String token = jwtUtils.generateToken(companyName);
-        String extractedCompanyName = jwtUtils.getCompanyNameFromToken(token);
+        String token = jwtUtils.generateToken(companyId, companyName);
+        Claims claims = jwtUtils.parseAndValidate(token).orElseThrow();
 
         // Then
-        assertEquals(companyName, extractedCompanyName);
+        assertEquals(companyId.toString(), claims.getSubject());
+        assertEquals(companyName, claims.get("name", String.class));
     }
 
     @Test
@@ -63,137 +65,111 @@ class JwtUtilsTest {
         String companyName = "Air France";
 
         // When
-        String token = jwtUtils.generateToken(companyName);
+        String token = jwtUtils.generateToken(companyId, companyName);
 
         // Then
-        assertTrue(jwtUtils.validateToken(token));
+        assertTrue(jwtUtils.parseAndValidate(token).isPresent());
     }
 
     @Test
-    void getCompanyNameFromToken_shouldExtractCorrectCompanyName() {
+    void parseAndValidate_shouldReturnEmptyForMalformedToken() {
         // Given
-        String companyName = "Air France";
-        String token = jwtUtils.generateToken(companyName);
+        String malformedToken = "not.a.valid.jwt.token";
 
         // When
-        String extractedCompanyName = jwtUtils.getCompanyNameFromToken(token);
+        Optional<Claims> claims = jwtUtils.parseAndValidate(malformedToken);
 
         // Then
-        assertEquals(companyName, extractedCompanyName);
+        assertTrue(claims.isEmpty());
     }
 
     @Test
-    void getCompanyNameFromToken_shouldThrowExceptionForInvalidToken() {
-        // Given
-        String invalidToken = "invalid.token.here";
-
-        // When & Then
-        assertThrows(Exception.class, () -> {
-            jwtUtils.getCompanyNameFromToken(invalidToken);
-        });
-    }
-
-    @Test
-    void validateToken_shouldReturnTrueForValidToken() {
+    void generateToken_shouldCreateDifferentTokensForSameCompany() {
         // Given
         String companyName = "Air France";
-        String token = jwtUtils.generateToken(companyName);
 
         // When
-        boolean isValid = jwtUtils.validateToken(token);
+        String token1 = jwtUtils.generateToken(companyId, companyName);
+        // Small delay to ensure different timestamps
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String token2 = jwtUtils.generateToken(companyId, companyName);
 
         // Then
-        assertTrue(isValid);
+        assertNotEquals(token1, token2);
+        assertEquals(companyId.toString(), jwtUtils.parseAndValidate(token1).orElseThrow().getSubject());
+        assertEquals(companyId.toString(), jwtUtils.parseAndValidate(token2).orElseThrow().getSubject());
     }
 
     @Test
-    void validateToken_shouldReturnFalseForInvalidToken() {
+    void generateToken_shouldHandleSpecialCharactersInCompanyName() {
         // Given
-        String invalidToken = "invalid.token.here";
+        String companyName = "Air France & Co. Ltd.";
 
         // When
-        boolean isValid = jwtUtils.validateToken(invalidToken);
+        String token = jwtUtils.generateToken(companyId, companyName);
+        String extractedCompanyName = jwtUtils.parseAndValidate(token).orElseThrow().get("name", String.class);
 
         // Then
-        assertFalse(isValid);
+        assertEquals(companyName, extractedCompanyName);
+        assertTrue(jwtUtils.parseAndValidate(token).isPresent());
     }
 
     @Test
-    void validateToken_shouldReturnFalseForNullToken() {
-        // When
-        boolean isValid = jwtUtils.validateToken(null);
-
-        // Then
-        assertFalse(isValid);
-    }
+    void generateToken_shouldHandleEmptyCompanyName() {
+        // Given
+        String companyName = "";
 
-    @Test
-    void validateToken_shouldReturnFalseForEmptyToken() {
         // When
-        boolean isValid = jwtUtils.validateToken("");
+        String token = jwtUtils.generateToken(companyId, companyName);
+        String extractedCompanyName = jwtUtils.parseAndValidate(token).orElseThrow().get("name", String.class);
 
         // Then
-        assertFalse(isValid);
+        assertEquals(companyName, extractedCompanyName);
+        assertTrue(jwtUtils.parseAndValidate(token).isPresent());
     }
 
     @Test
-    void validateToken_shouldReturnFalseForMalformedToken() {
+    void parseAndValidate_shouldReturnClaimsForValidToken() {
         // Given
-        String malformedToken = "not.a.valid.jwt.token";
+        String token = jwtUtils.generateToken(companyId, "Air France");
 
         // When
-        boolean isValid = jwtUtils.validateToken(malformedToken);
+        Optional<Claims> claims = jwtUtils.parseAndValidate(token);
 
         // Then
-        assertFalse(isValid);
+        assertTrue(claims.isPresent());
+        assertEquals(companyId.toString(), claims.get().getSubject());
+        assertNotNull(claims.get().getExpiration());
     }
 
     @Test
-    void generateToken_shouldCreateDifferentTokensForSameCompany() {
-        // Given
-        String companyName = "Air France";
-
-        // When
-        String token1 = jwtUtils.generateToken(companyName);
-        // Small delay to ensure different timestamps
-        try {
-            Thread.sleep(1);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        String token2 = jwtUtils.generateToken(companyName);
-
-        // Then
-        assertNotEquals(token1, token2);
-        assertEquals(companyName, jwtUtils.getCompanyNameFromToken(token1));
-        assertEquals(companyName, jwtUtils.getCompanyNameFromToken(token2));
+    void parseAndValidate_shouldReturnEmptyForInvalidTokens() {
+        assertTrue(jwtUtils.parseAndValidate("invalid.token.here").isEmpty());
+        assertTrue(jwtUtils.parseAndValidate("").isEmpty());
+        assertTrue(jwtUtils.parseAndValidate(null).isEmpty());
     }
 
     @Test
-    void generateToken_shouldHandleSpecialCharactersInCompanyName() {
+    void parseAndValidate_shouldReturnEmptyForTokenSignedWithAnotherKey() {
         // Given
-        String companyName = "Air France & Co. Ltd.";
-
-        // When
-        String token = jwtUtils.generateToken(companyName);
-        String extractedCompanyName = jwtUtils.getCompanyNameFromToken(token);
+        JwtUtils otherIssuer = new JwtUtils("anotherSecretKeyThatIsLongEnoughForHMACSHA256", testExpirationMs);
+        String token = otherIssuer.generateToken(companyId, "Air France");
 
-        // Then
-        assertEquals(companyName, extractedCompanyName);
-        assertTrue(jwtUtils.validateToken(token));
+        // When & Then
+        assertTrue(jwtUtils.parseAndValidate(token).isEmpty());
     }
 
     @Test
-    void generateToken_shouldHandleEmptyCompanyName() {
+    void parseAndValidate_shouldReturnEmptyForExpiredToken() {
         // Given
-        String companyName = "";
-
-        // When
-        String token = jwtUtils.generateToken(companyName);
-        String extractedCompanyName = jwtUtils.getCompanyNameFromToken(token);
+        JwtUtils expiredIssuer = new JwtUtils(testSecret, -1000);
+        String token = expiredIssuer.generateToken(companyId, "Air France");
 
-        // Then
-        assertEquals(companyName, extractedCompanyName);
-        assertTrue(jwtUtils.validateToken(token));
+        // When & Then
+        assertTrue(jwtUtils.parseAndValidate(token).isEmpty());
     }
 }
@@ -0,0 +1,106 @@
+package com.aircompany.backofficeapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolExecutor executor;
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        passwordHasher = new PasswordHasher(executor, 4, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    void encode_shouldHashWithConfiguredStrength() {
+        // When
+        String hash = passwordHasher.encode("password123");
+
+        // Then
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(passwordHasher.matches("password123", hash));
+        assertFalse(passwordHasher.matches("wrongpassword", hash));
+    }
+
+    @Test
+    void matches_shouldAcceptHashesOfAnyStrength() {
+        // Given
+        String hash = new BCryptPasswordEncoder(5).encode("password123");
+
+        // When & Then
+        assertTrue(passwordHasher.matches("password123", hash));
+        assertFalse(passwordHasher.needsRehash(passwordHasher.encode("password123")));
+    }
+
+    @Test
+    void needsRehash_shouldOnlyRaiseTheCost() {
+        // Given: an instance calibrated to 6, another one to 5 or 7
+        PasswordHasher hasher = new PasswordHasher(executor, 6, new SimpleMeterRegistry());
+
+        // When & Then
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("password123")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(6).encode("password123")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(7).encode("password123")));
+        assertTrue(hasher.needsRehash("{noop}password123"));
+    }
+
+    @Test
+    void encode_shouldRejectImmediatelyWhenQueueIsFull() throws Exception {
+        // Given: the only thread is busy and the one queue slot taken
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        executor.submit(() -> null);
+
+        try {
+            // When & Then
+            assertThrows(RejectedExecutionException.class, () -> passwordHasher.encode("password123"));
+            assertEquals(1.0, meterRegistry.counter("reviews.password.rejected").count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void strengthFor_shouldPickHighestCostWithinTarget() {
+        // Given: cost 10 takes 20ms, so 11 takes 40ms, 12 80ms, 13 160ms
+        long cost10 = TimeUnit.MILLISECONDS.toNanos(20);
+
+        // When & Then
+        assertEquals(12, PasswordHasher.strengthFor(TimeUnit.MILLISECONDS.toNanos(100), cost10));
+        assertEquals(13, PasswordHasher.strengthFor(TimeUnit.MILLISECONDS.toNanos(160), cost10));
+        // never below the default cost, never above the maximum
+        assertEquals(PasswordHasher.MIN_STRENGTH, PasswordHasher.strengthFor(TimeUnit.MILLISECONDS.toNanos(5), cost10));
+        assertEquals(PasswordHasher.MAX_STRENGTH, PasswordHasher.strengthFor(TimeUnit.SECONDS.toNanos(60), cost10));
+    }
+
+    @Test
+    void strengthOf_shouldReadCostFromBcryptHash() {
+        assertEquals(10, PasswordHasher.strengthOf("$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi"));
+        assertEquals(-1, PasswordHasher.strengthOf("plain"));
+        assertEquals(-1, PasswordHasher.strengthOf(null));
+    }
+}
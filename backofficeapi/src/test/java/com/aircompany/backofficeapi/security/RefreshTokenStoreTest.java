@@ -0,0 +1,196 @@
+package com.aircompany.backofficeapi.security;
+
+import com.aircompany.backofficeapi.model.Company;
+import com.aircompany.backofficeapi.model.RefreshToken;
+import com.aircompany.backofficeapi.repository.CompanyRepository;
+import com.aircompany.backofficeapi.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-03-01T10:00:00Z"), ZoneOffset.UTC);
+    private static final OffsetDateTime NOW = OffsetDateTime.now(CLOCK);
+
+    @Mock
+    private RefreshTokenRepository repository;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenStore store;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RefreshTokenStore(repository, companyRepository, 3600000, 100, meterRegistry, CLOCK);
+        company = new Company();
+        company.setId(UUID.randomUUID());
+        company.setName("Air France");
+    }
+
+    @Test
+    void issue_shouldStoreOnlyTheTokenHash() {
+        // When
+        String token = store.issue(company);
+
+        // Then
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertFalse(saved.getValue().getTokenHash().contains(token));
+        assertEquals(company.getId(), saved.getValue().getCompanyId());
+        assertEquals(NOW.plusHours(1), saved.getValue().getExpiresAt());
+        verify(repository).deleteExpired(company.getId(), NOW);
+    }
+
+    @Test
+    void rotate_shouldRenewFromHotSetWithoutLookup() {
+        // Given
+        String token = store.issue(company);
+        when(repository.markUsed(any(UUID.class), eq(NOW))).thenReturn(1);
+
+        // When
+        Optional<RefreshTokenStore.Renewal> renewal = store.rotate(token);
+
+        // Then
+        assertTrue(renewal.isPresent());
+        assertEquals("Air France", renewal.get().companyName());
+        assertNotEquals(token, renewal.get().refreshToken());
+        verify(repository, never()).findByTokenHash(anyString());
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void rotate_shouldKeepTheFamilyAcrossRenewals() {
+        // Given
+        String token = store.issue(company);
+        when(repository.markUsed(any(UUID.class), eq(NOW))).thenReturn(1);
+
+        // When
+        store.rotate(token);
+
+        // Then
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertEquals(saved.getAllValues().get(0).getFamilyId(), saved.getAllValues().get(1).getFamilyId());
+    }
+
+    @Test
+    void rotate_shouldFallBackToTableForTokensNotInHotSet() {
+        // Given: issued by another instance
+        String token = store.issue(company);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        RefreshTokenStore other = new RefreshTokenStore(repository, companyRepository, 3600000, 100,
+                new SimpleMeterRegistry(), CLOCK);
+        when(repository.findByTokenHash(saved.getValue().getTokenHash())).thenReturn(Optional.of(saved.getValue()));
+        when(companyRepository.findById(company.getId())).thenReturn(Optional.of(company));
+        when(repository.markUsed(saved.getValue().getId(), NOW)).thenReturn(1);
+
+        // When
+        Optional<RefreshTokenStore.Renewal> renewal = other.rotate(token);
+
+        // Then
+        assertTrue(renewal.isPresent());
+        assertEquals("Air France", renewal.get().companyName());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenUsedTokenIsPresentedAgain() {
+        // Given
+        String token = store.issue(company);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        RefreshToken row = saved.getValue();
+        when(repository.markUsed(row.getId(), NOW)).thenReturn(1);
+        String successor = store.rotate(token).orElseThrow().refreshToken();
+        row.setUsedAt(NOW);
+        when(repository.findByTokenHash(row.getTokenHash())).thenReturn(Optional.of(row));
+
+        // When
+        Optional<RefreshTokenStore.Renewal> replay = store.rotate(token);
+
+        // Then
+        assertTrue(replay.isEmpty());
+        verify(repository).revokeFamily(row.getFamilyId(), NOW);
+        assertEquals(1.0, meterRegistry.counter("jwt.refresh.reused").count());
+        // the successor left the hot set with its family and is now checked against the table
+        assertTrue(store.rotate(successor).isEmpty());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenConcurrentRenewalWon() {
+        // Given
+        String token = store.issue(company);
+        when(repository.markUsed(any(UUID.class), eq(NOW))).thenReturn(0);
+
+        // When & Then
+        assertTrue(store.rotate(token).isEmpty());
+        verify(repository).revokeFamily(any(UUID.class), eq(NOW));
+        verify(repository, times(1)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_shouldRejectExpiredToken() {
+        // Given
+        RefreshToken row = new RefreshToken();
+        row.setId(UUID.randomUUID());
+        row.setFamilyId(UUID.randomUUID());
+        row.setCompanyId(company.getId());
+        row.setExpiresAt(NOW.minusSeconds(1));
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.of(row));
+        when(companyRepository.findById(company.getId())).thenReturn(Optional.of(company));
+
+        // When & Then
+        assertTrue(store.rotate("expired-token").isEmpty());
+        verify(repository, never()).markUsed(any(UUID.class), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void rotate_shouldRejectUnknownToken() {
+        // Given
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // When & Then
+        assertTrue(store.rotate("unknown-token").isEmpty());
+        verify(repository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void revoke_shouldRevokeTheFamily() {
+        // Given
+        String token = store.issue(company);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+
+        // When
+        store.revoke(token);
+
+        // Then
+        verify(repository).revokeFamily(saved.getValue().getFamilyId(), NOW);
+        when(repository.findByTokenHash(saved.getValue().getTokenHash())).thenReturn(Optional.empty());
+        assertTrue(store.rotate(token).isEmpty());
+    }
+}
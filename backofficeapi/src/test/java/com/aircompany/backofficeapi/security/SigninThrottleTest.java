@@ -0,0 +1,127 @@
+package com.aircompany.backofficeapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SigninThrottleTest {
+
+    @Mock
+    private Clock clock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SigninThrottle signinThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 failures per account and client, 8 per account, 5 per client, in 60s windows
+        signinThrottle = new SigninThrottle(3, 8, 5, 60, 1024, meterRegistry, clock);
+        lenient().when(clock.millis()).thenReturn(1_000_000L);
+    }
+
+    @Test
+    void allowed_shouldRefuseAccountFromClientAfterMaxFailures() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            signinThrottle.failed("Air France", "10.0.0.1");
+        }
+
+        // When & Then
+        assertFalse(signinThrottle.allowed("Air France", "10.0.0.1"));
+        assertTrue(signinThrottle.allowed("Lufthansa", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.counter("reviews.signin.throttled").count());
+    }
+
+    @Test
+    void allowed_shouldNotLockAccountOutForOtherClients() {
+        // Given: someone else keeps failing on the account
+        for (int i = 0; i < 4; i++) {
+            signinThrottle.failed("Air France", "10.0.0.1");
+        }
+
+        // When & Then: its owner still gets a password check
+        assertTrue(signinThrottle.allowed("Air France", "192.168.1.20"));
+        assertTrue(signinThrottle.allowed("Air France", null));
+    }
+
+    @Test
+    void allowed_shouldRefuseAccountAfterMaxFailuresAcrossClients() {
+        // Given: guesses spread over addresses, each below its own limits
+        for (int i = 0; i < 8; i++) {
+            signinThrottle.failed("Air France", "10.0.0." + i);
+        }
+
+        // When & Then
+        assertFalse(signinThrottle.allowed("Air France", "192.168.1.20"));
+        assertTrue(signinThrottle.allowed("Lufthansa", "192.168.1.20"));
+    }
+
+    @Test
+    void allowed_shouldRefuseClientAfterMaxFailuresAcrossAccounts() {
+        // Given
+        String[] accounts = {"Air France", "Lufthansa", "KLM", "Emirates", "British Airways"};
+        for (String account : accounts) {
+            signinThrottle.failed(account + " typo", "10.0.0.1");
+        }
+
+        // When & Then
+        assertFalse(signinThrottle.allowed("Air France", "10.0.0.1"));
+        assertTrue(signinThrottle.allowed("Air France", "10.0.0.2"));
+    }
+
+    @Test
+    void allowed_shouldForgetFailuresOnceWindowHasPassed() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            signinThrottle.failed("Air France", "10.0.0.1");
+        }
+
+        // When
+        when(clock.millis()).thenReturn(1_060_000L);
+
+        // Then
+        assertTrue(signinThrottle.allowed("Air France", "10.0.0.1"));
+        signinThrottle.failed("Air France", "10.0.0.1");
+        assertTrue(signinThrottle.allowed("Air France", "10.0.0.1"));
+    }
+
+    @Test
+    void succeeded_shouldClearAccountFailuresOnly() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            signinThrottle.failed("Air France", "10.0.0.1");
+        }
+
+        // When
+        signinThrottle.succeeded("Air France", "10.0.0.1");
+
+        // Then: the client keeps its 3 failures out of 5
+        assertTrue(signinThrottle.allowed("Air France", "10.0.0.1"));
+        signinThrottle.failed("Lufthansa", "10.0.0.1");
+        signinThrottle.failed("KLM", "10.0.0.1");
+        assertFalse(signinThrottle.allowed("Air France", "10.0.0.1"));
+    }
+
+    @Test
+    void allowed_shouldIgnoreMissingClientAddress() {
+        // When & Then
+        signinThrottle.failed("Air France", null);
+        assertTrue(signinThrottle.allowed("Air France", null));
+    }
+
+    @Test
+    void constructor_shouldRequirePowerOfTwoStripes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SigninThrottle(3, 8, 5, 60, 1000, meterRegistry, clock));
+    }
+}
@@ -0,0 +1,97 @@
+package com.aircompany.backofficeapi.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Spy
+    private JwtUtils jwtUtils = new JwtUtils("testSecretKeyThatIsLongEnoughForHMACSHA256Algorithm", 3600000);
+
+    private final UUID airFrance = UUID.randomUUID();
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 100, meterRegistry);
+    }
+
+    @Test
+    void verify_shouldParseTokenOnlyOnCacheMiss() {
+        // Given
+        String token = jwtUtils.generateToken(airFrance, "Air France");
+
+        // When
+        Optional<Claims> first = verifiedTokenCache.verify(token);
+        Optional<Claims> second = verifiedTokenCache.verify(token);
+
+        // Then
+        assertEquals(airFrance.toString(), first.orElseThrow().getSubject());
+        assertEquals(airFrance.toString(), second.orElseThrow().getSubject());
+        verify(jwtUtils, times(1)).parseAndValidate(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void verify_shouldNotCacheInvalidToken() {
+        // When
+        verifiedTokenCache.verify("invalid.token.here");
+        Optional<Claims> result = verifiedTokenCache.verify("invalid.token.here");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(jwtUtils, times(2)).parseAndValidate("invalid.token.here");
+    }
+
+    @Test
+    void verify_shouldReturnEmptyForNullOrEmptyToken() {
+        assertTrue(verifiedTokenCache.verify(null).isEmpty());
+        assertTrue(verifiedTokenCache.verify("").isEmpty());
+        verify(jwtUtils, never()).parseAndValidate(any());
+    }
+
+    @Test
+    void revoke_shouldWinOverVerifyRunningConcurrently() {
+        // Given: the token is revoked while a verify is checking its signature
+        String token = jwtUtils.generateToken(airFrance, "Air France");
+        doAnswer(invocation -> {
+            verifiedTokenCache.revoke(token);
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(jwtUtils).parseAndValidate(token);
+
+        // When
+        verifiedTokenCache.verify(token);
+
+        // Then: the verify in flight cached the token again, the revocation still applies
+        assertTrue(verifiedTokenCache.verify(token).isEmpty());
+    }
+
+    @Test
+    void revoke_shouldRejectTokenUntilItExpires() {
+        // Given
+        String token = jwtUtils.generateToken(airFrance, "Air France");
+        String otherToken = jwtUtils.generateToken(UUID.randomUUID(), "Lufthansa");
+        verifiedTokenCache.verify(token);
+
+        // When
+        verifiedTokenCache.revoke(token);
+
+        // Then
+        assertTrue(verifiedTokenCache.verify(token).isEmpty());
+        assertTrue(verifiedTokenCache.verify(otherToken).isPresent());
+    }
+}
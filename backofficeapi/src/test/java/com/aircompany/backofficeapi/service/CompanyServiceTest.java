@@ -2,19 +2,29 @@ package com.aircompany.backofficeapi.service;
 
 import com.aircompany.backofficeapi.dto.CompanySigninDto;
 import com.aircompany.backofficeapi.dto.CompanySignupDto;
+import com.aircompany.backofficeapi.dto.SessionTokens;
 import com.aircompany.backofficeapi.model.Company;
 import com.aircompany.backofficeapi.repository.CompanyRepository;
 import com.aircompany.backofficeapi.security.JwtUtils;
+import com.aircompany.backofficeapi.security.PasswordHasher;
+import com.aircompany.backofficeapi.security.RefreshTokenStore;
+import com.aircompany.backofficeapi.security.SigninThrottle;
+import com.aircompany.backofficeapi.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,17 +34,31 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CompanyServiceTest {
 
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
     @Mock
     private CompanyRepository companyRepository;
 
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private PasswordHasher passwordHasher;
+    private SigninThrottle signinThrottle;
     private CompanyService companyService;
 
     @BeforeEach
     void setUp() {
-        companyService = new CompanyService(companyRepository, jwtUtils);
+        // cost 10, as the hashes made with new BCryptPasswordEncoder() below
+        passwordHasher = new PasswordHasher(1, 8, 10, 0, new SimpleMeterRegistry());
+        signinThrottle = new SigninThrottle(3, 100, 50, 900, 64, new SimpleMeterRegistry());
+        companyService = new CompanyService(companyRepository, jwtUtils, passwordHasher, signinThrottle,
+                refreshTokenStore, verifiedTokenCache);
     }
 
     @Test
@@ -93,6 +117,22 @@ class CompanyServiceTest {
         assertTrue(encoder.matches("password123", result.getPasswordHash()));
     }
 
+    @Test
+    void signup_shouldRejectNameAlreadyTaken() {
+        // Given
+        CompanySignupDto dto = new CompanySignupDto();
+        dto.setName("Air France");
+        dto.setEmail("other@airfrance.com");
+        dto.setPassword("password123");
+
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(new Company()));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> companyService.signup(dto));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(companyRepository, never()).save(any(Company.class));
+    }
+
     @Test
     void signin_shouldReturnTokenForValidCredentials() {
         // Given
@@ -101,19 +141,22 @@ class CompanyServiceTest {
         dto.setPassword("password123");
 
         Company company = new Company();
+        company.setId(COMPANY_ID);
         company.setName("Air France");
         company.setPasswordHash(new BCryptPasswordEncoder().encode("password123"));
 
         when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
-        when(jwtUtils.generateToken("Air France")).thenReturn("jwt-token");
+        when(jwtUtils.generateToken(COMPANY_ID, "Air France")).thenReturn("jwt-token");
+        when(refreshTokenStore.issue(company)).thenReturn("refresh-token");
 
         // When
-        String token = companyService.signin(dto);
+        SessionTokens tokens = companyService.signin(dto, "10.0.0.1");
 
         // Then
-        assertEquals("jwt-token", token);
+        assertEquals("jwt-token", tokens.token());
+        assertEquals("refresh-token", tokens.refreshToken());
         verify(companyRepository, times(1)).findByName("Air France");
-        verify(jwtUtils, times(1)).generateToken("Air France");
+        verify(jwtUtils, times(1)).generateToken(COMPANY_ID, "Air France");
     }
 
     @Test
@@ -127,12 +170,12 @@ class CompanyServiceTest {
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            companyService.signin(dto);
+            companyService.signin(dto, "10.0.0.1");
         });
 
         assertEquals("Invalid credentials", exception.getMessage());
         verify(companyRepository, times(1)).findByName("NonExistent");
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(any(), anyString());
     }
 
     @Test
@@ -150,12 +193,12 @@ class CompanyServiceTest {
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            companyService.signin(dto);
+            companyService.signin(dto, "10.0.0.1");
         });
 
         assertEquals("Invalid credentials", exception.getMessage());
         verify(companyRepository, times(1)).findByName("Air France");
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(any(), anyString());
     }
 
     @Test
@@ -169,11 +212,156 @@ class CompanyServiceTest {
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            companyService.signin(dto);
+            companyService.signin(dto, "10.0.0.1");
         });
 
         assertEquals("Invalid credentials", exception.getMessage());
         verify(companyRepository, times(1)).findByName("Air France");
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(any(), anyString());
+    }
+
+    @Test
+    void signin_shouldRehashPasswordMadeWithLowerCost() {
+        // Given
+        CompanySigninDto dto = new CompanySigninDto();
+        dto.setName("Air France");
+        dto.setPassword("password123");
+
+        Company company = new Company();
+        company.setId(COMPANY_ID);
+        company.setName("Air France");
+        company.setPasswordHash(new BCryptPasswordEncoder(4).encode("password123"));
+
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
+        when(jwtUtils.generateToken(COMPANY_ID, "Air France")).thenReturn("jwt-token");
+
+        // When
+        SessionTokens tokens = companyService.signin(dto, "10.0.0.1");
+
+        // Then
+        assertEquals("jwt-token", tokens.token());
+        ArgumentCaptor<Company> saved = ArgumentCaptor.forClass(Company.class);
+        verify(companyRepository, times(1)).save(saved.capture());
+        assertTrue(saved.getValue().getPasswordHash().startsWith("$2a$10$"));
+        assertTrue(new BCryptPasswordEncoder().matches("password123", saved.getValue().getPasswordHash()));
+    }
+
+    @Test
+    void signin_shouldNotRehashPasswordMadeWithCurrentCost() {
+        // Given
+        CompanySigninDto dto = new CompanySigninDto();
+        dto.setName("Air France");
+        dto.setPassword("password123");
+
+        Company company = new Company();
+        company.setName("Air France");
+        company.setPasswordHash(new BCryptPasswordEncoder().encode("password123"));
+
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
+
+        // When
+        companyService.signin(dto, "10.0.0.1");
+
+        // Then
+        verify(companyRepository, never()).save(any(Company.class));
+    }
+
+    @Test
+    void signin_shouldRefuseWithoutHashingAfterRepeatedFailures() {
+        // Given
+        CompanySigninDto wrong = new CompanySigninDto();
+        wrong.setName("Air France");
+        wrong.setPassword("wrongpassword");
+        CompanySigninDto right = new CompanySigninDto();
+        right.setName("Air France");
+        right.setPassword("password123");
+
+        Company company = new Company();
+        company.setName("Air France");
+        company.setPasswordHash(new BCryptPasswordEncoder().encode("password123"));
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> companyService.signin(wrong, "10.0.0.1"));
+        }
+
+        // When & Then: refused from the client that failed, even with the right password
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> companyService.signin(right, "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        verify(companyRepository, times(3)).findByName("Air France");
+        verify(jwtUtils, never()).generateToken(any(), anyString());
+    }
+
+    @Test
+    void signin_shouldReturnServiceUnavailableWhenHashingQueueIsFull() {
+        // Given
+        PasswordHasher busyHasher = mock(PasswordHasher.class);
+        CompanyService service = new CompanyService(companyRepository, jwtUtils, busyHasher, signinThrottle,
+                refreshTokenStore, verifiedTokenCache);
+        CompanySigninDto dto = new CompanySigninDto();
+        dto.setName("Air France");
+        dto.setPassword("password123");
+
+        Company company = new Company();
+        company.setName("Air France");
+        company.setPasswordHash("$2a$10$hash");
+
+        when(companyRepository.findByName("Air France")).thenReturn(Optional.of(company));
+        when(busyHasher.matches("password123", "$2a$10$hash")).thenThrow(new RejectedExecutionException("queue full"));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> service.signin(dto, "10.0.0.1"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        verify(jwtUtils, never()).generateToken(any(), anyString());
+    }
+
+    @Test
+    void refresh_shouldIssueNewTokensWithoutPasswordCheck() {
+        // Given
+        when(refreshTokenStore.rotate("refresh-token"))
+                .thenReturn(Optional.of(new RefreshTokenStore.Renewal(COMPANY_ID, "Air France", "next-refresh-token")));
+        when(jwtUtils.generateToken(COMPANY_ID, "Air France")).thenReturn("jwt-token");
+
+        // When
+        SessionTokens tokens = companyService.refresh("refresh-token");
+
+        // Then
+        assertEquals("jwt-token", tokens.token());
+        assertEquals("next-refresh-token", tokens.refreshToken());
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void refresh_shouldReturnUnauthorizedForInvalidToken() {
+        // Given
+        when(refreshTokenStore.rotate("reused-token")).thenReturn(Optional.empty());
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> companyService.refresh("reused-token"));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verify(jwtUtils, never()).generateToken(any(), anyString());
+    }
+
+    @Test
+    void signout_shouldRevokeRefreshAndAccessTokens() {
+        // When
+        companyService.signout("refresh-token", "jwt-token");
+
+        // Then
+        verify(refreshTokenStore).revoke("refresh-token");
+        verify(verifiedTokenCache).revoke("jwt-token");
+    }
+
+    @Test
+    void signout_shouldRevokeRefreshTokenWithoutAccessToken() {
+        // When
+        companyService.signout("refresh-token", null);
+
+        // Then
+        verify(refreshTokenStore).revoke("refresh-token");
+        verifyNoInteractions(verifiedTokenCache);
     }
 }
@@ -7,7 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.OffsetDateTime;
 import java.util.Arrays;
@@ -24,6 +27,12 @@ class FlightServiceTest {
     @Mock
     private FlightRepository flightRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private CaffeineCacheManager cacheManager = new CaffeineCacheManager(FlightService.FLIGHTS_CACHE);
+
     @InjectMocks
     private FlightService flightService;
 
@@ -100,6 +109,16 @@ class FlightServiceTest {
         verify(flightRepository, times(1)).findById(flightId);
     }
 
+    @Test
+    void getFlightById_shouldReturnNullForNullId() {
+        // When
+        Flight result = flightService.getFlightById(null);
+
+        // Then
+        assertNull(result);
+        verify(flightRepository, never()).findById(any());
+    }
+
     @Test
     void getFlightsByCompanyName_shouldReturnFlightsForCompany() {
         // Given
@@ -133,31 +152,65 @@ class FlightServiceTest {
     }
 
     @Test
-    void getFlightByFlightNumber_shouldReturnFlightWhenFound() {
+    void getFlightById_shouldServeRepeatedLookupsFromCache() {
         // Given
-        String flightNumber = "AF123";
-        when(flightRepository.findByFlightNumber(flightNumber)).thenReturn(testFlight);
+        when(flightRepository.findById(testFlight.getId())).thenReturn(Optional.of(testFlight));
 
         // When
-        Flight result = flightService.getFlightByFlightNumber(flightNumber);
+        Flight first = flightService.getFlightById(testFlight.getId());
+        Flight second = flightService.getFlightById(testFlight.getId());
 
         // Then
-        assertNotNull(result);
-        assertEquals(flightNumber, result.getFlightNumber());
-        verify(flightRepository, times(1)).findByFlightNumber(flightNumber);
+        assertSame(testFlight, first);
+        assertSame(testFlight, second);
+        verify(flightRepository, times(1)).findById(testFlight.getId());
     }
 
     @Test
-    void getFlightByFlightNumber_shouldReturnNullWhenNotFound() {
+    void getFlightById_shouldNotCacheMissingFlights() {
         // Given
-        String flightNumber = "NONEXISTENT";
-        when(flightRepository.findByFlightNumber(flightNumber)).thenReturn(null);
+        UUID flightId = UUID.randomUUID();
+        when(flightRepository.findById(flightId)).thenReturn(Optional.empty());
 
         // When
-        Flight result = flightService.getFlightByFlightNumber(flightNumber);
+        flightService.getFlightById(flightId);
+        flightService.getFlightById(flightId);
 
         // Then
-        assertNull(result);
-        verify(flightRepository, times(1)).findByFlightNumber(flightNumber);
+        verify(flightRepository, times(2)).findById(flightId);
+    }
+
+    @Test
+    void checkFlightCatalog_shouldClearCacheWhenFlightVersionChanges() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(3L), List.of(3L), List.of(4L));
+        flightService.checkFlightCatalog();
+        cache(testFlight);
+
+        // When: unchanged, then bumped
+        flightService.checkFlightCatalog();
+        boolean cachedWhileUnchanged = cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(testFlight.getId()) != null;
+        flightService.checkFlightCatalog();
+
+        // Then
+        assertTrue(cachedWhileUnchanged);
+        assertNull(cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(testFlight.getId()));
+    }
+
+    @Test
+    void evictAllFlights_shouldClearCache() {
+        // Given
+        cache(testFlight);
+
+        // When
+        flightService.evictAllFlights();
+
+        // Then
+        assertNull(cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(testFlight.getId()));
+    }
+
+    private void cache(Flight flight) {
+        when(flightRepository.findById(flight.getId())).thenReturn(Optional.of(flight));
+        flightService.getFlightById(flight.getId());
     }
 }
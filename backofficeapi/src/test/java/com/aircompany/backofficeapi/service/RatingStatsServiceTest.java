@@ -0,0 +1,103 @@
+package com.aircompany.backofficeapi.service;
+
+import com.aircompany.backofficeapi.dto.RatingStats;
+import com.aircompany.backofficeapi.model.Review;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.RatingStatsDelta;
+import com.aircompany.backofficeapi.repository.RatingStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingStatsServiceTest {
+
+    @Mock
+    private RatingStatsRepository ratingStatsRepository;
+
+    private RatingStatsService ratingStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ratingStatsService = new RatingStatsService(ratingStatsRepository);
+    }
+
+    @Test
+    void recordTransitions_shouldApplyOneDeltaForWholeBatch() {
+        // Given
+        List<Review> reviews = List.of(review("AF123", 5), review("AF456", 3), review("AF123", 4));
+
+        // When
+        ratingStatsService.recordTransitions(reviews, ReviewState.SUBMITTED, ReviewState.TREATED);
+
+        // Then
+        verify(ratingStatsRepository, times(1)).apply(any(RatingStatsDelta.class));
+    }
+
+    @Test
+    void recordTransition_shouldIgnoreUnchangedState() {
+        // When
+        ratingStatsService.recordTransition(review("AF123", 5), ReviewState.PUBLISHED, ReviewState.PUBLISHED);
+
+        // Then
+        verify(ratingStatsRepository, never()).apply(any());
+    }
+
+    @Test
+    void recordTransition_shouldIgnoreReviewsWithoutRating() {
+        // When
+        ratingStatsService.recordTransition(review("AF123", null), ReviewState.SUBMITTED, ReviewState.TREATED);
+
+        // Then
+        verify(ratingStatsRepository, never()).apply(any());
+    }
+
+    @Test
+    void getCompanyStats_shouldSumProcessedStatesByDefault() {
+        // Given
+        RatingStats stats = RatingStats.of(2, 9, new long[] {0, 0, 0, 1, 1});
+        when(ratingStatsRepository.findCompanyStats("Air France",
+                EnumSet.of(ReviewState.TREATED, ReviewState.PUBLISHED, ReviewState.REJECTED))).thenReturn(stats);
+
+        // When
+        RatingStats result = ratingStatsService.getCompanyStats("Air France", null);
+
+        // Then
+        assertEquals(stats, result);
+        assertEquals(4.5, result.averageRating());
+    }
+
+    @Test
+    void getFlightStats_shouldFilterOnRequestedState() {
+        // Given
+        RatingStats stats = RatingStats.of(0, 0, new long[5]);
+        when(ratingStatsRepository.findFlightStats("Air France", "AF123", EnumSet.of(ReviewState.PUBLISHED)))
+                .thenReturn(stats);
+
+        // When
+        RatingStats result = ratingStatsService.getFlightStats("Air France", "AF123", ReviewState.PUBLISHED);
+
+        // Then
+        assertEquals(0, result.reviewCount());
+        assertNull(result.averageRating());
+    }
+
+    private Review review(String flightNumber, Integer rating) {
+        Review review = new Review();
+        review.setId(UUID.randomUUID());
+        review.setFlightNumber(flightNumber);
+        review.setCompanyName("Air France");
+        review.setRating(rating);
+        return review;
+    }
+}
@@ -0,0 +1,147 @@
+package com.aircompany.backofficeapi.service;
+
+import com.aircompany.backofficeapi.dto.ReviewExportFormat;
+import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
+import com.aircompany.backofficeapi.model.ReviewState;
+import com.aircompany.backofficeapi.repository.ReviewExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewExportServiceTest {
+
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
+    @Mock
+    private ReviewExportRepository exportRepository;
+
+    private ReviewExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ReviewExportService(exportRepository, objectMapper);
+    }
+
+    @Test
+    void export_shouldWriteOneJsonObjectPerLine() throws IOException {
+        // Given
+        ReviewWithFlightDto review = review(UUID.randomUUID());
+        stubRows(1, i -> review);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(COMPANY_ID, null, null, SubmittedAtRange.ALL, null, ReviewExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + review.getId() + "\""));
+        assertTrue(lines[0].contains("\"origin\":\"Paris CDG\""));
+        assertTrue(lines[0].contains("\"flightDate\":\"2024-01-15\""));
+    }
+
+    @Test
+    void export_shouldWriteCsvHeaderAndQuoteSpecialCharacters() throws IOException {
+        // Given
+        ReviewWithFlightDto review = review(UUID.randomUUID());
+        review.setDescription("Late, but \"friendly\" crew\nwould fly again");
+        stubRows(1, i -> review);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(COMPANY_ID, null, null, SubmittedAtRange.ALL, null, ReviewExportFormat.CSV, out);
+
+        // Then
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(ReviewExportService.CSV_HEADER + "\n"));
+        assertTrue(csv.contains(",5,\"Late, but \"\"friendly\"\" crew\nwould fly again\","));
+        assertTrue(csv.endsWith(",Paris CDG,New York JFK,2024-01-15\n"));
+    }
+
+    @Test
+    void export_shouldNeutralizeFormulasInCsv() throws IOException {
+        // Given
+        ReviewWithFlightDto review = review(UUID.randomUUID());
+        review.setCustomerName("=HYPERLINK(\"http://evil.example\",\"click\")");
+        review.setDescription("@SUM(1+1)");
+        review.setResponseText("-2+3");
+        stubRows(1, i -> review);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(COMPANY_ID, null, null, SubmittedAtRange.ALL, null, ReviewExportFormat.CSV, out);
+
+        // Then
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"click\"\")\",john@example.com,"));
+        assertTrue(csv.contains(",5,'@SUM(1+1),"));
+        assertTrue(csv.contains(",PUBLISHED,'-2+3,"));
+        assertEquals("'+33 6 12", ReviewExportService.csvField("+33 6 12"));
+        assertEquals("plain", ReviewExportService.csvField("plain"));
+    }
+
+    @Test
+    void export_shouldPassParsedFiltersAndIgnoreInvalidOnes() throws IOException {
+        // When
+        SubmittedAtRange submitted = SubmittedAtRange.of("2024-01-15", null, null, null, ZoneOffset.UTC);
+        exportService.export(COMPANY_ID, "AF1", "delay", submitted, "PUBLISHED",
+                ReviewExportFormat.NDJSON, OutputStream.nullOutputStream());
+        exportService.export(COMPANY_ID, null, null, SubmittedAtRange.ALL, "UNKNOWN",
+                ReviewExportFormat.NDJSON, OutputStream.nullOutputStream());
+
+        // Then
+        verify(exportRepository).streamByCompanyId(eq(COMPANY_ID), eq("AF1"), eq("delay"),
+                eq(submitted), eq(ReviewState.PUBLISHED), any());
+        verify(exportRepository).streamByCompanyId(eq(COMPANY_ID), isNull(), isNull(), eq(SubmittedAtRange.ALL), isNull(), any());
+    }
+
+    private void stubRows(int count, java.util.function.IntFunction<ReviewWithFlightDto> row) {
+        doAnswer(invocation -> {
+            Consumer<ReviewWithFlightDto> sink = invocation.getArgument(5);
+            for (int i = 0; i < count; i++) {
+                sink.accept(row.apply(i));
+            }
+            return null;
+        }).when(exportRepository).streamByCompanyId(any(), any(), any(), any(), any(), any());
+    }
+
+    private ReviewWithFlightDto review(UUID id) {
+        ReviewWithFlightDto dto = new ReviewWithFlightDto();
+        dto.setId(id);
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setFlightNumber("AF123");
+        dto.setCompanyName("Air France");
+        dto.setRating(5);
+        dto.setDescription("Great flight!");
+        dto.setSubmittedAt(OffsetDateTime.of(2024, 1, 16, 10, 0, 0, 0, ZoneOffset.UTC));
+        dto.setState(ReviewState.PUBLISHED);
+        dto.setOrigin("Paris CDG");
+        dto.setDestination("New York JFK");
+        dto.setFlightDate("2024-01-15");
+        return dto;
+    }
+}
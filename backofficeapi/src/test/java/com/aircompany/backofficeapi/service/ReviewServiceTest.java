@@ -1,10 +1,13 @@
 package com.aircompany.backofficeapi.service;
 
+import com.aircompany.backofficeapi.dto.ReviewSummaryDto;
 import com.aircompany.backofficeapi.dto.ReviewWithFlightDto;
+import com.aircompany.backofficeapi.dto.SubmittedAtRange;
 import com.aircompany.backofficeapi.model.Flight;
 import com.aircompany.backofficeapi.model.Review;
 import com.aircompany.backofficeapi.model.ReviewState;
 import com.aircompany.backofficeapi.repository.ReviewRepository;
+import com.aircompany.backofficeapi.repository.ReviewSummaryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +18,8 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,12 +32,20 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ReviewServiceTest {
 
+    private static final UUID COMPANY_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
     @Mock
     private ReviewRepository reviewRepository;
 
     @Mock
     private FlightService flightService;
 
+    @Mock
+    private RatingStatsService ratingStatsService;
+
+    @Mock
+    private ReviewSummaryRepository summaryRepository;
+
     private ReviewService reviewService;
 
     private Review testReview;
@@ -42,7 +53,7 @@ class ReviewServiceTest {
 
     @BeforeEach
     void setUp() {
-        reviewService = new ReviewService(reviewRepository, flightService);
+        reviewService = new ReviewService(reviewRepository, flightService, ratingStatsService, summaryRepository);
 
         testReview = new Review();
         testReview.setId(UUID.randomUUID());
@@ -61,143 +72,42 @@ class ReviewServiceTest {
         testFlight.setCompanyName("Air France");
         testFlight.setOrigin("Paris");
         testFlight.setDestination("New York");
+        testReview.setFlightId(testFlight.getId());
     }
 
     @Test
-    void getReviewsForCompany_shouldReturnReviewsWithFlightInfo() {
-        // Given
-        String companyName = "Air France";
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Review> reviewPage = new PageImpl<>(Arrays.asList(testReview));
-        
-        when(reviewRepository.findByCompanyName(companyName, pageable)).thenReturn(reviewPage);
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(testFlight);
-
-        // When
-        Page<ReviewWithFlightDto> result = reviewService.getReviewsForCompany(companyName, pageable);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        
-        ReviewWithFlightDto dto = result.getContent().get(0);
-        assertEquals("John Doe", dto.getCustomerName());
-        assertEquals("AF123", dto.getFlightNumber());
-        assertEquals("Paris", dto.getOrigin());
-        assertEquals("New York", dto.getDestination());
-        
-        verify(reviewRepository, times(1)).findByCompanyName(companyName, pageable);
-        verify(flightService, times(1)).getFlightByFlightNumber("AF123");
-    }
-
-    @Test
-    void getReviewsForCompany_shouldHandleNullFlightNumber() {
+    void getReviewSummaries_shouldQueryProjectionWithParsedFilters() {
         // Given
-        String companyName = "Air France";
-        Pageable pageable = PageRequest.of(0, 10);
-        testReview.setFlightNumber(null);
-        Page<Review> reviewPage = new PageImpl<>(Arrays.asList(testReview));
-        
-        when(reviewRepository.findByCompanyName(companyName, pageable)).thenReturn(reviewPage);
+        Pageable pageable = PageRequest.of(0, 20);
+        ReviewSummaryDto summary = new ReviewSummaryDto(testReview.getId(), "AF123", "Paris", "New York", "2024-01-14",
+                5, "Great flight!", testReview.getSubmittedAt(), ReviewState.SUBMITTED, null, null);
+        SubmittedAtRange submitted = SubmittedAtRange.of("2024-01-15", null, null, null, ZoneId.of("Europe/Paris"));
+        when(summaryRepository.findByCompanyId(COMPANY_ID, "AF1", "food", submitted,
+                ReviewState.PUBLISHED, pageable)).thenReturn(new PageImpl<>(Arrays.asList(summary), pageable, 1));
 
         // When
-        Page<ReviewWithFlightDto> result = reviewService.getReviewsForCompany(companyName, pageable);
+        Page<ReviewSummaryDto> result = reviewService.getReviewSummaries(
+                COMPANY_ID, pageable, "AF1", "food", submitted, "PUBLISHED");
 
         // Then
-        assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        
-        ReviewWithFlightDto dto = result.getContent().get(0);
-        assertEquals("John Doe", dto.getCustomerName());
-        assertNull(dto.getOrigin());
-        assertNull(dto.getDestination());
-        
-        verify(reviewRepository, times(1)).findByCompanyName(companyName, pageable);
-        verify(flightService, never()).getFlightByFlightNumber(anyString());
+        assertEquals("Paris", result.getContent().get(0).origin());
+        verifyNoInteractions(reviewRepository, flightService);
     }
 
     @Test
-    void getReviewsForCompany_withFilters_shouldReturnFilteredReviews() {
+    void getReviewSummaries_shouldIgnoreInvalidState() {
         // Given
-        String companyName = "Air France";
-        Pageable pageable = PageRequest.of(0, 10);
-        String flightNumber = "AF123";
-        String keyword = "great";
-        String date = "2024-01-15";
-        String state = "SUBMITTED";
-        
-        Page<Review> reviewPage = new PageImpl<>(Arrays.asList(testReview));
-        
-        when(reviewRepository.findByCompanyNameAndFilters(
-            eq(companyName), eq(flightNumber), eq(keyword), 
-            eq(LocalDate.parse(date)), eq(ReviewState.SUBMITTED), eq(pageable)
-        )).thenReturn(reviewPage);
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(testFlight);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(summaryRepository.findByCompanyId(eq(COMPANY_ID), isNull(), isNull(), eq(SubmittedAtRange.ALL), isNull(), eq(pageable)))
+                .thenReturn(Page.empty(pageable));
 
         // When
-        Page<ReviewWithFlightDto> result = reviewService.getReviewsForCompany(
-            companyName, pageable, flightNumber, keyword, date, state);
+        Page<ReviewSummaryDto> result = reviewService.getReviewSummaries(
+                COMPANY_ID, pageable, null, null, SubmittedAtRange.ALL, "NOT_A_STATE");
 
         // Then
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        
-        verify(reviewRepository, times(1)).findByCompanyNameAndFilters(
-            eq(companyName), eq(flightNumber), eq(keyword), 
-            eq(LocalDate.parse(date)), eq(ReviewState.SUBMITTED), eq(pageable)
-        );
-    }
-
-    @Test
-    void getReviewsForCompany_withInvalidDate_shouldIgnoreDateFilter() {
-        // Given
-        String companyName = "Air France";
-        Pageable pageable = PageRequest.of(0, 10);
-        String invalidDate = "invalid-date";
-        
-        Page<Review> reviewPage = new PageImpl<>(Arrays.asList(testReview));
-        
-        when(reviewRepository.findByCompanyNameAndFilters(
-            eq(companyName), isNull(), isNull(), isNull(), isNull(), eq(pageable)
-        )).thenReturn(reviewPage);
-
-        // When
-        Page<ReviewWithFlightDto> result = reviewService.getReviewsForCompany(
-            companyName, pageable, null, null, invalidDate, null);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        
-        verify(reviewRepository, times(1)).findByCompanyNameAndFilters(
-            eq(companyName), isNull(), isNull(), isNull(), isNull(), eq(pageable)
-        );
-    }
-
-    @Test
-    void getReviewsForCompany_withInvalidState_shouldIgnoreStateFilter() {
-        // Given
-        String companyName = "Air France";
-        Pageable pageable = PageRequest.of(0, 10);
-        String invalidState = "INVALID_STATE";
-        
-        Page<Review> reviewPage = new PageImpl<>(Arrays.asList(testReview));
-        
-        when(reviewRepository.findByCompanyNameAndFilters(
-            eq(companyName), isNull(), isNull(), isNull(), isNull(), eq(pageable)
-        )).thenReturn(reviewPage);
-
-        // When
-        Page<ReviewWithFlightDto> result = reviewService.getReviewsForCompany(
-            companyName, pageable, null, null, null, invalidState);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        
-        verify(reviewRepository, times(1)).findByCompanyNameAndFilters(
-            eq(companyName), isNull(), isNull(), isNull(), isNull(), eq(pageable)
-        );
+        assertTrue(result.isEmpty());
     }
 
     @Test
@@ -205,7 +115,7 @@ class ReviewServiceTest {
         // Given
         UUID reviewId = testReview.getId();
         when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(testReview));
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(testFlight);
+        when(flightService.getFlightById(testFlight.getId())).thenReturn(testFlight);
 
         // When
         Optional<ReviewWithFlightDto> result = reviewService.getReview(reviewId);
@@ -219,7 +129,7 @@ class ReviewServiceTest {
         assertEquals("New York", dto.getDestination());
         
         verify(reviewRepository, times(1)).findById(reviewId);
-        verify(flightService, times(1)).getFlightByFlightNumber("AF123");
+        verify(flightService, times(1)).getFlightById(testFlight.getId());
     }
 
     @Test
@@ -234,7 +144,7 @@ class ReviewServiceTest {
         // Then
         assertFalse(result.isPresent());
         verify(reviewRepository, times(1)).findById(reviewId);
-        verify(flightService, never()).getFlightByFlightNumber(anyString());
+        verify(flightService, never()).getFlightById(any());
     }
 
     @Test
@@ -244,7 +154,7 @@ class ReviewServiceTest {
         String responseText = "Thank you for your feedback!";
         ReviewState newState = ReviewState.TREATED;
         
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(testReview));
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.of(testReview));
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -256,8 +166,23 @@ class ReviewServiceTest {
         assertEquals(newState, result.getState());
         assertNotNull(result.getResponseAt());
         
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, times(1)).save(testReview);
+        verify(ratingStatsService, times(1)).recordTransition(testReview, ReviewState.SUBMITTED, newState);
+    }
+
+    @Test
+    void respondToReview_shouldMoveRatingBetweenStateAggregates() {
+        // Given
+        testReview.setState(ReviewState.TREATED);
+        when(reviewRepository.findByIdForUpdate(testReview.getId())).thenReturn(Optional.of(testReview));
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        reviewService.respondToReview(testReview.getId(), "Thanks", ReviewState.PUBLISHED);
+
+        // Then
+        verify(ratingStatsService, times(1)).recordTransition(testReview, ReviewState.TREATED, ReviewState.PUBLISHED);
     }
 
     @Test
@@ -267,7 +192,7 @@ class ReviewServiceTest {
         String responseText = "Thank you for your feedback!";
         ReviewState newState = ReviewState.TREATED;
         
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.empty());
+        when(reviewRepository.findByIdForUpdate(reviewId)).thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -275,7 +200,8 @@ class ReviewServiceTest {
         });
 
         assertEquals("Review not found", exception.getMessage());
-        verify(reviewRepository, times(1)).findById(reviewId);
+        verify(reviewRepository, times(1)).findByIdForUpdate(reviewId);
         verify(reviewRepository, never()).save(any(Review.class));
+        verify(ratingStatsService, never()).recordTransition(any(), any(), any());
     }
 }
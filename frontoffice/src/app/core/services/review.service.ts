@@ -50,4 +50,9 @@ export class ReviewService {
   getFlights(): Observable<any> {
     return this.http.get(`${this.publicApi}/flights`);
   }
+
+  searchFlights(prefix: string, limit = 10): Observable<any> {
+    const params = new HttpParams().set('prefix', prefix).set('limit', limit);
+    return this.http.get(`${this.publicApi}/flights/search`, { params });
+  }
 }
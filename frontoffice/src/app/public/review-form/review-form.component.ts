@@ -1,4 +1,6 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { Subject, Subscription, of } from 'rxjs';
+import { debounceTime, distinctUntilChanged, switchMap } from 'rxjs/operators';
 import { ReviewService } from '../../core/services/review.service';
 import { Flight } from '../../shared/models/flight';
 
@@ -7,39 +9,56 @@ import { Flight } from '../../shared/models/flight';
   templateUrl: './review-form.component.html',
   styleUrls: ['./review-form.component.css']
 })
-export class ReviewFormComponent implements OnInit {
-  form = { customerName: '', customerEmail: '', flightNumber: '', rating: 1, description: '' };
+export class ReviewFormComponent implements OnInit, OnDestroy {
+  form = { customerName: '', customerEmail: '', flightNumber: '', flightDate: '', rating: 1, description: '' };
+  flightQuery = '';
   flights: Flight[] = [];
   selectedFlight: Flight | null = null;
 
+  private queries = new Subject<string>();
+  private subscription?: Subscription;
+
   constructor(private reviewService: ReviewService) {}
 
   ngOnInit() {
-    this.loadFlights();
-  }
-
-  loadFlights() {
-    this.reviewService.getFlights().subscribe({
+    // Suggestions by flight number or airport prefix, instead of downloading the whole catalog
+    this.subscription = this.queries.pipe(
+      debounceTime(150),
+      distinctUntilChanged(),
+      switchMap(prefix => prefix.trim() ? this.reviewService.searchFlights(prefix) : of([]))
+    ).subscribe({
       next: (flights) => {
         this.flights = flights;
       },
-      error: (err) => console.error('Error loading flights:', err)
+      error: (err) => console.error('Error searching flights:', err)
     });
   }
 
-  onFlightChange() {
-    if (this.form.flightNumber) {
-      this.selectedFlight = this.flights.find(f => f.flightNumber === this.form.flightNumber) || null;
-    } else {
-      this.selectedFlight = null;
-    }
+  ngOnDestroy() {
+    this.subscription?.unsubscribe();
+  }
+
+  onFlightQuery() {
+    this.selectedFlight = null;
+    this.form.flightNumber = '';
+    this.form.flightDate = '';
+    this.queries.next(this.flightQuery);
+  }
+
+  selectFlight(flight: Flight) {
+    this.selectedFlight = flight;
+    this.form.flightNumber = flight.flightNumber;
+    this.form.flightDate = flight.flightDate;
+    this.flightQuery = `${flight.flightNumber} - ${flight.origin} to ${flight.destination} (${flight.flightDate})`;
+    this.flights = [];
   }
 
   onSubmit() {
     this.reviewService.submitReview(this.form).subscribe({
       next: () => {
         alert('Review submitted!');
-        this.form = { customerName: '', customerEmail: '', flightNumber: '', rating: 1, description: '' };
+        this.form = { customerName: '', customerEmail: '', flightNumber: '', flightDate: '', rating: 1, description: '' };
+        this.flightQuery = '';
         this.selectedFlight = null;
       },
       error: (err) => console.error(err)
@@ -0,0 +1,76 @@
+-- Date filter plans: CAST(submitted_at AS date) = day vs a half-open submitted_at range.
+-- Run against a migrated scratch database (never production), e.g. for 1M rows:
+--   psql -d flight_reviews -v rows=1000000 -f infra/bench/review_date_range.sql
+-- The "after" plans must be Index Scans on idx_review_state_submitted_at_id and
+-- idx_review_company_submitted_at_id with both submitted_at bounds as Index Cond.
+
+\timing on
+
+INSERT INTO review (id, customer_name, customer_email, flight_number, rating, description, submitted_at, state, company_name)
+SELECT gen_random_uuid(),
+       'bench',
+       'bench@example.com',
+       (ARRAY['AF123', 'LH101', 'BA111', 'KL666', 'EK999'])[1 + g % 5],
+       1 + g % 5,
+       'bench review ' || g,
+       now() - (g % 730) * interval '1 day' - (g % 86400) * interval '1 second',
+       (ARRAY['PUBLISHED', 'SUBMITTED', 'REJECTED'])[1 + g % 3],
+       (ARRAY['Air France', 'Lufthansa', 'British Airways', 'KLM', 'Emirates'])[1 + (g / 7) % 5]
+FROM generate_series(1, :rows) AS g;
+
+ANALYZE review;
+
+-- before: public listing, one day
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM review r
+WHERE r.state = 'PUBLISHED' AND CAST(r.submitted_at AS date) = current_date - 10
+ORDER BY r.submitted_at DESC
+LIMIT 10;
+
+-- after: the same day as [midnight, next midnight) in Europe/Paris
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM review r
+WHERE r.state = 'PUBLISHED'
+  AND r.submitted_at >= (current_date - 10)::timestamp AT TIME ZONE 'Europe/Paris'
+  AND r.submitted_at < (current_date - 9)::timestamp AT TIME ZONE 'Europe/Paris'
+ORDER BY r.submitted_at DESC
+LIMIT 10;
+
+-- before: backoffice listing, one day
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM review r
+WHERE r.company_name = 'Air France' AND CAST(r.submitted_at AS date) = current_date - 10;
+
+-- after: backoffice listing, one week (from/to are inclusive days)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM review r
+WHERE r.company_name = 'Air France'
+  AND r.submitted_at >= (current_date - 16)::timestamp AT TIME ZONE 'Europe/Paris'
+  AND r.submitted_at < (current_date - 9)::timestamp AT TIME ZONE 'Europe/Paris';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM review r
+WHERE r.company_name = 'Air France'
+  AND r.submitted_at >= (current_date - 16)::timestamp AT TIME ZONE 'Europe/Paris'
+  AND r.submitted_at < (current_date - 9)::timestamp AT TIME ZONE 'Europe/Paris'
+ORDER BY r.submitted_at DESC, r.id
+LIMIT 20;
+
+-- the repositories' form: optional bounds as (cast($n as timestamptz) is null or submitted_at >= $n).
+-- With a bound set, the custom plan folds the null check and keeps the range as Index Cond;
+-- PostgreSQL keeps choosing custom plans over the generic one (a Filter-only plan) for this query
+PREPARE public_page(text, timestamptz, timestamptz, int) AS
+SELECT r.id FROM review r
+WHERE r.state = $1
+  AND (cast($2 AS timestamp(6) with time zone) IS NULL OR r.submitted_at >= $2)
+  AND (cast($3 AS timestamp(6) with time zone) IS NULL OR r.submitted_at < $3)
+ORDER BY r.submitted_at DESC, r.id
+FETCH FIRST $4 ROWS ONLY;
+
+EXPLAIN (ANALYZE, BUFFERS)
+EXECUTE public_page('PUBLISHED', (current_date - 10)::timestamp AT TIME ZONE 'Europe/Paris',
+                    (current_date - 9)::timestamp AT TIME ZONE 'Europe/Paris', 11);
+
+DEALLOCATE public_page;
+
+DELETE FROM review WHERE customer_name = 'bench' AND customer_email = 'bench@example.com';
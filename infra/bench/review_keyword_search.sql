@@ -0,0 +1,39 @@
+-- Keyword search benchmark: LIKE scan vs full-text search on idx_review_description_fts.
+-- Run against a migrated scratch database (never production), e.g. for 1M and 10M rows:
+--   psql -d flight_reviews -v rows=1000000 -f infra/bench/review_keyword_search.sql
+
+\timing on
+
+INSERT INTO review (id, customer_name, customer_email, flight_number, rating, description, submitted_at, state, company_name)
+SELECT gen_random_uuid(),
+       'bench',
+       'bench@example.com',
+       (ARRAY['AF123', 'LH101', 'BA111', 'KL666', 'EK999'])[1 + g % 5],
+       1 + g % 5,
+       (ARRAY['great crew', 'late departure', 'lost luggage', 'tasty food', 'cramped seats'])[1 + g % 5]
+           || ' ' || md5(g::text) || ' ' ||
+       (ARRAY['friendly staff', 'cold meal', 'smooth landing', 'long queue', 'clean cabin'])[1 + (g / 5) % 5],
+       now() - (g % 365) * interval '1 day',
+       'PUBLISHED',
+       'Air France'
+FROM generate_series(1, :rows) AS g;
+
+ANALYZE review;
+
+-- before: what the repositories used to run
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM review r
+WHERE r.state = 'PUBLISHED' AND r.description LIKE '%luggage%'
+ORDER BY r.submitted_at DESC
+LIMIT 10;
+
+-- after: the SQL rendered for fts_match / fts_rank
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM review r
+WHERE r.state = 'PUBLISHED'
+  AND (to_tsvector('simple', coalesce(r.description, '')) @@ websearch_to_tsquery('simple', cast('luggage' as text))) = true
+ORDER BY ts_rank(to_tsvector('simple', coalesce(r.description, '')), websearch_to_tsquery('simple', cast('luggage' as text))) DESC,
+         r.submitted_at DESC
+LIMIT 10;
+
+DELETE FROM review WHERE customer_name = 'bench' AND customer_email = 'bench@example.com';
@@ -0,0 +1,39 @@
+// k6 load test for GET /api/v1/reviews (public listing).
+// Closed model: CLIENTS virtual users, each sending requests back to back. The summary reports
+// requests/sec (http_reqs) and p99 latency (http_req_duration).
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e CLIENTS=5000 infra/loadtest/public-reviews.js
+//
+// Compare modes by restarting review-api with SPRING_THREADS_VIRTUAL_ENABLED=true / false.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const CLIENTS = parseInt(__ENV.CLIENTS || '5000', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+  scenarios: {
+    public_reviews: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: CLIENTS },
+        { duration: DURATION, target: CLIENTS },
+        { duration: '10s', target: 0 },
+      ],
+      gracefulRampDown: '5s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(99)<1000'],
+  },
+};
+
+export default function () {
+  const page = Math.floor(Math.random() * 10);
+  const res = http.get(`${BASE_URL}/api/v1/reviews?page=${page}&size=10`);
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,3 @@
+#!/bin/bash
+# Runs once on a fresh primary volume: lets the replica container stream WAL with the postgres user
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
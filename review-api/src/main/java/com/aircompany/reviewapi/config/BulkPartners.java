@@ -0,0 +1,51 @@
+package com.aircompany.reviewapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Partners allowed to call the bulk import, one API key each (reviews.bulk.partner-keys.<partner>=<key>).
+// Keys are compared as SHA-256 digests in constant time; with none configured every call is refused.
+@Component
+@ConfigurationProperties("reviews.bulk")
+public class BulkPartners {
+
+    private Map<String, String> partnerKeys = new HashMap<>();
+
+    public Map<String, String> getPartnerKeys() {
+        return partnerKeys;
+    }
+
+    public void setPartnerKeys(Map<String, String> partnerKeys) {
+        this.partnerKeys = partnerKeys;
+    }
+
+    public Optional<String> partnerFor(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] digest = sha256(apiKey);
+        String partner = null;
+        // every key is compared, so the response time does not tell which partner came close
+        for (Map.Entry<String, String> entry : partnerKeys.entrySet()) {
+            if (!entry.getValue().isEmpty() && MessageDigest.isEqual(digest, sha256(entry.getValue()))) {
+                partner = entry.getKey();
+            }
+        }
+        return Optional.ofNullable(partner);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
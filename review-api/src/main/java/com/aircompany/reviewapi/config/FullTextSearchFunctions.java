@@ -0,0 +1,28 @@
+package com.aircompany.reviewapi.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+// JPQL access to PostgreSQL full-text search. The rendered to_tsvector(...) expression must stay
+// identical to the one indexed by idx_review_description_fts, otherwise the GIN index is not used.
+public class FullTextSearchFunctions implements FunctionContributor {
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, ''))";
+    // explicit cast: Hibernate binds a null query parameter without a usable type
+    private static final String QUERY = "websearch_to_tsquery('simple', cast(?2 as text))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        functionContributions.getFunctionRegistry()
+                .registerPattern("fts_match", "(" + DOCUMENT + " @@ " + QUERY + ")", booleanType);
+        functionContributions.getFunctionRegistry()
+                .registerPattern("fts_rank", "ts_rank(" + DOCUMENT + ", " + QUERY + ")", doubleType);
+    }
+}
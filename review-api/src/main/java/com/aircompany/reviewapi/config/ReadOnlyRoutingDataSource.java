@@ -0,0 +1,17 @@
+package com.aircompany.reviewapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Picks the replica for connections opened inside a @Transactional(readOnly = true) method and
+// the primary otherwise. Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+// asks for a connection before it marks the transaction read-only.
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
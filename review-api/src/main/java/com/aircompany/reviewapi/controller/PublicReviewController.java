@@ -1,21 +1,39 @@
 package com.aircompany.reviewapi.controller;
 
+import com.aircompany.reviewapi.dto.CursorPage;
+import com.aircompany.reviewapi.dto.PublicReviewDto;
+import com.aircompany.reviewapi.dto.PublicReviewRow;
+import com.aircompany.reviewapi.dto.ReviewCursor;
 import com.aircompany.reviewapi.dto.ReviewSubmissionDto;
+import com.aircompany.reviewapi.dto.SubmittedAtRange;
 import com.aircompany.reviewapi.model.Flight;
 import com.aircompany.reviewapi.model.Review;
 import com.aircompany.reviewapi.model.ReviewState;
 import com.aircompany.reviewapi.repository.ReviewRepository;
+import com.aircompany.reviewapi.service.ContentVersions;
+import com.aircompany.reviewapi.service.FlightSearchIndex;
 import com.aircompany.reviewapi.service.FlightService;
+import com.aircompany.reviewapi.service.PublicListingCache;
 import com.aircompany.reviewapi.service.ReviewService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/reviews")
@@ -24,11 +42,24 @@ public class PublicReviewController {
     private final ReviewService reviewService;
     private final ReviewRepository reviewRepository;
     private final FlightService flightService;
+    private final FlightSearchIndex flightSearchIndex;
+    private final ContentVersions contentVersions;
+    private final PublicListingCache listingCache;
+    private final String cacheControl;
+    private final ZoneId timeZone;
 
-    public PublicReviewController(ReviewService reviewService, ReviewRepository reviewRepository, FlightService flightService) {
+    public PublicReviewController(ReviewService reviewService, ReviewRepository reviewRepository, FlightService flightService,
+                                  FlightSearchIndex flightSearchIndex, ContentVersions contentVersions, PublicListingCache listingCache,
+                                  @Value("${reviews.http-cache.cache-control:public, max-age=0, s-maxage=60}") String cacheControl,
+                                  @Value("${reviews.time-zone:UTC}") ZoneId timeZone) {
         this.reviewService = reviewService;
         this.reviewRepository = reviewRepository;
         this.flightService = flightService;
+        this.flightSearchIndex = flightSearchIndex;
+        this.contentVersions = contentVersions;
+        this.listingCache = listingCache;
+        this.cacheControl = cacheControl;
+        this.timeZone = timeZone;
     }
 
     @PostMapping
@@ -37,15 +68,38 @@ public class PublicReviewController {
         return ResponseEntity.status(201).body(Map.of("id", r.getId()));
     }
 
+    // Served from the response cache while the published reviews and flights are unchanged.
+    // Date filter: date=2024-01-15, or from/to as inclusive days; days are taken in tz (an IANA
+    // zone id, reviews.time-zone by default)
     @GetMapping
-    public Page<?> getPublicReviews(
+    public ResponseEntity<byte[]> getPublicReviews(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "submittedAt,desc") String sort,
             @RequestParam(required = false) String flightNumber,
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String date
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String tz,
+            ServletWebRequest request
     ) {
+        Optional<ContentVersions.Validators> validators =
+                contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS);
+        if (notModified(request, validators)) {
+            return null;
+        }
+        SubmittedAtRange submitted = SubmittedAtRange.of(date, from, to, tz, timeZone);
+        // versions unknown until the first poll: render without caching
+        PublicListingCache.Key key = validators
+                .map(v -> new PublicListingCache.Key(v.etag(), page, size, sort, flightNumber, keyword, submitted))
+                .orElse(null);
+        byte[] json = listingCache.get(key, () -> findPublicReviews(page, size, sort, flightNumber, keyword, submitted));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    private Page<PublicReviewDto> findPublicReviews(int page, int size, String sort, String flightNumber, String keyword,
+                                                    SubmittedAtRange submitted) {
         Sort sortObj = Sort.by(Sort.Order.desc("submittedAt"));
         if (sort != null && !sort.isBlank()) {
             // simple parsing e.g. "submittedAt,desc"
@@ -56,49 +110,133 @@ public class PublicReviewController {
         }
         Pageable p = PageRequest.of(page, size, sortObj);
         // only published reviews for public endpoint with optional filters
-        LocalDate dateFilter = null;
-        if (date != null && !date.isBlank()) {
+        Page<PublicReviewRow> pageRes;
+        if (keyword != null && !keyword.isBlank()) {
+            // full-text search, most relevant first
+            pageRes = reviewRepository.searchByStateAndFilters(
+                ReviewState.PUBLISHED, 
+                keyword, 
+                flightNumber, 
+                submitted.from(),
+                submitted.to(),
+                p
+            );
+        } else {
+            pageRes = reviewRepository.findByStateAndFilters(
+                ReviewState.PUBLISHED, 
+                flightNumber, 
+                null, 
+                submitted.from(),
+                submitted.to(),
+                p
+            );
+        }
+        Map<UUID, Flight> flights = resolveFlights(pageRes.getContent());
+        return pageRes.map(r -> toPublicView(r, flights));
+    }
+
+    // Keyset mode: ?cursor= (empty) for the first page, then the returned nextCursor; skips the count query
+    @GetMapping(params = "cursor")
+    public CursorPage<PublicReviewDto> getPublicReviewsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String flightNumber,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String tz,
+            ServletWebRequest request
+    ) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        }
+        if (notModified(request, contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS))) {
+            return null;
+        }
+        // fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        SubmittedAtRange submitted = SubmittedAtRange.of(date, from, to, tz, timeZone);
+        if (keyword != null && keyword.isBlank()) {
+            keyword = null;
+        }
+        List<PublicReviewRow> reviews;
+        if (cursor.isBlank()) {
+            reviews = reviewRepository.findFirstByStateAndFilters(
+                    ReviewState.PUBLISHED, flightNumber, keyword, submitted.from(), submitted.to(), limit);
+        } else {
+            ReviewCursor after;
             try {
-                dateFilter = LocalDate.parse(date);
-            } catch (Exception e) {
-                // ignore invalid date format
+                after = ReviewCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
             }
+            reviews = reviewRepository.findNextByStateAndFilters(
+                    ReviewState.PUBLISHED, flightNumber, keyword, submitted.from(), submitted.to(),
+                    after.submittedAt(), after.id(), limit);
         }
-        Page<Review> pageRes = reviewRepository.findByStateAndFilters(
-            ReviewState.PUBLISHED, 
-            flightNumber, 
-            keyword, 
-            dateFilter, 
-            p
-        );
-        // map to public view (no customer information for privacy)
-        Page<Object> publicPage = pageRes.map(r -> {
-            Map<String, Object> reviewMap = new HashMap<>();
-            reviewMap.put("id", r.getId());
-            reviewMap.put("rating", r.getRating());
-            reviewMap.put("description", r.getDescription());
-            reviewMap.put("submittedAt", r.getSubmittedAt());
-            reviewMap.put("companyResponse", r.getResponseText());
-            
-            // Get flight information if available
-            if (r.getFlightNumber() != null) {
-                Flight flight = flightService.getFlightByFlightNumber(r.getFlightNumber());
-                if (flight != null) {
-                    reviewMap.put("flightNumber", flight.getFlightNumber());
-                    reviewMap.put("origin", flight.getOrigin());
-                    reviewMap.put("destination", flight.getDestination());
-                    reviewMap.put("flightDate", flight.getFlightDate());
-                }
-            }
-            
-            return reviewMap;
-        });
-        return publicPage;
+
+        String nextCursor = null;
+        if (reviews.size() > size) {
+            reviews = reviews.subList(0, size);
+            PublicReviewRow last = reviews.get(size - 1);
+            nextCursor = new ReviewCursor(last.submittedAt(), last.id()).encode();
+        }
+        Map<UUID, Flight> flights = resolveFlights(reviews);
+        List<PublicReviewDto> content = new ArrayList<>(reviews.size());
+        for (PublicReviewRow r : reviews) {
+            content.add(toPublicView(r, flights));
+        }
+        return new CursorPage<>(content, size, nextCursor);
     }
 
     @GetMapping("/flights")
-    public ResponseEntity<List<Flight>> getAllFlights() {
+    public ResponseEntity<List<Flight>> getAllFlights(ServletWebRequest request) {
+        if (notModified(request, contentVersions.validators(ContentVersions.FLIGHTS))) {
+            return null;
+        }
         List<Flight> flights = flightService.getAllFlights();
         return ResponseEntity.ok(flights);
     }
+
+    // Flight picker of the review form: the first flights whose number or airport starts with prefix.
+    // Served from memory without a query, so not worth a conditional GET
+    @GetMapping("/flights/search")
+    public List<Flight> searchFlights(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "prefix must not be blank");
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return flightSearchIndex.search(prefix, limit);
+    }
+
+    // 304 straight from the in-memory content versions when the client (or CDN) copy is current;
+    // otherwise sets ETag, Last-Modified and Cache-Control on the response about to be built
+    private boolean notModified(ServletWebRequest request, Optional<ContentVersions.Validators> validators) {
+        return validators
+                .map(v -> {
+                    request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                    return request.checkNotModified(v.etag(), v.lastModified());
+                })
+                .orElse(false);
+    }
+
+    // resolve all flights of the page in one query instead of one lookup per review
+    private Map<UUID, Flight> resolveFlights(List<PublicReviewRow> reviews) {
+        Set<UUID> flightIds = new HashSet<>();
+        for (PublicReviewRow r : reviews) {
+            if (r.flightId() != null) {
+                flightIds.add(r.flightId());
+            }
+        }
+        return flightService.getFlightsByIds(flightIds);
+    }
+
+    // public view only (no customer information for privacy)
+    private PublicReviewDto toPublicView(PublicReviewRow r, Map<UUID, Flight> flights) {
+        Flight flight = r.flightId() != null ? flights.get(r.flightId()) : null;
+        return PublicReviewDto.of(r, flight);
+    }
 }
@@ -0,0 +1,29 @@
+package com.aircompany.reviewapi.controller;
+
+import com.aircompany.reviewapi.dto.RatingStats;
+import com.aircompany.reviewapi.model.ReviewState;
+import com.aircompany.reviewapi.repository.RatingStatsRepository;
+import org.springframework.web.bind.annotation.*;
+
+// Public rating aggregates, computed over published reviews only
+@RestController
+@RequestMapping("/api/v1/reviews/stats")
+@CrossOrigin(origins = "http://localhost:4200")
+public class RatingStatsController {
+
+    private final RatingStatsRepository ratingStatsRepository;
+
+    public RatingStatsController(RatingStatsRepository ratingStatsRepository) {
+        this.ratingStatsRepository = ratingStatsRepository;
+    }
+
+    @GetMapping("/flights/{flightNumber}")
+    public RatingStats getFlightStats(@PathVariable String flightNumber) {
+        return ratingStatsRepository.findFlightStats(flightNumber, ReviewState.PUBLISHED);
+    }
+
+    @GetMapping("/companies/{companyName}")
+    public RatingStats getCompanyStats(@PathVariable String companyName) {
+        return ratingStatsRepository.findCompanyStats(companyName, ReviewState.PUBLISHED);
+    }
+}
@@ -0,0 +1,48 @@
+package com.aircompany.reviewapi.controller;
+
+import com.aircompany.reviewapi.config.BulkPartners;
+import com.aircompany.reviewapi.dto.BulkImportResult;
+import com.aircompany.reviewapi.service.ReviewBulkImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Semaphore;
+
+// Server-to-server only (no CORS): partners authenticate with their X-Api-Key
+@RestController
+@RequestMapping("/api/v1/reviews/bulk")
+public class ReviewBulkController {
+    private final ReviewBulkImportService bulkImportService;
+    private final BulkPartners bulkPartners;
+    // each import holds a request thread and a connection per chunk: extra ones are refused, not queued
+    private final Semaphore imports;
+
+    public ReviewBulkController(ReviewBulkImportService bulkImportService,
+                                BulkPartners bulkPartners,
+                                @Value("${reviews.bulk.max-concurrent-imports:2}") int maxConcurrentImports) {
+        this.bulkImportService = bulkImportService;
+        this.bulkPartners = bulkPartners;
+        this.imports = new Semaphore(maxConcurrentImports);
+    }
+
+    // Partner feeds: a JSON array or NDJSON stream of ReviewSubmissionDto plus externalId, read as it arrives
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportResult importReviews(@RequestHeader(value = "X-Api-Key", required = false) String apiKey,
+                                          InputStream body) throws IOException {
+        String partner = bulkPartners.partnerFor(apiKey)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unknown partner API key"));
+        if (!imports.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many imports running, retry later");
+        }
+        try {
+            return bulkImportService.importReviews(partner, body);
+        } finally {
+            imports.release();
+        }
+    }
+}
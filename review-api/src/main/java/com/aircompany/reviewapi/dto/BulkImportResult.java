@@ -0,0 +1,12 @@
+package com.aircompany.reviewapi.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import; rows are numbered from 0 in input order. Only the first
+// reviews.bulk.max-reported-errors errors are listed, rejected counts all of them.
+// duplicates counts the rows whose externalId the partner had already imported.
+public record BulkImportResult(long accepted, long rejected, long duplicates, List<RowError> errors) {
+
+    public record RowError(long row, List<String> messages) {
+    }
+}
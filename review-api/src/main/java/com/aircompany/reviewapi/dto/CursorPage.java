@@ -0,0 +1,7 @@
+package com.aircompany.reviewapi.dto;
+
+import java.util.List;
+
+// Keyset page: no total count, nextCursor is null on the last page
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+}
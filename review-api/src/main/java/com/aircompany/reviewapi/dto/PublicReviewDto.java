@@ -0,0 +1,30 @@
+package com.aircompany.reviewapi.dto;
+
+import com.aircompany.reviewapi.model.Flight;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Review as shown on the public site; flight fields are omitted when the flight is unknown
+public record PublicReviewDto(UUID id,
+                              Integer rating,
+                              String description,
+                              OffsetDateTime submittedAt,
+                              String companyResponse,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String flightNumber,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String origin,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String destination,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) LocalDate flightDate) {
+
+    public static PublicReviewDto of(PublicReviewRow row, Flight flight) {
+        if (flight == null) {
+            return new PublicReviewDto(row.id(), row.rating(), row.description(), row.submittedAt(),
+                    row.responseText(), null, null, null, null);
+        }
+        return new PublicReviewDto(row.id(), row.rating(), row.description(), row.submittedAt(),
+                row.responseText(), flight.getFlightNumber(), flight.getOrigin(), flight.getDestination(),
+                flight.getFlightDate());
+    }
+}
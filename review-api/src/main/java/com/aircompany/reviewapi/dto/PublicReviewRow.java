@@ -0,0 +1,14 @@
+package com.aircompany.reviewapi.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Public columns of a published review, selected by constructor expression (no entity, no customer data)
+public record PublicReviewRow(UUID id,
+                              Integer rating,
+                              String description,
+                              OffsetDateTime submittedAt,
+                              String responseText,
+                              String flightNumber,
+                              UUID flightId) {
+}
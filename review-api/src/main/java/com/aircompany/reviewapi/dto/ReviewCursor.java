@@ -0,0 +1,31 @@
+package com.aircompany.reviewapi.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+// Opaque position in the (submittedAt DESC, id ASC) ordering of the public listing
+public record ReviewCursor(OffsetDateTime submittedAt, UUID id) {
+
+    public String encode() {
+        String raw = submittedAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            OffsetDateTime submittedAt = OffsetDateTime.ofInstant(Instant.parse(parts[0]), ZoneOffset.UTC);
+            return new ReviewCursor(submittedAt, UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.aircompany.reviewapi.dto;
 
 import jakarta.validation.constraints.*;
+import java.time.LocalDate;
 import java.util.UUID;
 
 public class ReviewSubmissionDto {
@@ -14,6 +15,10 @@ public class ReviewSubmissionDto {
     @NotBlank
     private String flightNumber;
 
+    // with the number, picks the flight row: schedules repeat a number on many dates
+    @NotNull
+    private LocalDate flightDate;
+
     @Min(1)
     @Max(5)
     private Integer rating;
@@ -45,6 +50,14 @@ public class ReviewSubmissionDto {
         this.flightNumber = flightNumber;
     }
 
+    public @NotNull LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public void setFlightDate(@NotNull LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+
     public @Min(1) @Max(5) Integer getRating() {
         return rating;
     }
@@ -0,0 +1,36 @@
+package com.aircompany.reviewapi.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "content_version")
+public class ContentVersion {
+    @Id
+    private String name;
+
+    private long version;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public ContentVersion() {}
+
+    public ContentVersion(String name, long version, OffsetDateTime updatedAt) {
+        this.name = name;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
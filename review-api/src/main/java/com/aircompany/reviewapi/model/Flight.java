@@ -26,6 +26,10 @@ public class Flight {
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
+    // set by the database on every write (V12__flight_updated_at.sql)
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private OffsetDateTime updatedAt;
+
     public Flight() {}
 
     public UUID getId() {
@@ -83,4 +87,12 @@ public class Flight {
     public void setCreatedAt(OffsetDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -13,6 +13,7 @@ public class Review {
     private String customerName;
     private String customerEmail;
     private String flightNumber;
+    private UUID flightId;
     private String companyName;
     private Integer rating;
 
@@ -29,6 +30,10 @@ public class Review {
 
     private OffsetDateTime responseAt;
 
+    // set by bulk imports only: the partner and its own id for the review
+    private String sourcePartner;
+    private String externalId;
+
     public Review() {}
 
     public String getCustomerName() {
@@ -55,6 +60,14 @@ public class Review {
         this.flightNumber = flightNumber;
     }
 
+    public UUID getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(UUID flightId) {
+        this.flightId = flightId;
+    }
+
     public String getCompanyName() {
         return companyName;
     }
@@ -120,4 +133,20 @@ public class Review {
         this.id = id;
     }
 
+    public String getSourcePartner() {
+        return sourcePartner;
+    }
+
+    public void setSourcePartner(String sourcePartner) {
+        this.sourcePartner = sourcePartner;
+    }
+
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
 }
@@ -0,0 +1,7 @@
+package com.aircompany.reviewapi.repository;
+
+import com.aircompany.reviewapi.model.ContentVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ContentVersionRepository extends JpaRepository<ContentVersion, String> {
+}
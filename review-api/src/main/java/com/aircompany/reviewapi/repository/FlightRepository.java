@@ -2,13 +2,36 @@ package com.aircompany.reviewapi.repository;
 
 import com.aircompany.reviewapi.model.Flight;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, UUID> {
+    @Transactional(readOnly = true)
     List<Flight> findByCompanyName(String companyName);
-    Flight findByFlightNumber(String flightNumber);
+
+    // both on idx_flight_number_date
+    @Transactional(readOnly = true)
+    Flight findByFlightNumberAndFlightDate(String flightNumber, LocalDate flightDate);
+
+    // exactly the (flightNumbers[i], flightDates[i]) pairs, zipped by unnest: one probe of
+    // idx_flight_number_date per pair instead of every combination of the two lists
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT f.* FROM unnest(CAST(:flightNumbers AS varchar[]), CAST(:flightDates AS date[])) " +
+            "AS k(flight_number, flight_date) " +
+            "JOIN flight f ON f.flight_number = k.flight_number AND f.flight_date = k.flight_date",
+            nativeQuery = true)
+    List<Flight> findByFlightNumberAndFlightDatePairs(@Param("flightNumbers") String[] flightNumbers,
+                                                      @Param("flightDates") LocalDate[] flightDates);
+
+    // rows written since the given instant, on idx_flight_updated_at (change feed of the search index)
+    @Transactional(readOnly = true)
+    List<Flight> findByUpdatedAtAfter(OffsetDateTime since);
 }
@@ -0,0 +1,24 @@
+package com.aircompany.reviewapi.repository;
+
+import com.aircompany.reviewapi.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest pending events, row-locked for the current transaction; rows locked by another
+    // relay instance are skipped instead of waited on
+    @Query(value = "SELECT * FROM outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    // Copies an event the relay cannot publish to outbox_dead_letter; the caller deletes it from the outbox
+    @Modifying
+    @Query(value = "INSERT INTO outbox_dead_letter (id, aggregate_id, event_type, payload, created_at, error) " +
+            "SELECT id, aggregate_id, event_type, payload, created_at, :error FROM outbox WHERE id = :id " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyToDeadLetter(@Param("id") long id, @Param("error") String error);
+}
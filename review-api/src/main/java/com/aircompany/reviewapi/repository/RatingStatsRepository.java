@@ -0,0 +1,53 @@
+package com.aircompany.reviewapi.repository;
+
+import com.aircompany.reviewapi.dto.RatingStats;
+import com.aircompany.reviewapi.model.ReviewState;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Read side of the rating aggregates maintained by the back office (see V5__rating_stats.sql):
+// a primary-key lookup, no scan of review
+@Repository
+public class RatingStatsRepository {
+
+    private static final String COUNTERS =
+            "SELECT review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5 ";
+
+    private static final RowMapper<RatingStats> RATING_STATS = (rs, rowNum) -> RatingStats.of(
+            rs.getLong("review_count"),
+            rs.getLong("rating_sum"),
+            new long[] {rs.getLong("rating_1"), rs.getLong("rating_2"), rs.getLong("rating_3"),
+                    rs.getLong("rating_4"), rs.getLong("rating_5")});
+
+    private static final RatingStats EMPTY = RatingStats.of(0, 0, new long[5]);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RatingStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public RatingStats findFlightStats(String flightNumber, ReviewState state) {
+        return find(COUNTERS + "FROM flight_rating_stats WHERE flight_number = :name AND state = :state",
+                flightNumber, state);
+    }
+
+    @Transactional(readOnly = true)
+    public RatingStats findCompanyStats(String companyName, ReviewState state) {
+        return find(COUNTERS + "FROM company_rating_stats WHERE company_name = :name AND state = :state",
+                companyName, state);
+    }
+
+    private RatingStats find(String sql, String name, ReviewState state) {
+        return jdbcTemplate.query(sql,
+                        new MapSqlParameterSource("name", name).addValue("state", state.name()),
+                        RATING_STATS)
+                .stream()
+                .findFirst()
+                .orElse(EMPTY);
+    }
+}
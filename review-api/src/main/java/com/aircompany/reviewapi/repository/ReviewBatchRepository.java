@@ -0,0 +1,70 @@
+package com.aircompany.reviewapi.repository;
+
+import com.aircompany.reviewapi.model.OutboxEvent;
+import com.aircompany.reviewapi.model.Review;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// JDBC batch inserts for bulk imports. Review ids are assigned in code, so saveAll would issue
+// a SELECT per row, and the IDENTITY outbox id disables Hibernate batching altogether.
+// With reWriteBatchedInserts=true on the JDBC URL each batch is sent as multi-row INSERTs.
+@Repository
+public class ReviewBatchRepository {
+
+    private static final String INSERT_REVIEW =
+            "INSERT INTO review (id, customer_name, customer_email, flight_number, flight_id, company_name, rating, " +
+            "description, submitted_at, state, response_text, response_at, source_partner, external_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, ?, ?)";
+
+    private static final String INSERT_OUTBOX =
+            "INSERT INTO outbox (aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReviewBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertReviews(List<Review> reviews) {
+        jdbcTemplate.batchUpdate(INSERT_REVIEW, reviews, reviews.size(), (ps, r) -> {
+            ps.setObject(1, r.getId());
+            ps.setString(2, r.getCustomerName());
+            ps.setString(3, r.getCustomerEmail());
+            ps.setString(4, r.getFlightNumber());
+            ps.setObject(5, r.getFlightId());
+            ps.setString(6, r.getCompanyName());
+            ps.setObject(7, r.getRating());
+            ps.setString(8, r.getDescription());
+            ps.setObject(9, r.getSubmittedAt());
+            ps.setString(10, r.getState().name());
+            ps.setString(11, r.getSourcePartner());
+            ps.setString(12, r.getExternalId());
+        });
+    }
+
+    // Holds until commit, so the chunks of concurrent imports from one partner cannot both
+    // insert the same external id
+    public void lockPartner(String partner) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> {}, "review.bulk:" + partner);
+    }
+
+    public Set<String> findImportedExternalIds(String partner, Collection<String> externalIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT external_id FROM review WHERE source_partner = ? AND external_id = ANY(?)",
+                String.class, partner, externalIds.toArray(String[]::new)));
+    }
+
+    public void insertOutboxEvents(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, events, events.size(), (ps, e) -> {
+            ps.setObject(1, e.getAggregateId());
+            ps.setString(2, e.getEventType());
+            ps.setString(3, e.getPayload());
+            ps.setObject(4, e.getCreatedAt());
+        });
+    }
+}
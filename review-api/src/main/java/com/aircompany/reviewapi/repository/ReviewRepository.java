@@ -1,5 +1,6 @@
 package com.aircompany.reviewapi.repository;
 
+import com.aircompany.reviewapi.dto.PublicReviewRow;
 import com.aircompany.reviewapi.model.Review;
 import com.aircompany.reviewapi.model.ReviewState;
 import org.springframework.data.domain.Page;
@@ -7,20 +8,89 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
+    // Public listing queries select only the public columns into PublicReviewRow, in read-only
+    // transactions (on the read replica when one is configured). Dates filter on a [from, to)
+    // range of submittedAt (see SubmittedAtRange) so idx_review_state_submitted_at_id is usable
+    String PUBLIC_COLUMNS = "SELECT new com.aircompany.reviewapi.dto.PublicReviewRow(" +
+            "r.id, r.rating, r.description, r.submittedAt, r.responseText, r.flightNumber, r.flightId) ";
+
     Page<Review> findByState(ReviewState state, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.state = :state AND " +
+    @Transactional(readOnly = true)
+    @Query(value = PUBLIC_COLUMNS + "FROM Review r WHERE r.state = :state AND " +
+           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
+           "(CAST(:keyword AS String) IS NULL OR fts_match(r.description, :keyword) = true) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to)",
+           countQuery = "SELECT count(r) FROM Review r WHERE r.state = :state AND " +
            "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
-           "(:keyword IS NULL OR r.description LIKE %:keyword%) AND " +
-           "(:date IS NULL OR CAST(r.submittedAt AS date) = :date)")
-    Page<Review> findByStateAndFilters(@Param("state") ReviewState state,
+           "(CAST(:keyword AS String) IS NULL OR fts_match(r.description, :keyword) = true) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to)")
+    Page<PublicReviewRow> findByStateAndFilters(@Param("state") ReviewState state,
                                        @Param("flightNumber") String flightNumber,
                                        @Param("keyword") String keyword,
-                                       @Param("date") LocalDate date,
+                                       @Param("from") OffsetDateTime from,
+                                       @Param("to") OffsetDateTime to,
                                        Pageable pageable);
+
+    // Keyword search ranked by relevance; the Pageable sort only breaks ties
+    @Transactional(readOnly = true)
+    @Query(value = PUBLIC_COLUMNS + "FROM Review r WHERE r.state = :state AND " +
+           "fts_match(r.description, :keyword) = true AND " +
+           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to) " +
+           "ORDER BY fts_rank(r.description, :keyword) DESC",
+           countQuery = "SELECT count(r) FROM Review r WHERE r.state = :state AND " +
+           "fts_match(r.description, :keyword) = true AND " +
+           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to)")
+    Page<PublicReviewRow> searchByStateAndFilters(@Param("state") ReviewState state,
+                                         @Param("keyword") String keyword,
+                                         @Param("flightNumber") String flightNumber,
+                                         @Param("from") OffsetDateTime from,
+                                         @Param("to") OffsetDateTime to,
+                                         Pageable pageable);
+
+    // Keyset pagination: returns List so no count query is issued, limit comes from the Pageable
+    @Transactional(readOnly = true)
+    @Query(PUBLIC_COLUMNS + "FROM Review r WHERE r.state = :state AND " +
+           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
+           "(CAST(:keyword AS String) IS NULL OR fts_match(r.description, :keyword) = true) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to) " +
+           "ORDER BY r.submittedAt DESC, r.id ASC")
+    List<PublicReviewRow> findFirstByStateAndFilters(@Param("state") ReviewState state,
+                                            @Param("flightNumber") String flightNumber,
+                                            @Param("keyword") String keyword,
+                                            @Param("from") OffsetDateTime from,
+                                            @Param("to") OffsetDateTime to,
+                                            Pageable limit);
+
+    @Transactional(readOnly = true)
+    @Query(PUBLIC_COLUMNS + "FROM Review r WHERE r.state = :state AND " +
+           "(:flightNumber IS NULL OR r.flightNumber LIKE %:flightNumber%) AND " +
+           "(CAST(:keyword AS String) IS NULL OR fts_match(r.description, :keyword) = true) AND " +
+           "(CAST(:from AS OffsetDateTime) IS NULL OR r.submittedAt >= :from) AND " +
+           "(CAST(:to AS OffsetDateTime) IS NULL OR r.submittedAt < :to) AND " +
+           // the first conjunct is the index range bound, the second drops the cursor's own ties
+           "r.submittedAt <= :submittedAt AND (r.submittedAt < :submittedAt OR r.id > :id) " +
+           "ORDER BY r.submittedAt DESC, r.id ASC")
+    List<PublicReviewRow> findNextByStateAndFilters(@Param("state") ReviewState state,
+                                           @Param("flightNumber") String flightNumber,
+                                           @Param("keyword") String keyword,
+                                           @Param("from") OffsetDateTime from,
+                                           @Param("to") OffsetDateTime to,
+                                           @Param("submittedAt") OffsetDateTime submittedAt,
+                                           @Param("id") UUID id,
+                                           Pageable limit);
 }
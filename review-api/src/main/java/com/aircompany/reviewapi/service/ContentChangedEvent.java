@@ -0,0 +1,7 @@
+package com.aircompany.reviewapi.service;
+
+import java.util.Set;
+
+// Published by ContentVersions when a poll finds new versions for the named contents
+public record ContentChangedEvent(Set<String> names) {
+}
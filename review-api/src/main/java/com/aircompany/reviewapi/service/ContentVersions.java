@@ -0,0 +1,76 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.ContentVersion;
+import com.aircompany.reviewapi.repository.ContentVersionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// In-memory copy of the content_version counters (bumped by triggers, see V6__content_version.sql),
+// so conditional GETs on public pages are answered without a query. Changes become visible
+// after at most one poll interval.
+@Component
+public class ContentVersions {
+
+    public static final String PUBLISHED_REVIEWS = "review.PUBLISHED";
+    public static final String FLIGHTS = "flight";
+
+    private final ContentVersionRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Map<String, ContentVersion> current = Map.of();
+
+    public ContentVersions(ContentVersionRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // a failed poll keeps the previous versions (the scheduler logs the error)
+    @Scheduled(fixedDelayString = "${reviews.content-version.poll-interval-ms:1000}")
+    public void refresh() {
+        Map<String, ContentVersion> previous = current;
+        Map<String, ContentVersion> polled = repository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(ContentVersion::getName, Function.identity()));
+        Set<String> changed = new HashSet<>();
+        for (ContentVersion version : polled.values()) {
+            ContentVersion before = previous.get(version.getName());
+            if (before != null && before.getVersion() != version.getVersion()) {
+                changed.add(version.getName());
+            }
+        }
+        // caches are dropped before the new ETags are served, so no page built from stale
+        // entries can be stored or validated under them
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ContentChangedEvent(Set.copyOf(changed)));
+        }
+        current = polled;
+    }
+
+    // Strong ETag and Last-Modified covering the given contents; empty until they have been loaded
+    public Optional<Validators> validators(String... names) {
+        Map<String, ContentVersion> versions = current;
+        StringBuilder etag = new StringBuilder("\"");
+        long lastModified = 0;
+        for (String name : names) {
+            ContentVersion version = versions.get(name);
+            if (version == null) {
+                return Optional.empty();
+            }
+            if (etag.length() > 1) {
+                etag.append('-');
+            }
+            etag.append(version.getVersion());
+            lastModified = Math.max(lastModified, version.getUpdatedAt().toInstant().toEpochMilli());
+        }
+        return Optional.of(new Validators(etag.append('"').toString(), lastModified));
+    }
+
+    public record Validators(String etag, long lastModified) {
+    }
+}
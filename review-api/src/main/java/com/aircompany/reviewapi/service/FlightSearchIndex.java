@@ -0,0 +1,197 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.repository.FlightRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Autocomplete of the review form: flights by prefix of their number or of an origin/destination
+// name, answered from memory. The snapshot is a sorted array of distinct terms, each pointing to
+// a slice of one int array of flights (most recent first); it is immutable and swapped as a whole.
+// After a 'flight' content version bump only the rows written since the last load are read
+@Component
+public class FlightSearchIndex {
+
+    // a write committed after the last load may carry an older now(): re-read that far back
+    private static final Duration OVERLAP = Duration.ofMinutes(5);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Flight> MOST_RECENT_FIRST = Comparator
+            .comparing(Flight::getFlightDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Flight::getFlightNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final FlightRepository flightRepository;
+    private final int maxResults;
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    private OffsetDateTime loadedUpTo;
+
+    public FlightSearchIndex(FlightRepository flightRepository,
+                             @Value("${reviews.flight-search.max-results:50}") int maxResults,
+                             MeterRegistry meterRegistry) {
+        this.flightRepository = flightRepository;
+        this.maxResults = maxResults;
+        Gauge.builder("reviews.flight.search.size", this, index -> index.snapshot.flights.length)
+                .description("Flights in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    // Up to limit flights (at most max-results) whose number, or whose origin or destination read
+    // from any of its words, starts with prefix, ignoring case and accents. Matching terms in
+    // alphabetical order, the flights of a term most recent first
+    public List<Flight> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        int wanted = Math.min(limit, maxResults);
+        if (key.isEmpty() || wanted < 1) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int term = Arrays.binarySearch(current.terms, key);
+        if (term < 0) {
+            term = -term - 1;
+        }
+        // a flight matched by several terms is listed once; the scan stops after wanted flights
+        Set<Flight> found = new LinkedHashSet<>();
+        for (; term < current.terms.length && current.terms[term].startsWith(key); term++) {
+            for (int p = current.starts[term]; p < current.starts[term + 1]; p++) {
+                found.add(current.flights[current.postings[p]]);
+                if (found.size() == wanted) {
+                    return List.copyOf(found);
+                }
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        install(flightRepository.findAll());
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.names().contains(ContentVersions.FLIGHTS)) {
+            refresh();
+        }
+    }
+
+    synchronized void refresh() {
+        if (loadedUpTo == null) {
+            load();
+            return;
+        }
+        List<Flight> written = flightRepository.findByUpdatedAtAfter(loadedUpTo.minus(OVERLAP));
+        Map<UUID, Flight> flights = new HashMap<>();
+        for (Flight flight : snapshot.flights) {
+            flights.put(flight.getId(), flight);
+        }
+        for (Flight flight : written) {
+            flights.put(flight.getId(), flight);
+        }
+        // deletes leave no row in the feed: reload everything when the count disagrees (a delete
+        // and an insert in the same poll keep the deleted flight until the next reload)
+        if (flights.size() != flightRepository.count()) {
+            load();
+        } else if (!written.isEmpty()) {
+            install(flights.values());
+        }
+    }
+
+    private void install(Collection<Flight> flights) {
+        snapshot = Snapshot.build(flights);
+        loadedUpTo = flights.stream()
+                .map(Flight::getUpdatedAt)
+                .filter(updatedAt -> updatedAt != null)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    // lower case without accents, words separated by single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // the flight number without separators ("AF 1234" as "af1234"), each airport name whole
+    // ("paris charles de gaulle") and from each of its later words ("charles de gaulle", "de gaulle", "gaulle")
+    private static Set<String> termsOf(Flight flight) {
+        Set<String> terms = new LinkedHashSet<>();
+        String number = normalize(flight.getFlightNumber()).replace(" ", "");
+        if (!number.isEmpty()) {
+            terms.add(number);
+        }
+        for (String airport : new String[] {flight.getOrigin(), flight.getDestination()}) {
+            String name = normalize(airport);
+            if (name.isEmpty()) {
+                continue;
+            }
+            terms.add(name);
+            for (int space = name.indexOf(' '); space >= 0; space = name.indexOf(' ', space + 1)) {
+                terms.add(name.substring(space + 1));
+            }
+        }
+        return terms;
+    }
+
+    // postings of terms[i] are postings[starts[i]] .. postings[starts[i + 1] - 1], indexes into flights
+    private record Snapshot(Flight[] flights, String[] terms, int[] starts, int[] postings) {
+
+        static Snapshot build(Collection<Flight> catalog) {
+            Flight[] flights = catalog.toArray(new Flight[0]);
+            Arrays.sort(flights, MOST_RECENT_FIRST);
+
+            List<Set<String>> flightTerms = new ArrayList<>(flights.length);
+            Map<String, int[]> counts = new HashMap<>();
+            int total = 0;
+            for (Flight flight : flights) {
+                Set<String> terms = termsOf(flight);
+                flightTerms.add(terms);
+                for (String term : terms) {
+                    counts.computeIfAbsent(term, t -> new int[1])[0]++;
+                }
+                total += terms.size();
+            }
+
+            String[] terms = counts.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[] starts = new int[terms.length + 1];
+            Map<String, int[]> next = new HashMap<>(terms.length * 2);
+            for (int i = 0; i < terms.length; i++) {
+                starts[i + 1] = starts[i] + counts.get(terms[i])[0];
+                next.put(terms[i], new int[] {starts[i]});
+            }
+            // flights are visited most recent first, so each slice comes out in that order
+            int[] postings = new int[total];
+            for (int f = 0; f < flights.length; f++) {
+                for (String term : flightTerms.get(f)) {
+                    postings[next.get(term)[0]++] = f;
+                }
+            }
+            return new Snapshot(flights, terms, starts, postings);
+        }
+    }
+}
@@ -3,17 +3,30 @@ package com.aircompany.reviewapi.service;
 import com.aircompany.reviewapi.model.Flight;
 import com.aircompany.reviewapi.repository.FlightRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class FlightService {
     
+    public static final String FLIGHTS_CACHE = "flights";
+
     @Autowired
     private FlightRepository flightRepository;
     
+    @Autowired
+    private CacheManager cacheManager;
+
     public List<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
@@ -25,8 +38,98 @@ public class FlightService {
     public List<Flight> getFlightsByCompanyName(String companyName) {
         return flightRepository.findByCompanyName(companyName);
     }
-    
-    public Flight getFlightByFlightNumber(String flightNumber) {
-        return flightRepository.findByFlightNumber(flightNumber);
+
+    // The flight a customer picked; null when the number does not fly on that date
+    public Flight getFlight(String flightNumber, LocalDate flightDate) {
+        Cache cache = flightCache();
+        FlightKey key = new FlightKey(flightNumber, flightDate);
+        Flight flight = cache.get(key, Flight.class);
+        if (flight == null) {
+            flight = flightRepository.findByFlightNumberAndFlightDate(flightNumber, flightDate);
+            if (flight != null) {
+                put(cache, flight);
+            }
+        }
+        return flight;
+    }
+
+    // Resolves every (number, date) pair in a single query, keyed by the pair
+    public Map<FlightKey, Flight> getFlights(Collection<FlightKey> keys) {
+        Map<FlightKey, Flight> flights = new HashMap<>();
+        Cache cache = flightCache();
+        List<FlightKey> missing = new ArrayList<>();
+        for (FlightKey key : keys) {
+            Flight flight = cache.get(key, Flight.class);
+            if (flight != null) {
+                flights.put(key, flight);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return flights;
+        }
+        String[] flightNumbers = new String[missing.size()];
+        LocalDate[] flightDates = new LocalDate[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            flightNumbers[i] = missing.get(i).flightNumber();
+            flightDates[i] = missing.get(i).flightDate();
+        }
+        for (Flight flight : flightRepository.findByFlightNumberAndFlightDatePairs(flightNumbers, flightDates)) {
+            flights.put(FlightKey.of(flight), flight);
+            put(cache, flight);
+        }
+        return flights;
+    }
+
+    // Resolves every flight id in a single IN (...) query, keyed by id
+    public Map<UUID, Flight> getFlightsByIds(Collection<UUID> ids) {
+        Map<UUID, Flight> flights = new HashMap<>();
+        Cache cache = flightCache();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            Flight flight = cache.get(id, Flight.class);
+            if (flight != null) {
+                flights.put(id, flight);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return flights;
+        }
+        for (Flight flight : flightRepository.findAllById(missing)) {
+            flights.put(flight.getId(), flight);
+            put(cache, flight);
+        }
+        return flights;
+    }
+
+    // flights are written outside this service: their triggers bump content_version 'flight'
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.names().contains(ContentVersions.FLIGHTS)) {
+            evictAllFlights();
+        }
+    }
+
+    public void evictAllFlights() {
+        flightCache().clear();
+    }
+
+    // each flight is cached under its id (listings) and its (number, date) pair (submissions)
+    private static void put(Cache cache, Flight flight) {
+        cache.put(flight.getId(), flight);
+        cache.put(FlightKey.of(flight), flight);
+    }
+
+    private Cache flightCache() {
+        return cacheManager.getCache(FLIGHTS_CACHE);
+    }
+
+    public record FlightKey(String flightNumber, LocalDate flightDate) {
+        static FlightKey of(Flight flight) {
+            return new FlightKey(flight.getFlightNumber(), flight.getFlightDate());
+        }
     }
 }
@@ -0,0 +1,117 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.OutboxEvent;
+import com.aircompany.reviewapi.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Drains the outbox to RabbitMQ. Each batch is locked with FOR UPDATE SKIP LOCKED (so several
+// instances can relay concurrently), published with confirms and deleted in the same transaction.
+// If the publish fails the transaction rolls back and the rows are retried on the next poll; a crash
+// after the confirm but before the commit republishes the batch, which the consumer tolerates.
+// A row whose payload cannot be read is moved to outbox_dead_letter and the rest of its batch relayed.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {};
+
+    private final OutboxRepository outboxRepository;
+    private final ReviewEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Counter deadLettered;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ReviewEventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${reviews.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("reviews.outbox.relayed")
+                .description("Outbox events published, confirmed and removed")
+                .register(meterRegistry);
+        this.failures = Counter.builder("reviews.outbox.failures")
+                .description("Relay batches rolled back and left for the next poll")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("reviews.outbox.dead-lettered")
+                .description("Outbox events moved to outbox_dead_letter instead of being published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            // a full batch means there is probably more backlog, keep going without waiting for the next poll
+            int count;
+            do {
+                count = relayBatch();
+            } while (count == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox batch rolled back, retried on the next poll", e);
+        }
+    }
+
+    // rows taken from the outbox: published and confirmed, or moved to outbox_dead_letter
+    private record Batch(int published, int deadLettered) {
+        int size() {
+            return published + deadLettered;
+        }
+    }
+
+    int relayBatch() {
+        // counted once the transaction has committed, a rolled-back batch is counted when it is retried
+        Batch batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> pending = outboxRepository.lockNextBatch(batchSize);
+            if (pending.isEmpty()) {
+                return new Batch(0, 0);
+            }
+            List<Map<String, Object>> events = new ArrayList<>(pending.size());
+            List<Long> ids = new ArrayList<>(pending.size());
+            for (OutboxEvent outboxEvent : pending) {
+                try {
+                    events.add(objectMapper.readValue(outboxEvent.getPayload(), EVENT_TYPE));
+                } catch (JsonProcessingException e) {
+                    log.error("Outbox event {} has an unreadable payload, moved to outbox_dead_letter",
+                            outboxEvent.getId(), e);
+                    outboxRepository.copyToDeadLetter(outboxEvent.getId(), e.getOriginalMessage());
+                }
+                ids.add(outboxEvent.getId());
+            }
+            if (!events.isEmpty()) {
+                eventPublisher.publishConfirmed(events);
+            }
+            outboxRepository.deleteAllByIdInBatch(ids);
+            return new Batch(events.size(), pending.size() - events.size());
+        });
+        if (batch == null) {
+            return 0;
+        }
+        relayed.increment(batch.published());
+        deadLettered.increment(batch.deadLettered());
+        return batch.size();
+    }
+}
@@ -0,0 +1,67 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.dto.SubmittedAtRange;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Pre-serialized JSON of public listing pages, bounded by total size in bytes. Keys include the
+// content version (ETag) the page was rendered from, so a page is never served across a publish;
+// entries of older versions are dropped as soon as the new version is polled.
+// Hit ratio under /actuator/metrics/reviews.listing.cache.hit.ratio (and cache.gets?tag=cache:reviews.listing)
+@Component
+public class PublicListingCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, byte[]> pages;
+
+    public PublicListingCache(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${reviews.listing-cache.maximum-bytes:67108864}") long maximumBytes) {
+        this.objectMapper = objectMapper;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, byte[] json) -> json.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "reviews.listing");
+        Gauge.builder("reviews.listing.cache.hit.ratio", pages, cache -> cache.stats().hitRate())
+                .description("Share of public listing requests served from the response cache")
+                .register(meterRegistry);
+    }
+
+    // concurrent misses on the same key render the page once; a null key bypasses the cache
+    public byte[] get(Key key, Supplier<Object> page) {
+        if (key == null) {
+            return toJson(page.get());
+        }
+        return pages.get(key, k -> toJson(page.get()));
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        pages.invalidateAll();
+    }
+
+    private byte[] toJson(Object page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review page", e);
+        }
+    }
+
+    // request parameters as received (the date filter as resolved instants), plus the content version
+    public record Key(String version, int page, int size, String sort, String flightNumber, String keyword,
+                      SubmittedAtRange submitted) {
+    }
+}
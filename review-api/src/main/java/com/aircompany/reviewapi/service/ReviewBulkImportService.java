@@ -0,0 +1,221 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.dto.BulkImportResult;
+import com.aircompany.reviewapi.dto.ReviewSubmissionDto;
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.OutboxEvent;
+import com.aircompany.reviewapi.model.Review;
+import com.aircompany.reviewapi.repository.ReviewBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Imports reviews from a JSON array or NDJSON stream without holding the whole body in memory:
+// rows are validated as they are read, then inserted chunk by chunk (one transaction and one JDBC
+// batch per chunk) together with their outbox events, which OutboxRelay publishes in batches.
+// Invalid rows are reported and skipped; chunks already committed stay committed. Each row carries
+// the partner's externalId, so a replayed or retried feed skips the rows already imported.
+@Service
+public class ReviewBulkImportService {
+
+    // review.external_id, see V14__review_external_id.sql
+    private static final int MAX_EXTERNAL_ID_LENGTH = 100;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final FlightService flightService;
+    private final ReviewService reviewService;
+    private final ReviewBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final long maxRows;
+
+    public ReviewBulkImportService(ObjectMapper objectMapper,
+                                   Validator validator,
+                                   FlightService flightService,
+                                   ReviewService reviewService,
+                                   ReviewBatchRepository batchRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${reviews.bulk.chunk-size:1000}") int chunkSize,
+                                   @Value("${reviews.bulk.max-reported-errors:1000}") int maxReportedErrors,
+                                   @Value("${reviews.bulk.max-rows:100000}") long maxRows) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.flightService = flightService;
+        this.reviewService = reviewService;
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRows = maxRows;
+    }
+
+    public BulkImportResult importReviews(String partner, InputStream body) throws IOException {
+        BulkImport bulkImport = new BulkImport(partner);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        // a root-level array is unwrapped; otherwise the stream is read as whitespace-separated objects
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (nodes.hasNextValue()) {
+                if (row == maxRows) {
+                    bulkImport.reject(row, List.of("Import limited to " + maxRows + " rows, send the rest in another import"));
+                    break;
+                }
+                JsonNode node = nodes.nextValue();
+                PendingRow pending = toPendingRow(row, node, bulkImport);
+                if (pending != null) {
+                    chunk.add(pending);
+                    if (chunk.size() == chunkSize) {
+                        insertChunk(chunk, bulkImport);
+                        chunk.clear();
+                    }
+                }
+                row++;
+            }
+        } catch (JsonProcessingException e) {
+            // the position of the following rows is unknown, so the import stops at the syntax error
+            bulkImport.reject(row, List.of("Malformed JSON: " + e.getOriginalMessage()));
+        }
+        insertChunk(chunk, bulkImport);
+        return bulkImport.result();
+    }
+
+    private PendingRow toPendingRow(long row, JsonNode node, BulkImport bulkImport) {
+        if (!node.isObject()) {
+            bulkImport.reject(row, List.of("Review must be a JSON object"));
+            return null;
+        }
+        // the partner's id for the row, not part of the submission itself
+        JsonNode externalId = ((ObjectNode) node).remove("externalId");
+        ReviewSubmissionDto dto;
+        try {
+            dto = objectMapper.treeToValue(node, ReviewSubmissionDto.class);
+        } catch (JsonProcessingException e) {
+            bulkImport.reject(row, List.of("Invalid review: " + e.getOriginalMessage()));
+            return null;
+        }
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<ReviewSubmissionDto> violation : validator.validate(dto)) {
+            messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (externalId == null || !externalId.isTextual() || externalId.asText().isBlank()) {
+            messages.add("externalId: must not be blank");
+        } else if (externalId.asText().length() > MAX_EXTERNAL_ID_LENGTH) {
+            messages.add("externalId: size must be at most " + MAX_EXTERNAL_ID_LENGTH);
+        }
+        if (!messages.isEmpty()) {
+            bulkImport.reject(row, messages.stream().sorted().toList());
+            return null;
+        }
+        return new PendingRow(row, externalId.asText(), dto);
+    }
+
+    private void insertChunk(List<PendingRow> chunk, BulkImport bulkImport) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        bulkImport.resolveFlights(chunk);
+        Map<String, Review> reviews = new LinkedHashMap<>();
+        Map<String, OutboxEvent> events = new HashMap<>();
+        for (PendingRow pending : chunk) {
+            Flight flight = bulkImport.flights.get(pending.flightKey());
+            if (flight == null) {
+                bulkImport.reject(pending.row(), List.of("Flight not found with number: " + pending.dto().getFlightNumber()
+                        + " on " + pending.dto().getFlightDate()));
+                continue;
+            }
+            if (reviews.containsKey(pending.externalId())) {
+                bulkImport.duplicates++;
+                continue;
+            }
+            Review review = reviewService.newReview(pending.dto(), flight);
+            review.setSourcePartner(bulkImport.partner);
+            review.setExternalId(pending.externalId());
+            reviews.put(pending.externalId(), review);
+            events.put(pending.externalId(), reviewService.newReviewEvent(review, flight));
+        }
+        if (reviews.isEmpty()) {
+            return;
+        }
+        int candidates = reviews.size();
+        // rows of earlier imports (or earlier chunks of this one) are looked up under the partner's lock
+        int inserted = transactionTemplate.execute(status -> {
+            batchRepository.lockPartner(bulkImport.partner);
+            reviews.keySet().removeAll(batchRepository.findImportedExternalIds(bulkImport.partner, Set.copyOf(reviews.keySet())));
+            if (reviews.isEmpty()) {
+                return 0;
+            }
+            batchRepository.insertReviews(List.copyOf(reviews.values()));
+            batchRepository.insertOutboxEvents(reviews.keySet().stream().map(events::get).toList());
+            return reviews.size();
+        });
+        bulkImport.accepted += inserted;
+        bulkImport.duplicates += candidates - inserted;
+    }
+
+    private record PendingRow(long row, String externalId, ReviewSubmissionDto dto) {
+        FlightService.FlightKey flightKey() {
+            return new FlightService.FlightKey(dto.getFlightNumber(), dto.getFlightDate());
+        }
+    }
+
+    // State of one import: counters, reported errors and the flights resolved so far
+    private class BulkImport {
+        private final String partner;
+        private long accepted;
+        private long rejected;
+        private long duplicates;
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        // one lookup per distinct (number, date) for the whole import; unknown flights map to null
+        private final Map<FlightService.FlightKey, Flight> flights = new HashMap<>();
+
+        BulkImport(String partner) {
+            this.partner = partner;
+        }
+
+        void reject(long row, List<String> messages) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResult.RowError(row, messages));
+            }
+        }
+
+        void resolveFlights(List<PendingRow> chunk) {
+            Set<FlightService.FlightKey> unresolved = new HashSet<>();
+            for (PendingRow pending : chunk) {
+                if (!flights.containsKey(pending.flightKey())) {
+                    unresolved.add(pending.flightKey());
+                }
+            }
+            if (unresolved.isEmpty()) {
+                return;
+            }
+            Map<FlightService.FlightKey, Flight> found = flightService.getFlights(unresolved);
+            for (FlightService.FlightKey key : unresolved) {
+                flights.put(key, found.get(key));
+            }
+        }
+
+        BulkImportResult result() {
+            return new BulkImportResult(accepted, rejected, duplicates, List.copyOf(errors));
+        }
+    }
+}
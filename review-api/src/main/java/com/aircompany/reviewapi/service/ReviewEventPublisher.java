@@ -0,0 +1,43 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.config.RabbitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+// Publishes new-review events in batches on one channel and waits for publisher confirms,
+// so a batch is either fully confirmed or fails as a whole (nack or confirm timeout).
+@Service
+public class ReviewEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+    private final Counter published;
+
+    public ReviewEventPublisher(RabbitTemplate rabbitTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${reviews.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.published = Counter.builder("reviews.publisher.published")
+                .description("New-review events confirmed by the broker")
+                .register(meterRegistry);
+    }
+
+    // Sends the events on one channel and waits until the broker has confirmed all of them
+    public void publishConfirmed(List<Map<String, Object>> events) {
+        rabbitTemplate.invoke(operations -> {
+            for (Map<String, Object> event : events) {
+                operations.convertAndSend(RabbitConfig.EXCHANGE, RabbitConfig.NEW_REVIEW_ROUTING_KEY, event);
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        published.increment(events.size());
+    }
+}
@@ -1,13 +1,16 @@
 package com.aircompany.reviewapi.service;
 
-import com.aircompany.reviewapi.config.RabbitConfig;
 import com.aircompany.reviewapi.dto.ReviewSubmissionDto;
 import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.OutboxEvent;
 import com.aircompany.reviewapi.model.Review;
 import com.aircompany.reviewapi.model.ReviewState;
+import com.aircompany.reviewapi.repository.OutboxRepository;
 import com.aircompany.reviewapi.repository.ReviewRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
@@ -17,50 +20,73 @@ import java.util.UUID;
 @Service
 public class ReviewService {
     private final ReviewRepository reviewRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
     private final FlightService flightService;
 
-    public ReviewService(ReviewRepository reviewRepository, RabbitTemplate rabbitTemplate, FlightService flightService) {
+    public ReviewService(ReviewRepository reviewRepository, OutboxRepository outboxRepository,
+                         ObjectMapper objectMapper, FlightService flightService) {
         this.reviewRepository = reviewRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
         this.flightService = flightService;
     }
 
+    @Transactional
     public Review submitReview(ReviewSubmissionDto dto) {
         // Get flight information
-        Flight flight = flightService.getFlightByFlightNumber(dto.getFlightNumber());
+        Flight flight = flightService.getFlight(dto.getFlightNumber(), dto.getFlightDate());
         if (flight == null) {
-            throw new IllegalArgumentException("Flight not found with number: " + dto.getFlightNumber());
+            throw new IllegalArgumentException("Flight not found with number: " + dto.getFlightNumber()
+                    + " on " + dto.getFlightDate());
         }
 
+        Review r = reviewRepository.save(newReview(dto, flight));
+
+        // committed together with the review; OutboxRelay publishes it to reviews.exchange
+        outboxRepository.save(newReviewEvent(r, flight));
+
+        return r;
+    }
+
+    // shared with ReviewBulkImportService, which inserts reviews and events with JDBC batches
+    Review newReview(ReviewSubmissionDto dto, Flight flight) {
         Review r = new Review();
         r.setId(UUID.randomUUID());
         r.setCustomerName(dto.getCustomerName());
         r.setCustomerEmail(dto.getCustomerEmail());
         r.setFlightNumber(dto.getFlightNumber());
+        r.setFlightId(flight.getId());
         r.setCompanyName(flight.getCompanyName());
         r.setRating(dto.getRating());
         r.setDescription(dto.getDescription());
         r.setSubmittedAt(OffsetDateTime.now());
         r.setState(ReviewState.SUBMITTED);
+        return r;
+    }
 
-        r = reviewRepository.save(r);
-
+    OutboxEvent newReviewEvent(Review r, Flight flight) {
         Map<String, Object> event = new HashMap<>();
         event.put("event", "NEW_REVIEW");
         event.put("reviewId", r.getId());
         event.put("customerName", r.getCustomerName());
         event.put("customerEmail", r.getCustomerEmail());
         event.put("flightNumber", r.getFlightNumber());
+        event.put("flightDate", flight.getFlightDate());
         event.put("companyName", r.getCompanyName());
         event.put("origin", flight.getOrigin());
         event.put("destination", flight.getDestination());
         event.put("rating", r.getRating());
         event.put("description", r.getDescription());
         event.put("submittedAt", r.getSubmittedAt());
+        return new OutboxEvent(r.getId(), "NEW_REVIEW", toJson(event));
+    }
 
-        rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE, RabbitConfig.NEW_REVIEW_ROUTING_KEY, event);
-
-        return r;
+    private String toJson(Map<String, Object> event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review event", e);
+        }
     }
 }
@@ -0,0 +1,55 @@
+-- Tenant key of the backoffice: reviews are filtered by company id (the JWT subject) instead of
+-- the company name copied from the token. Names must be unique for the mapping to hold
+
+-- the unique index needs one company per name: list the names to merge rather than fail on one
+DO $$
+DECLARE
+  duplicates TEXT;
+BEGIN
+  SELECT string_agg(name, ', ') INTO duplicates
+  FROM (SELECT name FROM company GROUP BY name HAVING count(*) > 1 ORDER BY name LIMIT 20) d;
+  IF duplicates IS NOT NULL THEN
+    RAISE EXCEPTION 'company has several rows for the same name, merge them and migrate again: %', duplicates;
+  END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX idx_company_name ON company(name);
+
+ALTER TABLE review ADD COLUMN company_id UUID REFERENCES company(id);
+
+-- Not a public change, so the backfill must not bump content_version once per published row
+ALTER TABLE review DISABLE TRIGGER review_published_update;
+UPDATE review r SET company_id = c.id FROM company c WHERE c.name = r.company_name;
+ALTER TABLE review ENABLE TRIGGER review_published_update;
+
+-- review-api only knows the company name (from the flight): the id is resolved on write
+CREATE FUNCTION set_review_company_id() RETURNS trigger AS $$
+BEGIN
+  NEW.company_id := (SELECT id FROM company WHERE name = NEW.company_name);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER review_company_id BEFORE INSERT OR UPDATE OF company_name ON review
+  FOR EACH ROW EXECUTE FUNCTION set_review_company_id();
+
+-- reviews of a company that signs up after they were written
+CREATE FUNCTION claim_company_reviews() RETURNS trigger AS $$
+BEGIN
+  UPDATE review SET company_id = NEW.id WHERE company_name = NEW.name AND company_id IS NULL;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER company_claims_reviews AFTER INSERT ON company
+  FOR EACH ROW EXECUTE FUNCTION claim_company_reviews();
+
+CREATE INDEX idx_review_unclaimed_company_name ON review(company_name) WHERE company_id IS NULL;
+
+-- idx_review_company_submitted_at_id (V7) and idx_review_company_state_submitted_at_id (V8) on
+-- the id: 16-byte keys instead of the name, and uuid comparisons instead of collated text ones
+CREATE INDEX idx_review_company_id_submitted_at_id ON review(company_id, submitted_at DESC, id);
+CREATE INDEX idx_review_company_id_state_submitted_at_id ON review(company_id, state, submitted_at DESC, id);
+DROP INDEX IF EXISTS idx_review_company_submitted_at_id;
+DROP INDEX IF EXISTS idx_review_company_state_submitted_at_id;
@@ -0,0 +1,67 @@
+-- A flight is a number on a date: flight_number alone matches every date of a repeating schedule.
+-- Reviews reference the flight row the customer picked, and both services join on its id
+
+-- the unique index needs one row per (number, date): list the pairs to merge rather than fail on one
+DO $$
+DECLARE
+  duplicates TEXT;
+BEGIN
+  SELECT string_agg(flight_number || ' on ' || flight_date, ', ') INTO duplicates
+  FROM (SELECT flight_number, flight_date FROM flight
+        GROUP BY flight_number, flight_date HAVING count(*) > 1
+        ORDER BY flight_number, flight_date LIMIT 20) d;
+  IF duplicates IS NOT NULL THEN
+    RAISE EXCEPTION 'flight has several rows for the same number and date, merge them and migrate again: %', duplicates;
+  END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_flight_number_date ON flight(flight_number, flight_date);
+DROP INDEX IF EXISTS idx_flight_flight_number;
+
+-- the backoffice (ddl-auto=update) may have added the column first, without the foreign key
+ALTER TABLE review ADD COLUMN IF NOT EXISTS flight_id UUID;
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'review_flight_id_fkey') THEN
+    ALTER TABLE review ADD CONSTRAINT review_flight_id_fkey
+      FOREIGN KEY (flight_id) REFERENCES flight(id) ON DELETE SET NULL;
+  END IF;
+END
+$$;
+-- flight deletes look their reviews up through it
+CREATE INDEX IF NOT EXISTS idx_review_flight_id ON review(flight_id);
+
+-- Only the public columns of a review bump review.PUBLISHED, so the backfill below (flight_id
+-- alone, which is otherwise only written on insert) leaves pages and their ETags valid while
+-- live publishes keep bumping it. Replaced in place: the trigger is never missing
+CREATE OR REPLACE TRIGGER review_published_update
+  AFTER UPDATE OF state, rating, description, submitted_at, response_text, flight_number ON review
+  FOR EACH ROW WHEN (OLD.state = 'PUBLISHED' OR NEW.state = 'PUBLISHED')
+  EXECUTE FUNCTION bump_content_version('review.PUBLISHED');
+
+-- Backfill one transaction per 10000 reviews (this script runs outside a transaction, see the
+-- .conf next to it), so a large review table is never locked or rewritten in one go. Statements
+-- are idempotent: after a failure, repair and migrate again to resume. Existing reviews get the
+-- flight of their number closest to the submission date, on or before it when there is one
+DO $$
+DECLARE
+  last_id UUID := '00000000-0000-0000-0000-000000000000';
+  chunk_end UUID;
+BEGIN
+  LOOP
+    -- last id of the next chunk, NULL for the final (partial) chunk
+    SELECT id INTO chunk_end FROM review WHERE id > last_id ORDER BY id OFFSET 9999 LIMIT 1;
+    UPDATE review r SET flight_id = (
+        SELECT f.id FROM flight f
+        WHERE f.flight_number = r.flight_number
+        ORDER BY f.flight_date > r.submitted_at::date, abs(f.flight_date - r.submitted_at::date)
+        LIMIT 1)
+      WHERE r.id > last_id AND (chunk_end IS NULL OR r.id <= chunk_end)
+        AND r.flight_number IS NOT NULL AND r.flight_id IS NULL;
+    COMMIT;
+    EXIT WHEN chunk_end IS NULL;
+    last_id := chunk_end;
+  END LOOP;
+END
+$$;
@@ -0,0 +1,15 @@
+-- Change feed of the flight catalog for the in-memory search index (FlightSearchIndex): after a
+-- 'flight' content_version bump it reads the rows written since its last load, not the whole table
+ALTER TABLE flight ADD COLUMN updated_at timestamptz NOT NULL DEFAULT now();
+
+CREATE FUNCTION set_flight_updated_at() RETURNS trigger AS $$
+BEGIN
+  NEW.updated_at := now();
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER flight_updated_at BEFORE UPDATE ON flight
+  FOR EACH ROW EXECUTE FUNCTION set_flight_updated_at();
+
+CREATE INDEX idx_flight_updated_at ON flight(updated_at);
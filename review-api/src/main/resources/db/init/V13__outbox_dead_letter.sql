@@ -0,0 +1,12 @@
+-- Outbox events the relay cannot publish (unreadable payload). Kept for inspection and replay
+-- instead of blocking the outbox: the relay takes the oldest rows first, so a failing row would
+-- come back on every poll
+CREATE TABLE outbox_dead_letter (
+  id BIGINT PRIMARY KEY,
+  aggregate_id UUID NOT NULL,
+  event_type VARCHAR(50) NOT NULL,
+  payload TEXT NOT NULL,
+  created_at timestamptz NOT NULL,
+  failed_at timestamptz NOT NULL DEFAULT now(),
+  error TEXT
+);
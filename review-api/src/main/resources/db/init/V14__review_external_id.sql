@@ -0,0 +1,6 @@
+-- Bulk imports are idempotent per partner: each row carries the partner's own id, and a replayed
+-- feed skips the rows already imported. Reviews submitted through the form have neither
+ALTER TABLE review ADD COLUMN IF NOT EXISTS source_partner VARCHAR(100);
+ALTER TABLE review ADD COLUMN IF NOT EXISTS external_id VARCHAR(100);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_review_partner_external_id
+  ON review(source_partner, external_id) WHERE external_id IS NOT NULL;
@@ -0,0 +1,47 @@
+-- review.PUBLISHED is bumped once per statement instead of once per row. Row triggers updated the
+-- content_version row for every published review a statement touched, and each writer held that
+-- row's lock until commit, so batched writes serialized on it. Statement triggers look at the
+-- transition tables (old_rows / new_rows) and bump at most once, only when a published row
+-- changed. Dropped and created in one transaction: no write goes unversioned
+CREATE FUNCTION bump_published_reviews_version() RETURNS trigger AS $$
+BEGIN
+  -- each branch only reads the transition tables its trigger declares
+  IF TG_OP = 'INSERT' THEN
+    PERFORM 1 FROM new_rows WHERE state = 'PUBLISHED' LIMIT 1;
+  ELSIF TG_OP = 'DELETE' THEN
+    PERFORM 1 FROM old_rows WHERE state = 'PUBLISHED' LIMIT 1;
+  ELSE
+    -- transition tables rule out a column list (UPDATE OF ...), so the public columns are
+    -- compared here. flight_id picks the flight the listing shows; company_id alone bumps nothing
+    PERFORM 1 FROM old_rows o JOIN new_rows n ON n.id = o.id
+      WHERE (o.state = 'PUBLISHED' OR n.state = 'PUBLISHED')
+        AND (o.state, o.rating, o.description, o.submitted_at, o.response_text, o.flight_number, o.flight_id)
+            IS DISTINCT FROM (n.state, n.rating, n.description, n.submitted_at, n.response_text, n.flight_number, n.flight_id)
+      LIMIT 1;
+  END IF;
+  IF FOUND THEN
+    UPDATE content_version SET version = version + 1, updated_at = now() WHERE name = 'review.PUBLISHED';
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER review_published_insert ON review;
+DROP TRIGGER review_published_update ON review;
+DROP TRIGGER review_published_delete ON review;
+
+CREATE TRIGGER review_published_insert AFTER INSERT ON review
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bump_published_reviews_version();
+
+CREATE TRIGGER review_published_update AFTER UPDATE ON review
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bump_published_reviews_version();
+
+CREATE TRIGGER review_published_delete AFTER DELETE ON review
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bump_published_reviews_version();
+
+-- The V11__review_flight_id.sql backfill set flight_id without a bump, and the listing has looked
+-- flights up by that id since: pages cached or validated before it are stale
+UPDATE content_version SET version = version + 1, updated_at = now() WHERE name = 'review.PUBLISHED';
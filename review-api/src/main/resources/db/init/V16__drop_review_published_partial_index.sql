@@ -0,0 +1,7 @@
+-- idx_review_published_submitted_at_id (V8) served the same public queries as
+-- idx_review_state_submitted_at_id (V2), so every insert and state change maintained two nearly
+-- identical b-trees. The full index is kept: it also serves the other states, and a generic plan
+-- (state bound as a parameter, as the JDBC driver does once it prepares the statement server-side)
+-- cannot prove state = 'PUBLISHED' and never picks the partial one. QueryPlanRegressionTest checks
+-- both plan kinds
+DROP INDEX IF EXISTS idx_review_published_submitted_at_id;
@@ -0,0 +1,2 @@
+-- Keyset pagination of the public listing: WHERE state = ? ORDER BY submitted_at DESC, id
+CREATE INDEX idx_review_state_submitted_at_id ON review(state, submitted_at DESC, id);
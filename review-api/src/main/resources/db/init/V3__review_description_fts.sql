@@ -0,0 +1,3 @@
+-- Full-text search on review descriptions ('simple' config: reviews are written in several languages).
+-- Expression index matching the fts_match/fts_rank JPQL functions (see FullTextSearchFunctions).
+CREATE INDEX idx_review_description_fts ON review USING GIN (to_tsvector('simple', coalesce(description, '')));
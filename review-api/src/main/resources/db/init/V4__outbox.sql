@@ -0,0 +1,9 @@
+-- Transactional outbox: events are inserted in the same transaction as the review and
+-- deleted by the relay once the broker has confirmed them
+CREATE TABLE outbox (
+  id BIGSERIAL PRIMARY KEY,
+  aggregate_id UUID NOT NULL,
+  event_type VARCHAR(50) NOT NULL,
+  payload TEXT NOT NULL,
+  created_at timestamptz NOT NULL DEFAULT now()
+);
@@ -0,0 +1,51 @@
+-- Rating aggregates per flight and per company, one row per review state. The back office keeps
+-- them up to date as it processes and answers reviews; SUBMITTED reviews are not counted.
+CREATE TABLE flight_rating_stats (
+  flight_number VARCHAR(50) NOT NULL,
+  state VARCHAR(50) NOT NULL,
+  company_name VARCHAR(255),
+  review_count BIGINT NOT NULL DEFAULT 0,
+  rating_sum BIGINT NOT NULL DEFAULT 0,
+  rating_1 BIGINT NOT NULL DEFAULT 0,
+  rating_2 BIGINT NOT NULL DEFAULT 0,
+  rating_3 BIGINT NOT NULL DEFAULT 0,
+  rating_4 BIGINT NOT NULL DEFAULT 0,
+  rating_5 BIGINT NOT NULL DEFAULT 0,
+  updated_at timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (flight_number, state)
+);
+
+CREATE TABLE company_rating_stats (
+  company_name VARCHAR(255) NOT NULL,
+  state VARCHAR(50) NOT NULL,
+  review_count BIGINT NOT NULL DEFAULT 0,
+  rating_sum BIGINT NOT NULL DEFAULT 0,
+  rating_1 BIGINT NOT NULL DEFAULT 0,
+  rating_2 BIGINT NOT NULL DEFAULT 0,
+  rating_3 BIGINT NOT NULL DEFAULT 0,
+  rating_4 BIGINT NOT NULL DEFAULT 0,
+  rating_5 BIGINT NOT NULL DEFAULT 0,
+  updated_at timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (company_name, state)
+);
+
+-- Backfill from the reviews already processed
+INSERT INTO flight_rating_stats (flight_number, state, company_name, review_count, rating_sum,
+                                 rating_1, rating_2, rating_3, rating_4, rating_5)
+SELECT flight_number, state, min(company_name), count(*), sum(rating),
+       count(*) FILTER (WHERE rating = 1), count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3), count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5)
+FROM review
+WHERE state <> 'SUBMITTED' AND flight_number IS NOT NULL AND rating BETWEEN 1 AND 5
+GROUP BY flight_number, state;
+
+INSERT INTO company_rating_stats (company_name, state, review_count, rating_sum,
+                                  rating_1, rating_2, rating_3, rating_4, rating_5)
+SELECT company_name, state, count(*), sum(rating),
+       count(*) FILTER (WHERE rating = 1), count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3), count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5)
+FROM review
+WHERE state <> 'SUBMITTED' AND company_name IS NOT NULL AND rating BETWEEN 1 AND 5
+GROUP BY company_name, state;
@@ -0,0 +1,35 @@
+-- Version counters for public content, used as HTTP validators (ETag / Last-Modified).
+-- Triggers bump them on every write path (back office, bulk import, manual SQL) so review-api
+-- can answer conditional GETs from memory.
+CREATE TABLE content_version (
+  name VARCHAR(50) PRIMARY KEY,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at timestamptz NOT NULL DEFAULT now()
+);
+
+INSERT INTO content_version (name) VALUES ('review.PUBLISHED'), ('flight');
+
+CREATE FUNCTION bump_content_version() RETURNS trigger AS $$
+BEGIN
+  UPDATE content_version SET version = version + 1, updated_at = now() WHERE name = TG_ARGV[0];
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- published reviews: any insert, update or delete of a row that is or was PUBLISHED
+CREATE TRIGGER review_published_insert AFTER INSERT ON review
+  FOR EACH ROW WHEN (NEW.state = 'PUBLISHED')
+  EXECUTE FUNCTION bump_content_version('review.PUBLISHED');
+
+CREATE TRIGGER review_published_update AFTER UPDATE ON review
+  FOR EACH ROW WHEN (OLD.state = 'PUBLISHED' OR NEW.state = 'PUBLISHED')
+  EXECUTE FUNCTION bump_content_version('review.PUBLISHED');
+
+CREATE TRIGGER review_published_delete AFTER DELETE ON review
+  FOR EACH ROW WHEN (OLD.state = 'PUBLISHED')
+  EXECUTE FUNCTION bump_content_version('review.PUBLISHED');
+
+-- flight catalog (also joined into the review listing)
+CREATE TRIGGER flight_changed AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON flight
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION bump_content_version('flight');
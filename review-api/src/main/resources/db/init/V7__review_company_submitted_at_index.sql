@@ -0,0 +1,3 @@
+-- Backoffice listing and export: WHERE company_name = ? [AND submitted_at >= ? AND submitted_at < ?]
+-- ORDER BY submitted_at DESC, id. The public listing's date range uses idx_review_state_submitted_at_id
+CREATE INDEX idx_review_company_submitted_at_id ON review(company_name, submitted_at DESC, id);
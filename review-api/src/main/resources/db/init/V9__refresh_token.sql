@@ -0,0 +1,18 @@
+-- Backoffice sessions (POST /api/v1/company/refresh): only the SHA-256 of each refresh token is
+-- stored. A token is used once and replaced by a successor in the same family; presenting a
+-- used token again revokes the whole family
+CREATE TABLE refresh_token (
+  id UUID PRIMARY KEY,
+  token_hash VARCHAR(64) NOT NULL,
+  family_id UUID NOT NULL,
+  company_id UUID NOT NULL REFERENCES company(id) ON DELETE CASCADE,
+  expires_at timestamptz NOT NULL,
+  used_at timestamptz,
+  revoked_at timestamptz,
+  created_at timestamptz DEFAULT now()
+);
+
+CREATE UNIQUE INDEX idx_refresh_token_hash ON refresh_token(token_hash);
+CREATE INDEX idx_refresh_token_family ON refresh_token(family_id);
+-- expired tokens of a company are purged at its next sign-in
+CREATE INDEX idx_refresh_token_company_expires_at ON refresh_token(company_id, expires_at);
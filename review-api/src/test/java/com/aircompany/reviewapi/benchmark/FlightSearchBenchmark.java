@@ -0,0 +1,78 @@
+package com.aircompany.reviewapi.benchmark;
+
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.repository.FlightRepository;
+import com.aircompany.reviewapi.service.FlightSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// One keystroke of the flight picker on a year of schedule (1000 flight numbers a day, 365k
+// flights): "number" is a flight number prefix, "airport" a word of an airport name shared by a
+// quarter of the catalog. Both return the first 10 flights
+// Run: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+//        "-Dexec.args=-cp %classpath com.aircompany.reviewapi.benchmark.FlightSearchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+
+    private static final String[] AIRPORTS = {"Paris Charles de Gaulle", "Montréal YUL", "New York JFK", "London LHR"};
+
+    private FlightSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        List<Flight> flights = new ArrayList<>();
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < 365; day++) {
+            for (int n = 0; n < 1000; n++) {
+                Flight flight = new Flight();
+                flight.setId(UUID.randomUUID());
+                flight.setFlightNumber((n % 2 == 0 ? "AF" : "LH") + (1000 + n));
+                flight.setCompanyName(n % 2 == 0 ? "Air France" : "Lufthansa");
+                flight.setOrigin(AIRPORTS[n % 4]);
+                flight.setDestination(AIRPORTS[(n + 1 + n / 4 % 3) % 4]);
+                flight.setFlightDate(first.plusDays(day));
+                flights.add(flight);
+            }
+        }
+        FlightRepository flightRepository = mock(FlightRepository.class);
+        when(flightRepository.findAll()).thenReturn(flights);
+        index = new FlightSearchIndex(flightRepository, 50, new SimpleMeterRegistry());
+        index.load();
+    }
+
+    @Benchmark
+    public List<Flight> number() {
+        return index.search("AF15", 10);
+    }
+
+    @Benchmark
+    public List<Flight> airport() {
+        return index.search("montre", 10);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(FlightSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.aircompany.reviewapi.benchmark;
+
+import com.aircompany.reviewapi.dto.PublicReviewDto;
+import com.aircompany.reviewapi.dto.PublicReviewRow;
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.Review;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Mapping + JSON serialization of a 100-review public page, starting from the query result.
+// "hashMap" is the old path (entity rows, one HashMap per review, Page<Object>); "record" maps the
+// projected PublicReviewRow to PublicReviewDto. Append -prof gc to the args for allocation per page.
+// Run: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+//        "-Dexec.args=-cp %classpath com.aircompany.reviewapi.benchmark.PublicReviewPageBenchmark"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicReviewPageBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final PageRequest pageable = PageRequest.of(0, PAGE_SIZE);
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final Map<UUID, Flight> flightsById = new HashMap<>();
+    private List<Review> entities;
+    private List<PublicReviewRow> rows;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(PAGE_SIZE);
+        rows = new ArrayList<>(PAGE_SIZE);
+        OffsetDateTime submittedAt = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+        for (int i = 0; i < 10; i++) {
+            Flight flight = new Flight();
+            flight.setId(UUID.randomUUID());
+            flight.setFlightNumber("AF" + (100 + i));
+            flight.setOrigin("Paris CDG");
+            flight.setDestination("New York JFK");
+            flight.setFlightDate(LocalDate.of(2024, 1, 14));
+            flights.put(flight.getFlightNumber(), flight);
+            flightsById.put(flight.getId(), flight);
+        }
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            String flightNumber = "AF" + (100 + i % 10);
+            Review review = new Review();
+            review.setId(UUID.randomUUID());
+            review.setCustomerName("Customer " + i);
+            review.setCustomerEmail("customer" + i + "@example.com");
+            review.setFlightNumber(flightNumber);
+            review.setRating(1 + i % 5);
+            review.setDescription("Crew was friendly, the seat was comfortable and we landed on time. Review " + i);
+            review.setSubmittedAt(submittedAt.minusMinutes(i));
+            review.setResponseText(i % 3 == 0 ? "Thank you for flying with us" : null);
+            entities.add(review);
+            rows.add(new PublicReviewRow(review.getId(), review.getRating(), review.getDescription(),
+                    review.getSubmittedAt(), review.getResponseText(), flightNumber,
+                    flights.get(flightNumber).getId()));
+        }
+    }
+
+    @Benchmark
+    public byte[] hashMap() throws JsonProcessingException {
+        Page<Object> page = new PageImpl<>(entities, pageable, 1000).map(r -> {
+            Map<String, Object> reviewMap = new HashMap<>();
+            reviewMap.put("id", r.getId());
+            reviewMap.put("rating", r.getRating());
+            reviewMap.put("description", r.getDescription());
+            reviewMap.put("submittedAt", r.getSubmittedAt());
+            reviewMap.put("companyResponse", r.getResponseText());
+            Flight flight = flights.get(r.getFlightNumber());
+            if (flight != null) {
+                reviewMap.put("flightNumber", flight.getFlightNumber());
+                reviewMap.put("origin", flight.getOrigin());
+                reviewMap.put("destination", flight.getDestination());
+                reviewMap.put("flightDate", flight.getFlightDate());
+            }
+            return reviewMap;
+        });
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] record() throws JsonProcessingException {
+        Page<PublicReviewDto> page = new PageImpl<>(rows, pageable, 1000)
+                .map(r -> PublicReviewDto.of(r, flightsById.get(r.flightId())));
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(PublicReviewPageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.aircompany.reviewapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceConfigTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = new ReplicaDataSourceConfig().dataSource(primary, replica);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(primaryConnection.createStatement()).thenReturn(statement);
+        lenient().when(replicaConnection.createStatement()).thenReturn(statement);
+    }
+
+    @Test
+    void readOnlyTransaction_shouldRunOnReplicaWithReadOnlyConnection() throws Exception {
+        // Given
+        transactionTemplate.setReadOnly(true);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        // Then
+        verify(replicaConnection).setReadOnly(true);
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void readWriteTransaction_shouldRunOnPrimary() throws Exception {
+        // When
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("UPDATE review SET rating = 5"));
+
+        // Then
+        verify(primaryConnection).createStatement();
+        verify(primaryConnection).commit();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void statementOutsideTransaction_shouldRunOnPrimary() throws Exception {
+        // When
+        jdbcTemplate.execute("SELECT 1");
+
+        // Then
+        verify(statement).execute(anyString());
+        verify(primaryConnection).createStatement();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void transactionWithoutStatements_shouldNotTakeAConnection() throws Exception {
+        // Given
+        transactionTemplate.setReadOnly(true);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> { });
+
+        // Then
+        verify(replica, never()).getConnection();
+    }
+}
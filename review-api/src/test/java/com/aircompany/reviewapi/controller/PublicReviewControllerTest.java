@@ -1,12 +1,19 @@
 package com.aircompany.reviewapi.controller;
 
+import com.aircompany.reviewapi.dto.PublicReviewRow;
+import com.aircompany.reviewapi.dto.ReviewCursor;
 import com.aircompany.reviewapi.dto.ReviewSubmissionDto;
 import com.aircompany.reviewapi.model.Flight;
 import com.aircompany.reviewapi.model.Review;
+import com.aircompany.reviewapi.model.ReviewState;
 import com.aircompany.reviewapi.repository.ReviewRepository;
+import com.aircompany.reviewapi.service.ContentVersions;
+import com.aircompany.reviewapi.service.FlightSearchIndex;
 import com.aircompany.reviewapi.service.FlightService;
+import com.aircompany.reviewapi.service.PublicListingCache;
 import com.aircompany.reviewapi.service.ReviewService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,16 +24,27 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,15 +61,26 @@ class PublicReviewControllerTest {
     @Mock
     private FlightService flightService;
 
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Mock
+    private ContentVersions contentVersions;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private PublicListingCache listingCache;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listingCache = new PublicListingCache(Jackson2ObjectMapperBuilder.json().build(), meterRegistry, 1_000_000);
         mockMvc = MockMvcBuilders.standaloneSetup(
-            new PublicReviewController(reviewService, reviewRepository, flightService)
+            new PublicReviewController(reviewService, reviewRepository, flightService, flightSearchIndex, contentVersions,
+                    listingCache, "public, max-age=0, s-maxage=60", ZoneId.of("Europe/Paris"))
         ).build();
-        objectMapper = new ObjectMapper();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
     }
 
     @Test
@@ -61,6 +90,7 @@ class PublicReviewControllerTest {
         dto.setCustomerName("John Doe");
         dto.setCustomerEmail("john@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(LocalDate.of(2024, 1, 15));
         dto.setRating(5);
         dto.setDescription("Great flight!");
 
@@ -104,6 +134,7 @@ class PublicReviewControllerTest {
         dto.setCustomerName("John Doe");
         dto.setCustomerEmail("john@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(LocalDate.of(2024, 1, 15));
         dto.setRating(5);
         dto.setDescription("Great flight!");
 
@@ -246,4 +277,357 @@ class PublicReviewControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
+
+    @Test
+    void getPublicReviews_shouldResolveFlightsWithOneLookupPerPageRegardlessOfPageSize() throws Exception {
+        // Given
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber("AF123");
+        flight.setOrigin("Paris CDG");
+        flight.setDestination("New York JFK");
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of(flight.getId(), flight));
+
+        for (int size : new int[] {1, 50}) {
+            List<PublicReviewRow> reviews = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                reviews.add(new PublicReviewRow(UUID.randomUUID(), 4, null, OffsetDateTime.now(), null,
+                        i % 2 == 0 ? "AF123" : "LH101", i % 2 == 0 ? flight.getId() : UUID.randomUUID()));
+            }
+            when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any()))
+                    .thenReturn(new PageImpl<>(reviews, PageRequest.of(0, size), size));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/reviews").param("size", String.valueOf(size)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(size))
+                    .andExpect(jsonPath("$.content[0].origin").value("Paris CDG"));
+        }
+
+        verify(reviewRepository, times(2)).findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any());
+        verify(flightService, times(2)).getFlightsByIds(anyCollection());
+        verify(flightService, never()).getFlightById(any());
+    }
+
+    @Test
+    void getPublicReviews_shouldSerializePublicFieldsOnly() throws Exception {
+        // Given
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber("AF123");
+        flight.setOrigin("Paris CDG");
+        flight.setDestination("New York JFK");
+        flight.setFlightDate(LocalDate.of(2024, 1, 14));
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of(flight.getId(), flight));
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(
+                        new PublicReviewRow(UUID.randomUUID(), 4, "On time", OffsetDateTime.parse("2024-01-15T10:00:00Z"),
+                                "Thank you", "AF123", flight.getId()),
+                        publishedReview("ZZ999")), PageRequest.of(0, 10), 2));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].companyResponse").value("Thank you"))
+                .andExpect(jsonPath("$.content[0].flightNumber").value("AF123"))
+                .andExpect(jsonPath("$.content[0].destination").value("New York JFK"))
+                .andExpect(jsonPath("$.content[0].flightDate").exists())
+                .andExpect(jsonPath("$.content[0].customerName").doesNotExist())
+                .andExpect(jsonPath("$.content[0].customerEmail").doesNotExist())
+                .andExpect(jsonPath("$.content[0].responseText").doesNotExist())
+                .andExpect(jsonPath("$.content[1].rating").value(4))
+                .andExpect(jsonPath("$.content[1].flightNumber").doesNotExist())
+                .andExpect(jsonPath("$.content[1].origin").doesNotExist());
+    }
+
+    @Test
+    void getPublicReviewsByCursor_shouldReturnFirstPageWithNextCursor() throws Exception {
+        // Given
+        List<PublicReviewRow> reviews = new ArrayList<>();
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            reviews.add(new PublicReviewRow(UUID.randomUUID(), 5, null, now.minusMinutes(i), null, null, null));
+        }
+        when(reviewRepository.findFirstByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(reviews);
+
+        String expectedCursor = new ReviewCursor(reviews.get(1).submittedAt(), reviews.get(1).id()).encode();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("cursor", "")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].id").value(reviews.get(1).id().toString()))
+                .andExpect(jsonPath("$.nextCursor").value(expectedCursor))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(reviewRepository, never()).findByStateAndFilters(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getPublicReviewsByCursor_shouldContinueAfterCursorAndStopOnLastPage() throws Exception {
+        // Given
+        ReviewCursor cursor = new ReviewCursor(OffsetDateTime.parse("2024-01-15T10:00:00Z"), UUID.randomUUID());
+        PublicReviewRow review = new PublicReviewRow(UUID.randomUUID(), 3, null,
+                OffsetDateTime.parse("2024-01-15T09:00:00Z"), null, null, null);
+        when(reviewRepository.findNextByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(),
+                eq(cursor.submittedAt()), eq(cursor.id()), eq(PageRequest.of(0, 11))))
+                .thenReturn(List.of(review));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getPublicReviewsByCursor_shouldRejectMalformedCursor() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void reviewCursor_shouldRoundTripThroughEncoding() {
+        // Given
+        ReviewCursor cursor = new ReviewCursor(OffsetDateTime.parse("2024-01-15T10:00:00.123456Z"), UUID.randomUUID());
+
+        // When
+        ReviewCursor decoded = ReviewCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void getPublicReviews_shouldUseRankedFullTextSearchForKeyword() throws Exception {
+        // Given
+        PublicReviewRow review = new PublicReviewRow(UUID.randomUUID(), 5, "Great crew, great food",
+                OffsetDateTime.now(), null, null, null);
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.searchByStateAndFilters(eq(ReviewState.PUBLISHED), eq("great food"), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(review), PageRequest.of(0, 10), 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("keyword", "great food"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").value("Great crew, great food"));
+
+        verify(reviewRepository, never()).findByStateAndFilters(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getPublicReviews_shouldReturnNotModifiedWithoutQueryingWhenEtagMatches() throws Exception {
+        // Given
+        when(contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"12-3\"", 1_705_312_800_000L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .header("If-None-Match", "\"12-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"12-3\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=0, s-maxage=60"))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(reviewRepository, flightService);
+    }
+
+    @Test
+    void getPublicReviews_shouldSendValidatorsWithFreshPage() throws Exception {
+        // Given
+        when(contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"13-3\"", 1_705_312_800_000L)));
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .header("If-None-Match", "\"12-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"13-3\""))
+                .andExpect(header().string("Last-Modified", "Mon, 15 Jan 2024 10:00:00 GMT"))
+                .andExpect(header().string("Cache-Control", "public, max-age=0, s-maxage=60"))
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    void getPublicReviews_shouldServeRepeatedListingFromResponseCache() throws Exception {
+        // Given
+        when(contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"13-3\"", 1_705_312_800_000L)));
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), eq("AF123"), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(publishedReview("AF123")), PageRequest.of(0, 10), 1));
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/reviews").param("flightNumber", "AF123"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.content[0].rating").value(4));
+        }
+
+        verify(reviewRepository, times(1)).findByStateAndFilters(any(), any(), any(), any(), any(), any());
+        assertEquals(2.0 / 3, meterRegistry.get("reviews.listing.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void getPublicReviews_shouldQueryAgainAfterContentVersionChanges() throws Exception {
+        // Given
+        when(contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"13-3\"", 1_705_312_800_000L)))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"14-3\"", 1_705_312_900_000L)));
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0))
+                .thenReturn(new PageImpl<>(List.of(publishedReview("AF123")), PageRequest.of(0, 10), 1));
+
+        // When
+        mockMvc.perform(get("/api/v1/reviews"))
+                .andExpect(jsonPath("$.content").isEmpty());
+        mockMvc.perform(get("/api/v1/reviews"))
+                .andExpect(header().string("ETag", "\"14-3\""))
+                .andExpect(jsonPath("$.content[0].rating").value(4));
+
+        // Then
+        verify(reviewRepository, times(2)).findByStateAndFilters(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getPublicReviews_shouldNotCacheBeforeVersionsAreLoaded() throws Exception {
+        // Given
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        // When
+        mockMvc.perform(get("/api/v1/reviews")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/reviews")).andExpect(status().isOk());
+
+        // Then
+        verify(reviewRepository, times(2)).findByStateAndFilters(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getPublicReviews_shouldFilterDateAsSubmittedAtRangeOfThatDay() throws Exception {
+        // Given
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(),
+                eq(OffsetDateTime.parse("2024-01-15T00:00+01:00")), eq(OffsetDateTime.parse("2024-01-16T00:00+01:00")), any()))
+                .thenReturn(new PageImpl<>(List.of(publishedReview("AF123")), PageRequest.of(0, 10), 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews").param("date", "2024-01-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].rating").value(4));
+    }
+
+    @Test
+    void getPublicReviews_shouldFilterInclusiveFromToDaysInRequestedTimeZone() throws Exception {
+        // Given
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(),
+                eq(OffsetDateTime.parse("2024-01-10T00:00-05:00")), eq(OffsetDateTime.parse("2024-01-16T00:00-05:00")), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("from", "2024-01-10")
+                .param("to", "2024-01-15")
+                .param("tz", "America/New_York"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void getPublicReviewsByCursor_shouldKeepOpenEndedRangeAcrossPages() throws Exception {
+        // Given
+        ReviewCursor cursor = new ReviewCursor(OffsetDateTime.parse("2024-01-15T10:00:00Z"), UUID.randomUUID());
+        when(flightService.getFlightsByIds(anyCollection())).thenReturn(Map.of());
+        when(reviewRepository.findNextByStateAndFilters(eq(ReviewState.PUBLISHED), isNull(), isNull(),
+                eq(OffsetDateTime.parse("2024-01-10T00:00+01:00")), isNull(),
+                eq(cursor.submittedAt()), eq(cursor.id()), eq(PageRequest.of(0, 11))))
+                .thenReturn(List.of(publishedReview("AF123")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews")
+                .param("cursor", cursor.encode())
+                .param("from", "2024-01-10")
+                .param("to", "not-a-date"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void getAllFlights_shouldReturnNotModifiedForUnchangedCatalog() throws Exception {
+        // Given
+        when(contentVersions.validators(ContentVersions.FLIGHTS))
+                .thenReturn(Optional.of(new ContentVersions.Validators("\"3\"", 1_705_312_800_000L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews/flights")
+                .header("If-Modified-Since", "Mon, 15 Jan 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(flightService);
+    }
+
+    @Test
+    void getAllFlights_shouldServeWithoutValidatorsUntilVersionsAreLoaded() throws Exception {
+        // Given
+        when(flightService.getAllFlights()).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews/flights")
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Cache-Control"));
+    }
+
+    @Test
+    void searchFlights_shouldReturnMatchesFromIndex() throws Exception {
+        // Given
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber("AF123");
+        flight.setOrigin("Paris CDG");
+        flight.setDestination("Montreal YUL");
+        when(flightSearchIndex.search("af1", 5)).thenReturn(List.of(flight));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews/flights/search")
+                .param("prefix", "af1")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].flightNumber").value("AF123"));
+
+        verifyNoInteractions(flightService);
+    }
+
+    @Test
+    void searchFlights_shouldRejectBlankPrefix() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/reviews/flights/search")
+                .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchIndex);
+    }
+
+    private PublicReviewRow publishedReview(String flightNumber) {
+        return new PublicReviewRow(UUID.randomUUID(), 4, "On time",
+                OffsetDateTime.parse("2024-01-15T10:00:00Z"), null, flightNumber, null);
+    }
 }
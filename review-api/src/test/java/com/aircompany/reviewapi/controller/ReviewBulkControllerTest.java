@@ -0,0 +1,141 @@
+package com.aircompany.reviewapi.controller;
+
+import com.aircompany.reviewapi.config.BulkPartners;
+import com.aircompany.reviewapi.dto.BulkImportResult;
+import com.aircompany.reviewapi.service.ReviewBulkImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewBulkControllerTest {
+
+    @Mock
+    private ReviewBulkImportService bulkImportService;
+
+    private BulkPartners bulkPartners;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        bulkPartners = new BulkPartners();
+        bulkPartners.setPartnerKeys(Map.of("acme-travel", "acme-key", "other", "other-key"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewBulkController(bulkImportService, bulkPartners, 2)).build();
+    }
+
+    @Test
+    void importReviews_shouldPassNdjsonBodyAndReturnResult() throws Exception {
+        // Given
+        String body = "{\"flightNumber\":\"AF123\"}\n{\"flightNumber\":\"XX999\"}\n";
+        when(bulkImportService.importReviews(eq("acme-travel"), any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream in = invocation.getArgument(1);
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            return new BulkImportResult(1, 1, 0,
+                    List.of(new BulkImportResult.RowError(1, List.of("Flight not found with number: XX999"))));
+        });
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "acme-key")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("Flight not found with number: XX999"));
+    }
+
+    @Test
+    void importReviews_shouldAcceptJsonArray() throws Exception {
+        // Given
+        when(bulkImportService.importReviews(eq("acme-travel"), any(InputStream.class))).thenReturn(new BulkImportResult(0, 0, 0, List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "acme-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(0));
+    }
+
+    @Test
+    void importReviews_shouldRejectOtherContentTypes() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "acme-key")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("hello"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(bulkImportService);
+    }
+
+    @Test
+    void importReviews_shouldRejectMissingOrUnknownApiKey() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "acme-key2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(bulkImportService);
+    }
+
+    @Test
+    void importReviews_shouldRefuseImportsBeyondTheConcurrencyLimit() throws Exception {
+        // Given: the only permit is held by a running import
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewBulkController(bulkImportService, bulkPartners, 1)).build();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bulkImportService.importReviews(eq("acme-travel"), any(InputStream.class))).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return new BulkImportResult(0, 0, 0, List.of());
+        });
+        Thread first = new Thread(() -> {
+            try {
+                mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "acme-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        first.start();
+        running.await();
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reviews/bulk")
+                        .header("X-Api-Key", "other-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isTooManyRequests());
+        release.countDown();
+        first.join();
+        verify(bulkImportService, never()).importReviews(eq("other"), any(InputStream.class));
+    }
+}
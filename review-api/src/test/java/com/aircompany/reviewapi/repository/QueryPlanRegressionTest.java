@@ -0,0 +1,467 @@
+package com.aircompany.reviewapi.repository;
+
+import com.aircompany.reviewapi.controller.PublicReviewController;
+import com.aircompany.reviewapi.dto.CursorPage;
+import com.aircompany.reviewapi.dto.PublicReviewDto;
+import com.aircompany.reviewapi.dto.SubmittedAtRange;
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.ReviewState;
+import com.aircompany.reviewapi.service.ContentVersions;
+import com.aircompany.reviewapi.service.FlightService;
+import com.aircompany.reviewapi.service.PublicListingCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the hot queries against a seeded PostgreSQL migrated from db/init, and fails when the plan
+// of one of them reads review or flight with a Seq Scan. Each query is EXPLAINed with the
+// parameter values Hibernate bound to it, so plans are the custom plans the application gets
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/init",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FlightService.class)
+class QueryPlanRegressionTest {
+
+    private static final Set<String> TABLES = Set.of("review", "flight");
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    // 20k flights and 200k reviews over two years: 80% published, one review in 500 mentions lost luggage
+    private static final String SEED_FLIGHTS = """
+            INSERT INTO flight (id, flight_number, company_name, origin, destination, flight_date)
+            SELECT gen_random_uuid(),
+                   (ARRAY['AF', 'LH', 'BA', 'KL', 'EK'])[1 + g % 5] || (1000 + g / 5),
+                   (ARRAY['Air France', 'Lufthansa', 'British Airways', 'KLM', 'Emirates'])[1 + g % 5],
+                   'Origin ' || g % 40, 'Destination ' || g % 60,
+                   DATE '2024-01-01' + g % 730
+            FROM generate_series(1, 20000) AS g""";
+    private static final String SEED_REVIEWS = """
+            INSERT INTO review (id, customer_name, customer_email, flight_number, rating, description,
+                                submitted_at, state, company_name, response_text, response_at)
+            SELECT gen_random_uuid(), 'Customer ' || g, 'customer' || g || '@example.com',
+                   (ARRAY['AF', 'LH', 'BA', 'KL', 'EK'])[1 + g % 5] || (1000 + (g / 5) % 4000),
+                   1 + g % 5,
+                   CASE WHEN g % 499 = 0 THEN 'Lost luggage on the way back ' ELSE 'Smooth flight, friendly crew ' END
+                       || repeat('and a few more words about the trip ', 4),
+                   TIMESTAMPTZ '2024-01-01 00:00:00+00' + (g * 7919 % 63072000) * interval '1 second',
+                   CASE WHEN (g / 5) % 20 < 16 THEN 'PUBLISHED'
+                        ELSE (ARRAY['SUBMITTED', 'TREATED', 'REJECTED', 'SUBMITTED'])[1 + (g / 5) % 4] END,
+                   (ARRAY['Air France', 'Lufthansa', 'British Airways', 'KLM', 'Emirates'])[1 + g % 5],
+                   NULL, NULL
+            FROM generate_series(1, 200000) AS g""";
+    // flight numbers of the seed are unique, so each review has exactly one flight
+    private static final String SEED_REVIEW_FLIGHTS = """
+            UPDATE review r SET flight_id = f.id FROM flight f WHERE f.flight_number = r.flight_number""";
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private ContentVersionRepository contentVersionRepository;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlanRecorder planRecorder;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/init").load().migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // no content_version bump per seeded row
+            statement.execute("SET session_replication_role = replica");
+            statement.execute(SEED_FLIGHTS);
+            statement.execute(SEED_REVIEWS);
+            statement.execute(SEED_REVIEW_FLIGHTS);
+            statement.execute("ANALYZE");
+            vacuumUntilAllVisible(statement);
+        }
+    }
+
+    // Index-only scans are costed from the visibility map, which VACUUM may take a few passes to
+    // fill right after the seed; a long-lived table is mostly all-visible
+    private static void vacuumUntilAllVisible(Statement statement) throws SQLException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            statement.execute("VACUUM review");
+            try (ResultSet rs = statement.executeQuery("SELECT relallvisible >= relpages FROM pg_class WHERE relname = 'review'")) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    return;
+                }
+            }
+            statement.execute("SELECT pg_sleep(0.1)");
+        }
+        throw new IllegalStateException("review pages still not all-visible after VACUUM");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        planRecorder.clear();
+    }
+
+    @Test
+    void publicListing_shouldNotSeqScan() {
+        // Given
+        SubmittedAtRange day = SubmittedAtRange.of("2025-06-15", null, null, null, ZONE);
+        SubmittedAtRange month = SubmittedAtRange.of(null, "2025-03-01", "2025-03-31", null, ZONE);
+        PageRequest latest = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("submittedAt")));
+        PageRequest deep = PageRequest.of(50, 10, Sort.by(Sort.Order.desc("submittedAt")));
+
+        // When
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null, latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null, deep);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, "AF12", null, null, null, latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, null, day.from(), day.to(), latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, "LH", null, month.from(), month.to(), latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, null, month.from(), null, latest);
+
+        // Then
+        assertNoSeqScan();
+    }
+
+    @Test
+    void publicListing_shouldUseStateIndexForCustomAndGenericPlans() throws SQLException {
+        // Given
+        PageRequest latest = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("submittedAt")));
+        String genericPlan;
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            // what a statement the driver prepared server-side gets: state is a parameter at planning time
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+            statement.execute("PREPARE latest(varchar) AS SELECT id, submitted_at FROM review WHERE state = $1 " +
+                    "ORDER BY submitted_at DESC, id LIMIT 10");
+            try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE latest('PUBLISHED')")) {
+                rs.next();
+                genericPlan = rs.getString(1);
+            }
+        }
+
+        // When
+        reviewRepository.findFirstByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null, latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null, latest);
+
+        // Then
+        assertIndexUsed(planRecorder.plans(), "idx_review_state_submitted_at_id");
+        assertIndexUsed(List.of(new PlanRecorder.Plan("PREPARE latest", genericPlan)), "idx_review_state_submitted_at_id");
+    }
+
+    @Test
+    void publicSearch_shouldNotSeqScan() {
+        // Given
+        SubmittedAtRange month = SubmittedAtRange.of(null, "2025-03-01", "2025-03-31", null, ZONE);
+        PageRequest latest = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("submittedAt")));
+
+        // When
+        reviewRepository.searchByStateAndFilters(ReviewState.PUBLISHED, "luggage", null, null, null, latest);
+        reviewRepository.searchByStateAndFilters(ReviewState.PUBLISHED, "luggage", "BA", month.from(), month.to(), latest);
+        reviewRepository.findByStateAndFilters(ReviewState.PUBLISHED, null, "lost luggage", null, null, latest);
+
+        // Then
+        assertNoSeqScan();
+    }
+
+    @Test
+    void publicKeysetPages_shouldNotSeqScan() {
+        // Given
+        SubmittedAtRange day = SubmittedAtRange.of("2025-06-15", null, null, null, ZONE);
+        PageRequest limit = PageRequest.of(0, 21);
+        OffsetDateTime cursor = OffsetDateTime.parse("2025-01-10T12:00:00Z");
+
+        // When
+        reviewRepository.findFirstByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null, limit);
+        reviewRepository.findFirstByStateAndFilters(ReviewState.PUBLISHED, "KL", null, day.from(), day.to(), limit);
+        List<PlanRecorder.Plan> firstPages = planRecorder.plans();
+        planRecorder.clear();
+        reviewRepository.findNextByStateAndFilters(ReviewState.PUBLISHED, null, null, null, null,
+                cursor, UUID.randomUUID(), limit);
+        reviewRepository.findNextByStateAndFilters(ReviewState.PUBLISHED, "EK", null, null, null,
+                cursor, UUID.randomUUID(), limit);
+
+        // Then
+        assertNoSeqScan(firstPages);
+        assertNoSeqScan();
+        // the cursor starts the index scan, rather than filtering every newer row like an OFFSET
+        assertIndexCondOn("submitted_at");
+    }
+
+    @Test
+    void flightLookups_shouldNotSeqScan() {
+        // When
+        flightRepository.findByFlightNumberAndFlightDate("AF1234", LocalDate.of(2025, 3, 16));
+        // BA3456 does not fly on that date
+        List<Flight> pairs = flightRepository.findByFlightNumberAndFlightDatePairs(
+                new String[] {"AF1234", "LH2345", "BA3456"},
+                new LocalDate[] {LocalDate.of(2025, 3, 16), LocalDate.of(2024, 6, 5), LocalDate.of(2024, 6, 5)});
+        flightRepository.findAllById(List.of(UUID.randomUUID(), UUID.randomUUID()));
+        // change feed of the search index: nothing written after the seed
+        flightRepository.findByUpdatedAtAfter(OffsetDateTime.now());
+
+        // Then
+        assertEquals(2, pairs.size());
+        assertNoSeqScan();
+    }
+
+    @Test
+    void publicListingPages_shouldResolveFlightsInOneQuery() throws IOException {
+        // Given
+        // content versions never polled: no conditional GET and no response cache, every call renders
+        ContentVersions contentVersions = new ContentVersions(contentVersionRepository, event -> { });
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        PublicListingCache listingCache = new PublicListingCache(objectMapper, new SimpleMeterRegistry(), 1 << 20);
+        PublicReviewController controller = new PublicReviewController(null, reviewRepository, flightService, null,
+                contentVersions, listingCache, "public, max-age=0", ZONE);
+
+        // When
+        cacheManager.getCache(FlightService.FLIGHTS_CACHE).clear();
+        JsonNode offsetPage = objectMapper.readTree(controller.getPublicReviews(
+                0, 20, "submittedAt,desc", null, null, null, null, null, null, null).getBody());
+        long offsetFlightQueries = flightQueries();
+        planRecorder.clear();
+        cacheManager.getCache(FlightService.FLIGHTS_CACHE).clear();
+        CursorPage<PublicReviewDto> firstPage = controller.getPublicReviewsByCursor(
+                "", 20, null, null, null, null, null, null, null);
+        long firstPageFlightQueries = flightQueries();
+        planRecorder.clear();
+        cacheManager.getCache(FlightService.FLIGHTS_CACHE).clear();
+        CursorPage<PublicReviewDto> nextPage = controller.getPublicReviewsByCursor(
+                firstPage.nextCursor(), 20, null, null, null, null, null, null, null);
+        long nextPageFlightQueries = flightQueries();
+
+        // Then
+        // the latest reviews are on different flights, so a lookup per review would run one query each
+        assertEquals(20, offsetPage.get("content").size());
+        assertTrue(offsetPage.get("content").get(0).has("flightNumber"));
+        assertEquals(1, offsetFlightQueries);
+        assertEquals(20, firstPage.content().size());
+        assertTrue(firstPage.content().stream().map(PublicReviewDto::flightNumber).distinct().count() > 1);
+        assertEquals(1, firstPageFlightQueries);
+        assertEquals(20, nextPage.content().size());
+        assertEquals(1, nextPageFlightQueries);
+        assertNoSeqScan();
+    }
+
+    private long flightQueries() {
+        return planRecorder.plans().stream()
+                .filter(plan -> plan.sql().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").contains(" from flight "))
+                .count();
+    }
+
+    private void assertNoSeqScan() {
+        assertNoSeqScan(planRecorder.plans());
+    }
+
+    private static void assertNoSeqScan(List<PlanRecorder.Plan> plans) {
+        assertFalse(plans.isEmpty(), "no query explained");
+        for (PlanRecorder.Plan plan : plans) {
+            for (JsonNode node : plan.nodes()) {
+                String relation = node.path("Relation Name").asText();
+                assertFalse("Seq Scan".equals(node.get("Node Type").asText()) && TABLES.contains(relation),
+                        "Seq Scan on " + relation + " for:\n" + plan.sql() + "\n" + plan.json());
+            }
+        }
+    }
+
+    private void assertIndexCondOn(String column) {
+        List<PlanRecorder.Plan> plans = planRecorder.plans();
+        assertFalse(plans.isEmpty(), "no query explained");
+        for (PlanRecorder.Plan plan : plans) {
+            assertTrue(plan.nodes().stream()
+                            .filter(node -> "review".equals(node.path("Relation Name").asText()))
+                            .anyMatch(node -> node.path("Index Cond").asText().contains(column)),
+                    "no Index Cond on review." + column + " for:\n" + plan.sql() + "\n" + plan.json());
+        }
+    }
+
+    private static void assertIndexUsed(List<PlanRecorder.Plan> plans, String index) {
+        assertFalse(plans.isEmpty(), "no query explained");
+        for (PlanRecorder.Plan plan : plans) {
+            assertTrue(plan.nodes().stream().anyMatch(node -> index.equals(node.path("Index Name").asText())),
+                    index + " not used for:\n" + plan.sql() + "\n" + plan.json());
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            // durability is of no use for a throwaway database and makes seeding slow
+            return EmbeddedPostgres.builder()
+                    .setServerConfig("fsync", "off")
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @TestConfiguration
+    static class PlanRecorderConfig {
+
+        @Bean
+        static PlanRecorder planRecorder() {
+            return new PlanRecorder();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(FlightService.FLIGHTS_CACHE);
+        }
+    }
+
+    // Wraps the DataSource: each SELECT on the watched tables is EXPLAINed on the same connection,
+    // with the same parameters, right before it runs
+    static class PlanRecorder implements BeanPostProcessor {
+
+        record Plan(String sql, String json) {
+            List<JsonNode> nodes() {
+                try {
+                    return new ObjectMapper().readTree(json).findParents("Node Type");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        private record Binding(Method method, Object[] args) {
+        }
+
+        private final List<Plan> plans = new CopyOnWriteArrayList<>();
+
+        List<Plan> plans() {
+            return List.copyOf(plans);
+        }
+
+        void clear() {
+            plans.clear();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recording(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return recording(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && watched((String) args[0])) {
+                            return recording(connection, (PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recording(Connection connection, PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            bindings.add(new Binding(method, args));
+                        } else if (method.getName().equals("clearParameters")) {
+                            bindings.clear();
+                        } else if (method.getName().equals("executeQuery") && args == null) {
+                            plans.add(new Plan(sql, explain(connection, sql, bindings)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static String explain(Connection connection, String sql, List<Binding> bindings) throws Throwable {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (Binding binding : bindings) {
+                    invoke(explain, binding.method(), binding.args());
+                }
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        }
+
+        private static boolean watched(String sql) {
+            String normalized = sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+            return normalized.startsWith("select") && TABLES.stream().anyMatch(t -> normalized.contains(" from " + t + " "));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
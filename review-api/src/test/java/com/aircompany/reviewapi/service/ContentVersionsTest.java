@@ -0,0 +1,151 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.ContentVersion;
+import com.aircompany.reviewapi.repository.ContentVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentVersionsTest {
+
+    private static final OffsetDateTime REVIEWS_UPDATED = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+    private static final OffsetDateTime FLIGHTS_UPDATED = OffsetDateTime.parse("2024-01-10T08:00:00Z");
+
+    @Mock
+    private ContentVersionRepository contentVersionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ContentVersions contentVersions;
+
+    @BeforeEach
+    void setUp() {
+        contentVersions = new ContentVersions(contentVersionRepository, eventPublisher);
+    }
+
+    @Test
+    void validators_shouldBeEmptyBeforeFirstRefresh() {
+        // When
+        Optional<ContentVersions.Validators> validators = contentVersions.validators(ContentVersions.FLIGHTS);
+
+        // Then
+        assertTrue(validators.isEmpty());
+        verifyNoInteractions(contentVersionRepository);
+    }
+
+    @Test
+    void validators_shouldCombineVersionsAndLatestUpdate() {
+        // Given
+        when(contentVersionRepository.findAll()).thenReturn(List.of(
+                new ContentVersion(ContentVersions.PUBLISHED_REVIEWS, 12, REVIEWS_UPDATED),
+                new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)));
+
+        // When
+        contentVersions.refresh();
+        ContentVersions.Validators validators = contentVersions
+                .validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS).orElseThrow();
+
+        // Then
+        assertEquals("\"12-3\"", validators.etag());
+        assertEquals(REVIEWS_UPDATED.toInstant().toEpochMilli(), validators.lastModified());
+    }
+
+    @Test
+    void validators_shouldChangeAfterRefreshWithNewVersion() {
+        // Given
+        when(contentVersionRepository.findAll())
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)))
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 4, REVIEWS_UPDATED)));
+
+        // When
+        contentVersions.refresh();
+        String before = contentVersions.validators(ContentVersions.FLIGHTS).orElseThrow().etag();
+        contentVersions.refresh();
+        String after = contentVersions.validators(ContentVersions.FLIGHTS).orElseThrow().etag();
+
+        // Then
+        assertEquals("\"3\"", before);
+        assertEquals("\"4\"", after);
+    }
+
+    @Test
+    void validators_shouldBeEmptyWhenAContentIsUnknown() {
+        // Given
+        when(contentVersionRepository.findAll())
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)));
+
+        // When
+        contentVersions.refresh();
+
+        // Then
+        assertTrue(contentVersions.validators(ContentVersions.PUBLISHED_REVIEWS, ContentVersions.FLIGHTS).isEmpty());
+    }
+
+    @Test
+    void refresh_shouldPublishChangedContentsOnly() {
+        // Given
+        when(contentVersionRepository.findAll())
+                .thenReturn(List.of(
+                        new ContentVersion(ContentVersions.PUBLISHED_REVIEWS, 12, REVIEWS_UPDATED),
+                        new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)))
+                .thenReturn(List.of(
+                        new ContentVersion(ContentVersions.PUBLISHED_REVIEWS, 13, REVIEWS_UPDATED),
+                        new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)));
+
+        // When
+        contentVersions.refresh();
+        contentVersions.refresh();
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(new ContentChangedEvent(Set.of(ContentVersions.PUBLISHED_REVIEWS)));
+    }
+
+    @Test
+    void refresh_shouldPublishBeforeServingNewVersions() {
+        // Given
+        when(contentVersionRepository.findAll())
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)))
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 4, REVIEWS_UPDATED)));
+        List<String> seenByListener = new ArrayList<>();
+        doAnswer(invocation -> seenByListener.add(
+                contentVersions.validators(ContentVersions.FLIGHTS).orElseThrow().etag()))
+                .when(eventPublisher).publishEvent(any(ContentChangedEvent.class));
+
+        // When
+        contentVersions.refresh();
+        contentVersions.refresh();
+
+        // Then: listeners clear their caches while the previous ETag is still served
+        assertEquals(List.of("\"3\""), seenByListener);
+        assertEquals("\"4\"", contentVersions.validators(ContentVersions.FLIGHTS).orElseThrow().etag());
+    }
+
+    @Test
+    void refresh_shouldNotPublishWhenNothingChanged() {
+        // Given
+        when(contentVersionRepository.findAll())
+                .thenReturn(List.of(new ContentVersion(ContentVersions.FLIGHTS, 3, FLIGHTS_UPDATED)));
+
+        // When
+        contentVersions.refresh();
+        contentVersions.refresh();
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+}
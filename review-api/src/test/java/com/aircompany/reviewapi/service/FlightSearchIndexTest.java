@@ -0,0 +1,171 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSearchIndexTest {
+
+    private static final OffsetDateTime LOADED = OffsetDateTime.parse("2024-03-01T10:00:00Z");
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightSearchIndex index;
+    private Flight af1234;
+    private Flight af1235;
+    private Flight lh400;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new FlightSearchIndex(flightRepository, 3, meterRegistry);
+        af1234 = flight("AF1234", "Paris Charles de Gaulle", "Montréal YUL", LocalDate.of(2024, 2, 10));
+        af1235 = flight("AF1235", "Montréal YUL", "Paris Charles de Gaulle", LocalDate.of(2024, 2, 12));
+        lh400 = flight("LH400", "Frankfurt FRA", "New York JFK", LocalDate.of(2024, 2, 11));
+    }
+
+    @Test
+    void search_shouldMatchFlightNumberPrefix() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, lh400, af1235));
+        index.load();
+
+        // When
+        List<Flight> flights = index.search("af12", 10);
+
+        // Then
+        assertEquals(List.of(af1234, af1235), flights);
+        assertEquals(3.0, meterRegistry.get("reviews.flight.search.size").gauge().value());
+    }
+
+    @Test
+    void search_shouldMatchAnyWordOfAirportIgnoringCaseAndAccents() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, lh400, af1235));
+        index.load();
+
+        // When & Then
+        assertEquals(List.of(af1235, af1234), index.search("MONTREAL", 10));
+        assertEquals(List.of(af1235, af1234), index.search("de gau", 10));
+        assertEquals(List.of(lh400), index.search("jfk", 10));
+        assertEquals(List.of(), index.search("yyz", 10));
+    }
+
+    @Test
+    void search_shouldListEachFlightOnceAndStopAtLimit() {
+        // Given: "p" matches every flight, some of them through several terms
+        Flight ba300 = flight("BA300", "Paris Orly", "London LHR", LocalDate.of(2024, 2, 13));
+        Flight pa301 = flight("PA301", "Pau", "Paris Orly", LocalDate.of(2024, 2, 9));
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, af1235, ba300, pa301));
+        index.load();
+
+        // When
+        List<Flight> flights = index.search("p", 10);
+
+        // Then: capped at max-results
+        assertEquals(3, flights.size());
+        assertEquals(3, Set.copyOf(flights).size());
+        // the flights of one term most recent first
+        assertEquals(List.of(ba300), index.search("paris o", 1));
+    }
+
+    @Test
+    void search_shouldReturnNothingForBlankPrefix() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234));
+        index.load();
+
+        // When & Then
+        assertTrue(index.search(" - ", 10).isEmpty());
+    }
+
+    @Test
+    void onContentChanged_shouldReadOnlyRowsWrittenSinceLastLoad() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, lh400));
+        index.load();
+        af1235.setUpdatedAt(LOADED.plusMinutes(1));
+        when(flightRepository.findByUpdatedAtAfter(LOADED.minusMinutes(5))).thenReturn(List.of(af1235));
+        when(flightRepository.count()).thenReturn(3L);
+
+        // When
+        index.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.FLIGHTS)));
+
+        // Then
+        assertEquals(List.of(af1234, af1235), index.search("af", 10));
+        verify(flightRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onContentChanged_shouldReplaceUpdatedFlight() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, lh400));
+        index.load();
+        Flight renamed = flight("AF1234", "Lyon LYS", "Montréal YUL", af1234.getFlightDate());
+        renamed.setId(af1234.getId());
+        when(flightRepository.findByUpdatedAtAfter(any(OffsetDateTime.class))).thenReturn(List.of(renamed));
+        when(flightRepository.count()).thenReturn(2L);
+
+        // When
+        index.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.FLIGHTS)));
+
+        // Then
+        assertEquals(List.of(renamed), index.search("lyon", 10));
+        assertTrue(index.search("paris", 10).isEmpty());
+    }
+
+    @Test
+    void onContentChanged_shouldReloadWhenFlightsWereDeleted() {
+        // Given
+        when(flightRepository.findAll()).thenReturn(List.of(af1234, lh400), List.of(lh400));
+        index.load();
+        when(flightRepository.findByUpdatedAtAfter(any(OffsetDateTime.class))).thenReturn(List.of());
+        when(flightRepository.count()).thenReturn(1L);
+
+        // When
+        index.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.FLIGHTS)));
+
+        // Then
+        assertTrue(index.search("af", 10).isEmpty());
+        assertEquals(List.of(lh400), index.search("lh", 10));
+    }
+
+    @Test
+    void onContentChanged_shouldIgnoreOtherContents() {
+        // When
+        index.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.PUBLISHED_REVIEWS)));
+
+        // Then
+        verifyNoInteractions(flightRepository);
+    }
+
+    private static Flight flight(String number, String origin, String destination, LocalDate date) {
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber(number);
+        flight.setCompanyName("Air France");
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flight.setFlightDate(date);
+        flight.setUpdatedAt(LOADED);
+        return flight;
+    }
+}
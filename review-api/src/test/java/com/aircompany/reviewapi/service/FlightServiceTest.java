@@ -7,12 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,9 +29,14 @@ class FlightServiceTest {
     @Mock
     private FlightRepository flightRepository;
 
+    @Spy
+    private CaffeineCacheManager cacheManager = new CaffeineCacheManager(FlightService.FLIGHTS_CACHE);
+
     @InjectMocks
     private FlightService flightService;
 
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
     private Flight testFlight;
 
     @BeforeEach
@@ -37,6 +47,7 @@ class FlightServiceTest {
         testFlight.setCompanyName("Air France");
         testFlight.setOrigin("Paris");
         testFlight.setDestination("New York");
+        testFlight.setFlightDate(DATE);
         testFlight.setCreatedAt(OffsetDateTime.now());
     }
 
@@ -133,45 +144,43 @@ class FlightServiceTest {
     }
 
     @Test
-    void getFlightByFlightNumber_shouldReturnFlightWhenFound() {
+    void getFlight_shouldReturnFlightWhenFound() {
         // Given
-        String flightNumber = "AF123";
-        when(flightRepository.findByFlightNumber(flightNumber)).thenReturn(testFlight);
+        when(flightRepository.findByFlightNumberAndFlightDate("AF123", DATE)).thenReturn(testFlight);
 
         // When
-        Flight result = flightService.getFlightByFlightNumber(flightNumber);
+        Flight result = flightService.getFlight("AF123", DATE);
 
         // Then
         assertNotNull(result);
-        assertEquals(flightNumber, result.getFlightNumber());
-        verify(flightRepository, times(1)).findByFlightNumber(flightNumber);
+        assertEquals("AF123", result.getFlightNumber());
+        verify(flightRepository, times(1)).findByFlightNumberAndFlightDate("AF123", DATE);
     }
 
     @Test
-    void getFlightByFlightNumber_shouldReturnNullWhenNotFound() {
+    void getFlight_shouldReturnNullWhenNumberDoesNotFlyThatDay() {
         // Given
-        String flightNumber = "NONEXISTENT";
-        when(flightRepository.findByFlightNumber(flightNumber)).thenReturn(null);
+        when(flightRepository.findByFlightNumberAndFlightDate("AF123", DATE.plusDays(1))).thenReturn(null);
 
         // When
-        Flight result = flightService.getFlightByFlightNumber(flightNumber);
+        Flight result = flightService.getFlight("AF123", DATE.plusDays(1));
 
         // Then
         assertNull(result);
-        verify(flightRepository, times(1)).findByFlightNumber(flightNumber);
+        verify(flightRepository, times(1)).findByFlightNumberAndFlightDate("AF123", DATE.plusDays(1));
     }
 
     @Test
-    void getFlightByFlightNumber_shouldHandleNullInput() {
+    void getFlight_shouldHandleNullInput() {
         // Given
-        when(flightRepository.findByFlightNumber(null)).thenReturn(null);
+        when(flightRepository.findByFlightNumberAndFlightDate(null, null)).thenReturn(null);
 
         // When
-        Flight result = flightService.getFlightByFlightNumber(null);
+        Flight result = flightService.getFlight(null, null);
 
         // Then
         assertNull(result);
-        verify(flightRepository, times(1)).findByFlightNumber(null);
+        verify(flightRepository, times(1)).findByFlightNumberAndFlightDate(null, null);
     }
 
     @Test
@@ -187,4 +196,146 @@ class FlightServiceTest {
         assertTrue(result.isEmpty());
         verify(flightRepository, times(1)).findByCompanyName(null);
     }
+
+    @Test
+    void getFlights_shouldResolveExactlyThePairsInOneQuery() {
+        // Given
+        Flight otherFlight = flight("LH101", DATE.plusDays(1));
+        FlightService.FlightKey af = new FlightService.FlightKey("AF123", DATE);
+        FlightService.FlightKey lh = new FlightService.FlightKey("LH101", DATE.plusDays(1));
+        when(flightRepository.findByFlightNumberAndFlightDatePairs(any(String[].class), any(LocalDate[].class)))
+                .thenReturn(Arrays.asList(testFlight, otherFlight));
+
+        // When
+        Map<FlightService.FlightKey, Flight> result = flightService.getFlights(List.of(af, lh));
+
+        // Then
+        assertEquals(2, result.size());
+        assertSame(testFlight, result.get(af));
+        assertSame(otherFlight, result.get(lh));
+        verify(flightRepository).findByFlightNumberAndFlightDatePairs(
+                new String[] {"AF123", "LH101"}, new LocalDate[] {DATE, DATE.plusDays(1)});
+        verify(flightRepository, never()).findByFlightNumberAndFlightDate(any(), any());
+    }
+
+    @Test
+    void getFlights_shouldNotQueryForEmptyInput() {
+        // When
+        Map<FlightService.FlightKey, Flight> result = flightService.getFlights(Set.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void getFlightsByIds_shouldResolveAllFlightsInOneQuery() {
+        // Given
+        Flight otherFlight = flight("LH101", DATE);
+        when(flightRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(testFlight, otherFlight));
+
+        // When
+        Map<UUID, Flight> result = flightService.getFlightsByIds(Set.of(testFlight.getId(), otherFlight.getId()));
+
+        // Then
+        assertEquals(2, result.size());
+        assertSame(testFlight, result.get(testFlight.getId()));
+        assertSame(otherFlight, result.get(otherFlight.getId()));
+        verify(flightRepository, times(1)).findAllById(anyCollection());
+        verify(flightRepository, never()).findById(any());
+    }
+
+    @Test
+    void getFlightsByIds_shouldOnlyQueryFlightsMissingFromCache() {
+        // Given
+        cache(testFlight);
+
+        Flight otherFlight = flight("LH101", DATE);
+        when(flightRepository.findAllById(List.of(otherFlight.getId()))).thenReturn(Arrays.asList(otherFlight));
+
+        // When
+        Map<UUID, Flight> result = flightService.getFlightsByIds(List.of(testFlight.getId(), otherFlight.getId()));
+
+        // Then
+        assertEquals(2, result.size());
+        assertSame(testFlight, result.get(testFlight.getId()));
+        verify(flightRepository, times(1)).findAllById(List.of(otherFlight.getId()));
+    }
+
+    @Test
+    void getFlightsByIds_shouldNotQueryForEmptyInput() {
+        // When
+        Map<UUID, Flight> result = flightService.getFlightsByIds(Set.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void getFlight_shouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(flightRepository.findByFlightNumberAndFlightDate("AF123", DATE)).thenReturn(testFlight);
+
+        // When
+        Flight first = flightService.getFlight("AF123", DATE);
+        Flight second = flightService.getFlight("AF123", DATE);
+
+        // Then
+        assertSame(testFlight, first);
+        assertSame(testFlight, second);
+        verify(flightRepository, times(1)).findByFlightNumberAndFlightDate("AF123", DATE);
+    }
+
+    @Test
+    void getFlight_shouldNotCacheMissingFlights() {
+        // Given
+        when(flightRepository.findByFlightNumberAndFlightDate("NONEXISTENT", DATE)).thenReturn(null);
+
+        // When
+        flightService.getFlight("NONEXISTENT", DATE);
+        flightService.getFlight("NONEXISTENT", DATE);
+
+        // Then
+        verify(flightRepository, times(2)).findByFlightNumberAndFlightDate("NONEXISTENT", DATE);
+    }
+
+    @Test
+    void onContentChanged_shouldClearCacheWhenFlightsChanged() {
+        // Given
+        cache(testFlight);
+
+        // When
+        flightService.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.FLIGHTS)));
+
+        // Then
+        assertNull(cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(testFlight.getId()));
+        assertNull(cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(FlightService.FlightKey.of(testFlight)));
+    }
+
+    @Test
+    void onContentChanged_shouldKeepCacheWhenOnlyReviewsChanged() {
+        // Given
+        cache(testFlight);
+
+        // When
+        flightService.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.PUBLISHED_REVIEWS)));
+
+        // Then
+        assertNotNull(cacheManager.getCache(FlightService.FLIGHTS_CACHE).get(testFlight.getId()));
+    }
+
+    // through a listing lookup, which caches the flight under its id and its (number, date) pair
+    private void cache(Flight flight) {
+        when(flightRepository.findAllById(List.of(flight.getId()))).thenReturn(List.of(flight));
+        flightService.getFlightsByIds(List.of(flight.getId()));
+    }
+
+    private static Flight flight(String flightNumber, LocalDate flightDate) {
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber(flightNumber);
+        flight.setFlightDate(flightDate);
+        return flight;
+    }
 }
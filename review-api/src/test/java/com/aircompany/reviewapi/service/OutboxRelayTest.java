@@ -0,0 +1,186 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.model.OutboxEvent;
+import com.aircompany.reviewapi.repository.OutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private ReviewEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxRepository, eventPublisher, new ObjectMapper(),
+                new TransactionTemplate(transactionManager), meterRegistry, 3);
+    }
+
+    @Test
+    void relay_shouldPublishBatchAndDeleteRowsInOneTransaction() {
+        // Given
+        List<OutboxEvent> pending = outboxEvents(2, 0);
+        when(outboxRepository.lockNextBatch(3)).thenReturn(pending);
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Map<String, Object>>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher, times(1)).publishConfirmed(eventsCaptor.capture());
+        assertEquals(2, eventsCaptor.getValue().size());
+        assertEquals("NEW_REVIEW", eventsCaptor.getValue().get(0).get("event"));
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(2.0, meterRegistry.counter("reviews.outbox.relayed").count());
+    }
+
+    @Test
+    void relay_shouldKeepDrainingWhileBatchesAreFull() {
+        // Given
+        when(outboxRepository.lockNextBatch(3))
+                .thenReturn(outboxEvents(3, 0))
+                .thenReturn(outboxEvents(3, 3))
+                .thenReturn(outboxEvents(1, 6));
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxRepository, times(3)).lockNextBatch(3);
+        verify(eventPublisher, times(3)).publishConfirmed(anyList());
+        assertEquals(7.0, meterRegistry.counter("reviews.outbox.relayed").count());
+    }
+
+    @Test
+    void relay_shouldDoNothingWhenOutboxIsEmpty() {
+        // Given
+        when(outboxRepository.lockNextBatch(3)).thenReturn(List.of());
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(eventPublisher, never()).publishConfirmed(anyList());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void relay_shouldRollBackAndKeepRowsWhenPublishFails() {
+        // Given
+        when(outboxRepository.lockNextBatch(3)).thenReturn(outboxEvents(2, 0));
+        doThrow(new AmqpException("nacked")).when(eventPublisher).publishConfirmed(anyList());
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(1.0, meterRegistry.counter("reviews.outbox.failures").count());
+        assertEquals(0.0, meterRegistry.counter("reviews.outbox.relayed").count());
+    }
+
+    @Test
+    void relay_shouldMoveUnreadableEventToDeadLetterAndRelayTheRest() {
+        // Given
+        List<OutboxEvent> pending = outboxEvents(3, 0);
+        pending.get(0).setPayload("{not json");
+        when(outboxRepository.lockNextBatch(3)).thenReturn(pending, List.of());
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxRepository).copyToDeadLetter(eq(1L), anyString());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Map<String, Object>>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishConfirmed(eventsCaptor.capture());
+        assertEquals(2, eventsCaptor.getValue().size());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(1.0, meterRegistry.counter("reviews.outbox.dead-lettered").count());
+        assertEquals(2.0, meterRegistry.counter("reviews.outbox.relayed").count());
+        assertEquals(0.0, meterRegistry.counter("reviews.outbox.failures").count());
+    }
+
+    @Test
+    void relay_shouldOnlyDeleteWhenWholeBatchIsUnreadable() {
+        // Given
+        List<OutboxEvent> pending = outboxEvents(1, 0);
+        pending.get(0).setPayload("");
+        when(outboxRepository.lockNextBatch(3)).thenReturn(pending);
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(eventPublisher, never()).publishConfirmed(anyList());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(0.0, meterRegistry.counter("reviews.outbox.relayed").count());
+        assertEquals(1.0, meterRegistry.counter("reviews.outbox.dead-lettered").count());
+    }
+
+    @Test
+    void relay_shouldNotCountDeadLettersOfRolledBackBatch() {
+        // Given
+        List<OutboxEvent> pending = outboxEvents(2, 0);
+        pending.get(0).setPayload("{not json");
+        when(outboxRepository.lockNextBatch(3)).thenReturn(pending);
+        doThrow(new AmqpException("nacked")).when(eventPublisher).publishConfirmed(anyList());
+
+        // When
+        outboxRelay.relay();
+
+        // Then: the dead-letter copy was rolled back too, the next poll moves and counts it
+        verify(transactionManager, times(1)).rollback(any());
+        assertEquals(0.0, meterRegistry.counter("reviews.outbox.dead-lettered").count());
+        assertEquals(0.0, meterRegistry.counter("reviews.outbox.relayed").count());
+    }
+
+    private List<OutboxEvent> outboxEvents(int count, int firstId) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            UUID reviewId = UUID.randomUUID();
+            OutboxEvent event = new OutboxEvent(reviewId, "NEW_REVIEW",
+                    "{\"event\":\"NEW_REVIEW\",\"reviewId\":\"" + reviewId + "\"}");
+            event.setId((long) firstId + i);
+            events.add(event);
+        }
+        return events;
+    }
+}
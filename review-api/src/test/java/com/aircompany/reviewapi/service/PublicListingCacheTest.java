@@ -0,0 +1,87 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.dto.SubmittedAtRange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicListingCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PublicListingCache listingCache;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listingCache = new PublicListingCache(new ObjectMapper(), meterRegistry, 1_000_000);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldRenderOncePerKey() {
+        // Given
+        PublicListingCache.Key key = key("\"12-3\"", null);
+
+        // When
+        byte[] first = listingCache.get(key, this::render);
+        byte[] second = listingCache.get(key, this::render);
+
+        // Then
+        assertEquals(1, renders.get());
+        assertSame(first, second);
+        assertEquals("{\"page\":1}", new String(first, StandardCharsets.UTF_8));
+        assertEquals(0.5, meterRegistry.get("reviews.listing.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void get_shouldKeepFiltersAndVersionsApart() {
+        // When
+        listingCache.get(key("\"12-3\"", null), this::render);
+        listingCache.get(key("\"12-3\"", "AF123"), this::render);
+        listingCache.get(key("\"13-3\"", null), this::render);
+
+        // Then
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void get_shouldBypassCacheWithoutKey() {
+        // When
+        listingCache.get(null, this::render);
+        listingCache.get(null, this::render);
+
+        // Then
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void onContentChanged_shouldDropAllPages() {
+        // Given
+        PublicListingCache.Key key = key("\"12-3\"", null);
+        listingCache.get(key, this::render);
+
+        // When
+        listingCache.onContentChanged(new ContentChangedEvent(Set.of(ContentVersions.PUBLISHED_REVIEWS)));
+        listingCache.get(key, this::render);
+
+        // Then
+        assertEquals(2, renders.get());
+    }
+
+    private Object render() {
+        return Map.of("page", renders.incrementAndGet());
+    }
+
+    private static PublicListingCache.Key key(String version, String flightNumber) {
+        return new PublicListingCache.Key(version, 0, 10, "submittedAt,desc", flightNumber, null, SubmittedAtRange.ALL);
+    }
+}
@@ -0,0 +1,288 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.dto.BulkImportResult;
+import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.OutboxEvent;
+import com.aircompany.reviewapi.model.Review;
+import com.aircompany.reviewapi.repository.OutboxRepository;
+import com.aircompany.reviewapi.repository.ReviewBatchRepository;
+import com.aircompany.reviewapi.repository.ReviewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewBulkImportServiceTest {
+
+    private static final LocalDate FLIGHT_DATE = LocalDate.of(2024, 1, 15);
+    private static final String PARTNER = "acme-travel";
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private ReviewBatchRepository batchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReviewBulkImportService bulkImportService;
+    private int nextExternalId;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        ReviewService reviewService = new ReviewService(reviewRepository, outboxRepository, objectMapper, flightService);
+        bulkImportService = new ReviewBulkImportService(objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                flightService, reviewService, batchRepository,
+                new TransactionTemplate(transactionManager), 2, 10, 100);
+    }
+
+    @Test
+    void importReviews_shouldInsertJsonArrayInChunksWithEvents() throws IOException {
+        // Given
+        stubFlights(flight("AF123"));
+        String body = "[" + review("AF123", 5) + "," + review("AF123", 4) + "," + review("AF123", 3) + "]";
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(3, result.accepted());
+        assertEquals(0, result.rejected());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Review>> reviewsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).insertReviews(reviewsCaptor.capture());
+        assertEquals(List.of(2, 1), reviewsCaptor.getAllValues().stream().map(List::size).toList());
+        Review first = reviewsCaptor.getAllValues().get(0).get(0);
+        assertEquals("Air France", first.getCompanyName());
+        assertEquals(5, first.getRating());
+        assertEquals(PARTNER, first.getSourcePartner());
+        assertEquals("row-0", first.getExternalId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).insertOutboxEvents(eventsCaptor.capture());
+        OutboxEvent event = eventsCaptor.getAllValues().get(0).get(0);
+        assertEquals(first.getId(), event.getAggregateId());
+        assertTrue(event.getPayload().contains("\"origin\":\"Paris CDG\""));
+        verify(transactionManager, times(2)).commit(any());
+        verify(reviewRepository, never()).save(any());
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void importReviews_shouldReadNdjson() throws IOException {
+        // Given
+        stubFlights(flight("AF123"));
+        String body = review("AF123", 5) + "\n" + review("AF123", 1) + "\n";
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(2, result.accepted());
+        verify(batchRepository, times(1)).insertReviews(anyList(2));
+    }
+
+    @Test
+    void importReviews_shouldResolveEachFlightOnce() throws IOException {
+        // Given
+        stubFlights(flight("AF123"), flight("LH101"));
+        String body = String.join("\n", review("AF123", 5), review("LH101", 4), review("AF123", 3),
+                review("LH101", 2), review("XX999", 1), review("XX999", 1));
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<FlightService.FlightKey>> lookups = ArgumentCaptor.forClass(Collection.class);
+        verify(flightService, times(2)).getFlights(lookups.capture());
+        assertEquals(Set.of(key("AF123"), key("LH101")), Set.copyOf(lookups.getAllValues().get(0)));
+        assertEquals(Set.of(key("XX999")), Set.copyOf(lookups.getAllValues().get(1)));
+        verify(flightService, never()).getFlight(any(), any());
+        assertEquals(4, result.accepted());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(
+                new BulkImportResult.RowError(4, List.of("Flight not found with number: XX999 on 2024-01-15")),
+                new BulkImportResult.RowError(5, List.of("Flight not found with number: XX999 on 2024-01-15"))), result.errors());
+    }
+
+    @Test
+    void importReviews_shouldReportInvalidRowsAndKeepValidOnes() throws IOException {
+        // Given
+        stubFlights(flight("AF123"));
+        String body = "[" + review("AF123", 5) + ","
+                + "{\"customerName\":\"\",\"customerEmail\":\"not-an-email\",\"flightNumber\":\"AF123\",\"flightDate\":\"2024-01-15\",\"rating\":9,\"description\":\"x\"},"
+                + "{\"rating\":\"five\"},"
+                + "42]";
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(1, result.accepted());
+        assertEquals(3, result.rejected());
+        assertEquals(1, result.errors().get(0).row());
+        assertEquals(List.of("customerEmail: must be a well-formed email address",
+                "customerName: must not be blank",
+                "externalId: must not be blank",
+                "rating: must be less than or equal to 5"), result.errors().get(0).messages());
+        assertEquals(2, result.errors().get(1).row());
+        assertTrue(result.errors().get(1).messages().get(0).startsWith("Invalid review:"));
+        assertEquals(new BulkImportResult.RowError(3, List.of("Review must be a JSON object")), result.errors().get(2));
+    }
+
+    @Test
+    void importReviews_shouldStopAtMalformedJsonAndKeepRowsBefore() throws IOException {
+        // Given
+        stubFlights(flight("AF123"));
+        String body = review("AF123", 5) + "\n{\"customerName\": oops\n" + review("AF123", 4);
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(1, result.accepted());
+        assertEquals(1, result.rejected());
+        assertEquals(1, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).messages().get(0).startsWith("Malformed JSON:"));
+    }
+
+    @Test
+    void importReviews_shouldCapReportedErrors() throws IOException {
+        // Given
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            body.append("{}\n");
+        }
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body.toString()));
+
+        // Then
+        assertEquals(0, result.accepted());
+        assertEquals(25, result.rejected());
+        assertEquals(10, result.errors().size());
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    void importReviews_shouldSkipRowsAlreadyImportedByThePartner() throws IOException {
+        // Given: row-1 came with an earlier import, row-2 is repeated within this one
+        stubFlights(flight("AF123"));
+        when(batchRepository.findImportedExternalIds(eq(PARTNER), anyCollection())).thenReturn(Set.of("row-1"));
+        String body = String.join("\n", review("AF123", 5, "row-1"), review("AF123", 4, "row-2"),
+                review("AF123", 3, "row-2"));
+        bulkImportService = new ReviewBulkImportService(new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(), flightService,
+                new ReviewService(reviewRepository, outboxRepository, new ObjectMapper().findAndRegisterModules(), flightService),
+                batchRepository, new TransactionTemplate(transactionManager), 10, 10, 100);
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(1, result.accepted());
+        assertEquals(2, result.duplicates());
+        assertEquals(0, result.rejected());
+        InOrder inOrder = inOrder(batchRepository);
+        inOrder.verify(batchRepository).lockPartner(PARTNER);
+        inOrder.verify(batchRepository).findImportedExternalIds(PARTNER, Set.of("row-1", "row-2"));
+        inOrder.verify(batchRepository).insertReviews(argThat(reviews ->
+                reviews.size() == 1 && reviews.get(0).getExternalId().equals("row-2")));
+        inOrder.verify(batchRepository).insertOutboxEvents(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void importReviews_shouldRejectRowsPastMaxRows() throws IOException {
+        // Given
+        stubFlights(flight("AF123"));
+        bulkImportService = new ReviewBulkImportService(new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(), flightService,
+                new ReviewService(reviewRepository, outboxRepository, new ObjectMapper().findAndRegisterModules(), flightService),
+                batchRepository, new TransactionTemplate(transactionManager), 10, 10, 2);
+        String body = String.join("\n", review("AF123", 5), review("AF123", 4), review("AF123", 3), review("AF123", 2));
+
+        // When
+        BulkImportResult result = bulkImportService.importReviews(PARTNER, stream(body));
+
+        // Then
+        assertEquals(2, result.accepted());
+        assertEquals(List.of(new BulkImportResult.RowError(2,
+                List.of("Import limited to 2 rows, send the rest in another import"))), result.errors());
+    }
+
+    private void stubFlights(Flight... flights) {
+        when(flightService.getFlights(anyCollection())).thenAnswer(invocation -> {
+            Collection<FlightService.FlightKey> keys = invocation.getArgument(0);
+            return List.of(flights).stream()
+                    .filter(f -> keys.contains(key(f.getFlightNumber())))
+                    .collect(java.util.stream.Collectors.toMap(f -> key(f.getFlightNumber()), f -> f));
+        });
+    }
+
+    private static List<Review> anyList(int size) {
+        return argThat(list -> list.size() == size);
+    }
+
+    private Flight flight(String flightNumber) {
+        Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
+        flight.setFlightNumber(flightNumber);
+        flight.setCompanyName(flightNumber.startsWith("AF") ? "Air France" : "Lufthansa");
+        flight.setOrigin("Paris CDG");
+        flight.setDestination("New York JFK");
+        flight.setFlightDate(FLIGHT_DATE);
+        return flight;
+    }
+
+    private static FlightService.FlightKey key(String flightNumber) {
+        return new FlightService.FlightKey(flightNumber, FLIGHT_DATE);
+    }
+
+    private String review(String flightNumber, int rating) {
+        return review(flightNumber, rating, "row-" + nextExternalId++);
+    }
+
+    private String review(String flightNumber, int rating, String externalId) {
+        return "{\"externalId\":\"" + externalId + "\",\"customerName\":\"John Doe\",\"customerEmail\":\"john@example.com\",\"flightNumber\":\""
+                + flightNumber + "\",\"flightDate\":\"2024-01-15\",\"rating\":" + rating + ",\"description\":\"Great flight!\"}";
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
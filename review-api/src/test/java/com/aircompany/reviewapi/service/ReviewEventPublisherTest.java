@@ -0,0 +1,67 @@
+package com.aircompany.reviewapi.service;
+
+import com.aircompany.reviewapi.config.RabbitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewEventPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReviewEventPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new ReviewEventPublisher(rabbitTemplate, meterRegistry, 1000);
+        // run the callback against the mock, as RabbitTemplate does on its dedicated channel
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class)))
+                .thenAnswer(invocation -> ((RabbitOperations.OperationsCallback<Object>) invocation.getArgument(0))
+                        .doInRabbit(rabbitTemplate));
+    }
+
+    @Test
+    void publishConfirmed_shouldSendBatchOnOneChannelAndWaitForConfirms() {
+        // Given
+        List<Map<String, Object>> events = List.of(Map.of("reviewId", "1"), Map.of("reviewId", "2"), Map.of("reviewId", "3"));
+
+        // When
+        publisher.publishConfirmed(events);
+
+        // Then
+        verify(rabbitTemplate, times(1)).invoke(any(RabbitOperations.OperationsCallback.class));
+        verify(rabbitTemplate, times(3)).convertAndSend(eq(RabbitConfig.EXCHANGE), eq(RabbitConfig.NEW_REVIEW_ROUTING_KEY), any(Object.class));
+        verify(rabbitTemplate, times(1)).waitForConfirmsOrDie(1000);
+        assertEquals(3.0, meterRegistry.counter("reviews.publisher.published").count());
+    }
+
+    @Test
+    void publishConfirmed_shouldPropagateNack() {
+        // Given
+        doThrow(new AmqpException("nacked")).when(rabbitTemplate).waitForConfirmsOrDie(anyLong());
+
+        // When & Then
+        assertThrows(AmqpException.class, () -> publisher.publishConfirmed(List.of(Map.of("reviewId", "1"))));
+        assertEquals(0.0, meterRegistry.counter("reviews.publisher.published").count());
+    }
+}
@@ -1,36 +1,42 @@
 package com.aircompany.reviewapi.service;
 
-import com.aircompany.reviewapi.config.RabbitConfig;
 import com.aircompany.reviewapi.dto.ReviewSubmissionDto;
 import com.aircompany.reviewapi.model.Flight;
+import com.aircompany.reviewapi.model.OutboxEvent;
 import com.aircompany.reviewapi.model.Review;
 import com.aircompany.reviewapi.model.ReviewState;
+import com.aircompany.reviewapi.repository.OutboxRepository;
 import com.aircompany.reviewapi.repository.ReviewRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReviewServiceTest {
 
+    private static final LocalDate FLIGHT_DATE = LocalDate.of(2024, 1, 15);
+
     @Mock
     private ReviewRepository reviewRepository;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxRepository outboxRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     @Mock
     private FlightService flightService;
@@ -39,26 +45,29 @@ class ReviewServiceTest {
 
     @BeforeEach
     void setUp() {
-        reviewService = new ReviewService(reviewRepository, rabbitTemplate, flightService);
+        reviewService = new ReviewService(reviewRepository, outboxRepository, objectMapper, flightService);
     }
 
     @Test
-    void submitReview_savesAndPublishesEvent() {
+    void submitReview_savesReviewAndOutboxEvent() {
         // Given
         ReviewSubmissionDto dto = new ReviewSubmissionDto();
         dto.setCustomerName("Alice");
         dto.setCustomerEmail("alice@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(FLIGHT_DATE);
         dto.setRating(5);
         dto.setDescription("Great flight.");
 
         Flight flight = new Flight();
+        flight.setId(UUID.randomUUID());
         flight.setFlightNumber("AF123");
+        flight.setFlightDate(FLIGHT_DATE);
         flight.setCompanyName("Air France");
         flight.setOrigin("New York");
         flight.setDestination("Paris");
 
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(flight);
+        when(flightService.getFlight("AF123", FLIGHT_DATE)).thenReturn(flight);
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -67,6 +76,7 @@ class ReviewServiceTest {
         // Then
         assertNotNull(saved.getId());
         assertEquals("AF123", saved.getFlightNumber());
+        assertEquals(flight.getId(), saved.getFlightId());
         assertEquals("Air France", saved.getCompanyName());
         assertEquals("Alice", saved.getCustomerName());
         assertEquals("alice@example.com", saved.getCustomerEmail());
@@ -75,9 +85,9 @@ class ReviewServiceTest {
         assertEquals(ReviewState.SUBMITTED, saved.getState());
         assertNotNull(saved.getSubmittedAt());
 
-        verify(flightService, times(1)).getFlightByFlightNumber("AF123");
+        verify(flightService, times(1)).getFlight("AF123", FLIGHT_DATE);
         verify(reviewRepository, times(1)).save(any(Review.class));
-        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitConfig.EXCHANGE), eq(RabbitConfig.NEW_REVIEW_ROUTING_KEY), any(Map.class));
+        verify(outboxRepository, times(1)).save(any(OutboxEvent.class));
     }
 
     @Test
@@ -87,29 +97,31 @@ class ReviewServiceTest {
         dto.setCustomerName("Alice");
         dto.setCustomerEmail("alice@example.com");
         dto.setFlightNumber("NONEXISTENT");
+        dto.setFlightDate(FLIGHT_DATE);
         dto.setRating(5);
         dto.setDescription("Great flight.");
 
-        when(flightService.getFlightByFlightNumber("NONEXISTENT")).thenReturn(null);
+        when(flightService.getFlight("NONEXISTENT", FLIGHT_DATE)).thenReturn(null);
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             reviewService.submitReview(dto);
         });
 
-        assertEquals("Flight not found with number: NONEXISTENT", exception.getMessage());
-        verify(flightService, times(1)).getFlightByFlightNumber("NONEXISTENT");
+        assertEquals("Flight not found with number: NONEXISTENT on 2024-01-15", exception.getMessage());
+        verify(flightService, times(1)).getFlight("NONEXISTENT", FLIGHT_DATE);
         verify(reviewRepository, never()).save(any(Review.class));
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Map.class));
+        verify(outboxRepository, never()).save(any(OutboxEvent.class));
     }
 
     @Test
-    void submitReview_shouldPublishCorrectEventData() {
+    void submitReview_shouldWriteCorrectEventDataToOutbox() throws Exception {
         // Given
         ReviewSubmissionDto dto = new ReviewSubmissionDto();
         dto.setCustomerName("Alice");
         dto.setCustomerEmail("alice@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(FLIGHT_DATE);
         dto.setRating(5);
         dto.setDescription("Great flight.");
 
@@ -119,23 +131,27 @@ class ReviewServiceTest {
         flight.setOrigin("New York");
         flight.setDestination("Paris");
 
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(flight);
+        when(flightService.getFlight("AF123", FLIGHT_DATE)).thenReturn(flight);
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
 
         // When
-        reviewService.submitReview(dto);
+        Review saved = reviewService.submitReview(dto);
 
         // Then
-        verify(rabbitTemplate, times(1)).convertAndSend(
-            eq(RabbitConfig.EXCHANGE), 
-            eq(RabbitConfig.NEW_REVIEW_ROUTING_KEY), 
-            eventCaptor.capture()
-        );
+        verify(outboxRepository, times(1)).save(outboxCaptor.capture());
+        OutboxEvent outboxEvent = outboxCaptor.getValue();
+        assertEquals(saved.getId(), outboxEvent.getAggregateId());
+        assertEquals("NEW_REVIEW", outboxEvent.getEventType());
 
         // Verify the event contains the correct data
-        assertNotNull(eventCaptor.getValue());
+        Map<String, Object> event = objectMapper.readValue(outboxEvent.getPayload(), new TypeReference<Map<String, Object>>() {});
+        assertEquals("NEW_REVIEW", event.get("event"));
+        assertEquals(saved.getId().toString(), event.get("reviewId"));
+        assertEquals("Air France", event.get("companyName"));
+        assertEquals("New York", event.get("origin"));
+        assertEquals("Paris", event.get("destination"));
     }
 
     @Test
@@ -145,6 +161,7 @@ class ReviewServiceTest {
         dto.setCustomerName("Alice");
         dto.setCustomerEmail("alice@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(FLIGHT_DATE);
         dto.setRating(5);
         dto.setDescription("Great flight.");
 
@@ -152,7 +169,7 @@ class ReviewServiceTest {
         flight.setFlightNumber("AF123");
         flight.setCompanyName("Air France");
 
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(flight);
+        when(flightService.getFlight("AF123", FLIGHT_DATE)).thenReturn(flight);
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -169,6 +186,7 @@ class ReviewServiceTest {
         dto.setCustomerName("Alice");
         dto.setCustomerEmail("alice@example.com");
         dto.setFlightNumber("AF123");
+        dto.setFlightDate(FLIGHT_DATE);
         dto.setRating(5);
         dto.setDescription("Great flight.");
 
@@ -176,7 +194,7 @@ class ReviewServiceTest {
         flight.setFlightNumber("AF123");
         flight.setCompanyName("Air France");
 
-        when(flightService.getFlightByFlightNumber("AF123")).thenReturn(flight);
+        when(flightService.getFlight("AF123", FLIGHT_DATE)).thenReturn(flight);
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         OffsetDateTime beforeSubmission = OffsetDateTime.now();